@@ -0,0 +1,166 @@
+package util.properties;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.tools.JavaCompiler;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+/**
+ * Generates and compiles classes with any number of {@link Property} fields
+ *  for the benchmarks, with or without a generated
+ *  {@link PropertiesBinder}.
+ *
+ * <p>
+ * The properties cycle through <code>int</code>, <code>long</code>,
+ *  <code>double</code>, <code>boolean</code>, <code>String</code> and
+ *  <code>List&lt;String&gt;</code>, and are named <code>p0</code>,
+ *  <code>p1</code>, etc.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class BenchmarkHolders {
+	private static final String[] TYPES = {
+		"int", "long", "double", "boolean", "String", "List<String>"
+	};
+
+	private BenchmarkHolders() {
+	}
+
+	/**
+	 * @param propertyCount the number of properties of the class
+	 * @param withBinder true to run {@link PropertiesProcessor} over the
+	 * 	class, so that it gets a generated binder
+	 * @return a freshly compiled class, in its own class loader
+	 * @throws IOException if the class cannot be compiled or loaded
+	 */
+	static Class<?> compile(int propertyCount, boolean withBinder)
+		throws IOException {
+		final String className = "bench.Holder" + propertyCount;
+		StringBuilder source = new StringBuilder();
+		source.append("package bench;\n")
+			.append("import java.util.List;\n")
+			.append("import util.properties.Property;\n")
+			.append("public class Holder").append(propertyCount)
+			.append(" {\n");
+		for(int i=0; i < propertyCount; ++i) {
+			source.append("    @Property public ")
+				.append(typeOf(i)).append(" p").append(i)
+				.append(";\n");
+		}
+		source.append("}\n");
+
+		File outputDir = Files.createTempDirectory("holders").toFile();
+		outputDir.deleteOnExit();
+		compile(outputDir, Collections.singletonMap(className,
+				source.toString()), withBinder);
+
+		URLClassLoader loader = new URLClassLoader(
+				new URL[] { outputDir.toURI().toURL() },
+				BenchmarkHolders.class.getClassLoader());
+		try {
+			return loader.loadClass(className);
+		} catch (ClassNotFoundException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * @param outputDir where to write the class files
+	 * @param sources the source code of each class, by binary name
+	 * @param withBinder true to run {@link PropertiesProcessor} over the
+	 * 	classes, so that they get generated binders
+	 * @throws IOException if the classes cannot be compiled
+	 */
+	static void compile(File outputDir, Map<String,String> sources,
+			boolean withBinder) throws IOException {
+		List<String> options = new ArrayList<String>(Arrays.asList(
+				"-d", outputDir.getPath(),
+				"-cp", System.getProperty("java.class.path")));
+		if(!withBinder) {
+			options.add("-proc:none");
+		}
+
+		List<SimpleJavaFileObject> units = new ArrayList<SimpleJavaFileObject>();
+		for(Map.Entry<String,String> source : sources.entrySet()) {
+			final String code = source.getValue();
+			units.add(new SimpleJavaFileObject(URI.create("string:///"
+					+ source.getKey().replace('.', '/') + ".java"),
+					SimpleJavaFileObject.Kind.SOURCE) {
+				@Override
+				public CharSequence getCharContent(boolean ignoreErrors) {
+					return code;
+				}
+			});
+		}
+
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null,
+				null, options, null, units);
+		if(withBinder) {
+			task.setProcessors(Arrays.asList(new PropertiesProcessor()));
+		}
+		if(!task.call()) {
+			throw new IOException("Could not compile " + sources.keySet());
+		}
+	}
+
+	/**
+	 * @param index which property
+	 * @return the type of the property
+	 */
+	static String typeOf(int index) {
+		return TYPES[index % TYPES.length];
+	}
+
+	/**
+	 * @param propertyCount the number of properties of the class
+	 * @return a value for every property of a class made by
+	 * 	{@link #compile}
+	 */
+	static Map<String,String> values(int propertyCount) {
+		Map<String,String> values = new HashMap<String,String>();
+		for(int i=0; i < propertyCount; ++i) {
+			values.put("p" + i, valueOf(i));
+		}
+		return values;
+	}
+
+	/**
+	 * @param index which property
+	 * @return a value for the property
+	 */
+	static String valueOf(int index) {
+		switch(index % TYPES.length) {
+		case 0: return Integer.toString(index);
+		case 1: return Long.toString(index * 1000000007L);
+		case 2: return Double.toString(index / 7.0);
+		case 3: return Boolean.toString(index % 2 == 0);
+		case 4: return "value of property " + index;
+		default: return "red,green,blue," + index;
+		}
+	}
+
+	/**
+	 * @param values the values to copy
+	 * @return a {@link Properties} holding the given values
+	 */
+	static Properties toProperties(Map<String,String> values) {
+		Properties properties = new Properties();
+		properties.putAll(values);
+		return properties;
+	}
+}
@@ -0,0 +1,73 @@
+package util.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Applies one set of properties to a population of objects with 10
+ *  properties each, either with a {@link PropertiesHandler} per object in a
+ *  loop or with a single {@link BulkPropertiesHandler}.
+ *
+ * @author Louis Acresti
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BulkBenchmark {
+
+	@Param({"1000", "100000"})
+	public int objects;
+
+	private List<Object> holders;
+	private Properties loadedProperties;
+	private BulkPropertiesHandler bulk;
+
+	@Setup
+	public void setUp() throws Exception {
+		Class<?> type = BenchmarkHolders.compile(10, false);
+		holders = new ArrayList<Object>();
+		for(int i=0; i < objects; ++i) {
+			holders.add(type.getConstructor().newInstance());
+		}
+		loadedProperties = BenchmarkHolders.toProperties(
+				BenchmarkHolders.values(10));
+		bulk = new BulkPropertiesHandler(holders);
+	}
+
+	@Benchmark
+	public Object handlerPerObject() throws Exception {
+		for(Object holder : holders) {
+			new PropertiesHandler(holder).applyProperties(loadedProperties);
+		}
+		return holders;
+	}
+
+	@Benchmark
+	public Object bulk() throws Exception {
+		new BulkPropertiesHandler(holders).applyProperties(loadedProperties);
+		return holders;
+	}
+
+	@Benchmark
+	public Object bulkReused() throws Exception {
+		bulk.applyProperties(loadedProperties);
+		return holders;
+	}
+}
@@ -0,0 +1,258 @@
+package util.properties;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * <p>
+ * Measures time-to-first-bind: every run forks a fresh JVM, which loads a
+ *  set of generated {@link Property}-annotated classes, creates the first
+ *  {@link PropertiesHandler} of each, and applies a shared .properties file
+ *  to all of them. JMH measures steady state; this measures what a freshly
+ *  restarted process pays, phase by phase:
+ * </p>
+ * <ul>
+ * <li><b>init</b>: initializing the library itself, including the static
+ * 	initializers of {@link PropertiesParser}
+ * <li><b>classes</b>: loading and initializing the annotated classes
+ * <li><b>bind</b>: creating the first handler of each class (the reflection
+ * 	scan, or loading its generated binder)
+ * <li><b>read</b>: loading the .properties file
+ * <li><b>apply</b>: the first {@link PropertiesHandler#applyProperties} of
+ * 	each object, which parses every value
+ * </ul>
+ *
+ * <p>
+ * Usage (after <code>mvn -f bench/pom.xml package</code>):
+ * <pre>
+ * java -cp bench/target/benchmarks.jar util.properties.ColdStartBenchmark \
+ *     [-classes 1,100,1000] [-keys 0,100000] [-binder false,true] \
+ *     [-forks 10] [-jvmArgs "-Xshare:auto -XX:TieredStopAtLevel=1"]
+ * </pre>
+ * Each generated class has 10 properties; <code>-keys</code> adds that many
+ *  unrelated keys to the file, to scale its size independently of the
+ *  number of bound properties. The median and 90th percentile of each phase
+ *  are reported, in milliseconds.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+public class ColdStartBenchmark {
+	private static final int PROPERTIES_PER_CLASS = 10;
+	private static final String[] PHASES = {
+		"init", "classes", "bind", "read", "apply"
+	};
+
+	public static void main(String[] args) throws Exception {
+		if(args.length > 0 && args[0].equals("-child")) {
+			child(new File(args[1]), Integer.parseInt(args[2]),
+					new File(args[3]));
+			return;
+		}
+
+		Map<String,String> options = new LinkedHashMap<String,String>();
+		options.put("-classes", "1,100,1000");
+		options.put("-keys", "0,100000");
+		options.put("-binder", "false,true");
+		options.put("-forks", "10");
+		options.put("-jvmArgs", "");
+		for(int i=0; i + 1 < args.length; i += 2) {
+			if(!options.containsKey(args[i])) {
+				throw new IllegalArgumentException("Unknown option: " + args[i]);
+			}
+			options.put(args[i], args[i + 1]);
+		}
+		int forks = Integer.parseInt(options.get("-forks"));
+		List<String> jvmArgs = options.get("-jvmArgs").trim().isEmpty()
+			? Collections.<String>emptyList()
+			: Arrays.asList(options.get("-jvmArgs").trim().split("\\s+"));
+
+		System.out.printf("%8s %8s %7s %6s", "classes", "keys", "binder", "");
+		for(String phase : PHASES) {
+			System.out.printf(" %9s", phase);
+		}
+		System.out.printf(" %9s%n", "total");
+
+		for(String classes : options.get("-classes").split(",")) {
+			for(String keys : options.get("-keys").split(",")) {
+				for(String binder : options.get("-binder").split(",")) {
+					run(Integer.parseInt(classes), Integer.parseInt(keys),
+							Boolean.parseBoolean(binder), forks, jvmArgs);
+				}
+			}
+		}
+	}
+
+	private static void run(int classCount, int extraKeys, boolean binder,
+			int forks, List<String> jvmArgs) throws Exception {
+		File dir = Files.createTempDirectory("coldstart").toFile();
+		File classesDir = new File(dir, "classes");
+		classesDir.mkdir();
+		File propertiesFile = new File(dir, "holders.properties");
+
+		Map<String,String> sources = new LinkedHashMap<String,String>();
+		for(int c=0; c < classCount; ++c) {
+			StringBuilder source = new StringBuilder();
+			source.append("package bench;\n")
+				.append("import java.util.List;\n")
+				.append("import util.properties.Property;\n")
+				.append("public class ColdHolder").append(c).append(" {\n");
+			for(int i=0; i < PROPERTIES_PER_CLASS; ++i) {
+				source.append("    @Property(name=\"holder").append(c)
+					.append(".p").append(i).append("\") public ")
+					.append(BenchmarkHolders.typeOf(i)).append(" p")
+					.append(i).append(";\n");
+			}
+			source.append("}\n");
+			sources.put("bench.ColdHolder" + c, source.toString());
+		}
+		BenchmarkHolders.compile(classesDir, sources, binder);
+
+		Writer writer = Files.newBufferedWriter(propertiesFile.toPath(),
+				StandardCharsets.ISO_8859_1);
+		try {
+			for(int c=0; c < classCount; ++c) {
+				for(int i=0; i < PROPERTIES_PER_CLASS; ++i) {
+					writer.write("holder" + c + ".p" + i + "="
+							+ BenchmarkHolders.valueOf(i) + "\n");
+				}
+			}
+			for(int k=0; k < extraKeys; ++k) {
+				writer.write("unrelated.service" + (k % 100) + ".key" + k
+						+ "=" + BenchmarkHolders.valueOf(k) + "\n");
+			}
+		} finally {
+			writer.close();
+		}
+
+		long[][] samples = new long[PHASES.length + 1][forks];
+		for(int f=0; f < forks; ++f) {
+			List<String> command = new ArrayList<String>();
+			command.add(new File(System.getProperty("java.home"),
+					"bin/java").getPath());
+			command.addAll(jvmArgs);
+			command.add("-cp");
+			command.add(System.getProperty("java.class.path"));
+			command.add(ColdStartBenchmark.class.getName());
+			command.add("-child");
+			command.add(classesDir.getPath());
+			command.add(Integer.toString(classCount));
+			command.add(propertiesFile.getPath());
+
+			Process process = new ProcessBuilder(command)
+				.redirectErrorStream(true).start();
+			BufferedReader output = new BufferedReader(new InputStreamReader(
+					process.getInputStream(), StandardCharsets.UTF_8));
+			String line;
+			String result = null;
+			StringBuilder log = new StringBuilder();
+			while((line = output.readLine()) != null) {
+				if(line.startsWith("phases ")) {
+					result = line;
+				} else {
+					log.append(line).append('\n');
+				}
+			}
+			if(process.waitFor() != 0 || result == null) {
+				throw new IllegalStateException("Fork failed:\n" + log);
+			}
+
+			String[] nanos = result.substring("phases ".length()).split(" ");
+			long total = 0;
+			for(int p=0; p < PHASES.length; ++p) {
+				samples[p][f] = Long.parseLong(nanos[p]);
+				total += samples[p][f];
+			}
+			samples[PHASES.length][f] = total;
+		}
+
+		report(classCount, extraKeys, binder, "p50", samples, 0.5);
+		report(classCount, extraKeys, binder, "p90", samples, 0.9);
+
+		deleteRecursively(dir);
+	}
+
+	private static void report(int classCount, int extraKeys, boolean binder,
+			String label, long[][] samples, double percentile) {
+		System.out.printf("%8d %8d %7s %6s", classCount, extraKeys, binder,
+				label);
+		for(long[] phase : samples) {
+			long[] sorted = phase.clone();
+			Arrays.sort(sorted);
+			int index = (int)Math.ceil(percentile * sorted.length) - 1;
+			System.out.printf(" %9.2f",
+					sorted[Math.max(0, index)] / 1000000.0);
+		}
+		System.out.println();
+	}
+
+	private static void deleteRecursively(File file) {
+		File[] children = file.listFiles();
+		if(children != null) {
+			for(File child : children) {
+				deleteRecursively(child);
+			}
+		}
+		file.delete();
+	}
+
+	/**
+	 * Runs in the forked JVM; prints the nanoseconds spent in each phase.
+	 */
+	private static void child(File classesDir, int classCount,
+			File propertiesFile) throws Exception {
+		long start = System.nanoTime();
+		Class.forName(PropertiesParser.class.getName());
+		Class.forName(PropertiesHandler.class.getName());
+		long init = System.nanoTime();
+
+		URLClassLoader loader = new URLClassLoader(
+				new URL[] { classesDir.toURI().toURL() },
+				ColdStartBenchmark.class.getClassLoader());
+		Object[] holders = new Object[classCount];
+		for(int c=0; c < classCount; ++c) {
+			holders[c] = Class.forName("bench.ColdHolder" + c, true, loader)
+				.getConstructor().newInstance();
+		}
+		long classes = System.nanoTime();
+
+		PropertiesHandler[] handlers = new PropertiesHandler[classCount];
+		for(int c=0; c < classCount; ++c) {
+			handlers[c] = new PropertiesHandler(holders[c]);
+		}
+		long bind = System.nanoTime();
+
+		Properties loadedProperties = new Properties();
+		Reader reader = Files.newBufferedReader(propertiesFile.toPath(),
+				StandardCharsets.ISO_8859_1);
+		try {
+			loadedProperties.load(reader);
+		} finally {
+			reader.close();
+		}
+		long read = System.nanoTime();
+
+		for(PropertiesHandler handler : handlers) {
+			handler.applyProperties(loadedProperties);
+		}
+		long apply = System.nanoTime();
+
+		System.out.println("phases " + (init - start) + " "
+				+ (classes - init) + " " + (bind - classes) + " "
+				+ (read - bind) + " " + (apply - read));
+	}
+}
@@ -0,0 +1,123 @@
+package util.properties;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures {@link PropertiesHandler} construction, applying and extracting
+ *  on classes with 10, 100 and 1,000 properties, bound through plain
+ *  reflection, through method handles (the default), or through a
+ *  generated {@link PropertiesBinder}.
+ *
+ * <p>
+ * Construction is measured with the class's binding already cached, which
+ *  is the steady state of a long-running application.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HandlerBenchmark {
+
+	@Param({"10", "100", "1000"})
+	public int properties;
+
+	@Param({"reflection", "handles", "binder"})
+	public String accessors;
+
+	private Object holder;
+	private PropertiesHandler handler;
+	private PropertiesHandler changesHandler;
+	private Map<String,String> values;
+	private Properties loadedProperties;
+	private StringBuilder output;
+
+	@Setup
+	public void setUp() throws Exception {
+		boolean binder = accessors.equals("binder");
+		// Read as each binding is created; every setup compiles a new class.
+		System.setProperty(PropertyAccessor.REFLECTION_PROPERTY,
+				Boolean.toString(accessors.equals("reflection")));
+		holder = BenchmarkHolders.compile(properties, binder)
+			.getConstructor().newInstance();
+		handler = new PropertiesHandler(holder);
+		if((PropertiesBinding.forClass(holder.getClass()).getBinder() != null)
+				!= binder) {
+			throw new IllegalStateException("Unexpected binding for "
+					+ holder.getClass());
+		}
+
+		values = BenchmarkHolders.values(properties);
+		loadedProperties = BenchmarkHolders.toProperties(values);
+		output = new StringBuilder();
+		handler.applyProperties(loadedProperties);
+		// Kept apart, since it makes every apply remember its values (and
+		//  every extract its formatted values):
+		changesHandler = new PropertiesHandler(holder);
+		changesHandler.applyChanges(loadedProperties);
+		changesHandler.extractChanges();
+	}
+
+	@Benchmark
+	public PropertiesHandler construct() throws Exception {
+		return new PropertiesHandler(holder);
+	}
+
+	@Benchmark
+	public Object applyProperties() throws Exception {
+		handler.applyProperties(loadedProperties);
+		return holder;
+	}
+
+	@Benchmark
+	public Object applyPropertiesInParallel() throws Exception {
+		handler.applyPropertiesInParallel(loadedProperties);
+		return holder;
+	}
+
+	@Benchmark
+	public Object applyUnchanged() throws Exception {
+		return changesHandler.applyChanges(loadedProperties);
+	}
+
+	@Benchmark
+	public Object applyMap() throws Exception {
+		handler.applyProperties(values);
+		return holder;
+	}
+
+	@Benchmark
+	public Properties extractProperties() throws Exception {
+		return handler.extractProperties();
+	}
+
+	@Benchmark
+	public Properties extractUnchanged() throws Exception {
+		return changesHandler.extractChanges();
+	}
+
+	@Benchmark
+	public StringBuilder extractToAppendable() throws Exception {
+		output.setLength(0);
+		handler.extractProperties(output);
+		return output;
+	}
+}
@@ -0,0 +1,115 @@
+package util.properties;
+
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the converters of {@link PropertiesParser} for scalars, and for
+ *  arrays, <code>Set</code>s, <code>List</code>s and primitive collections of
+ *  10 to 1,000,000 elements.
+ *
+ * <p>
+ * Converters are resolved once per type in the setup, as bindings do, so
+ *  only the conversion itself is measured.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+	// Only used for their (generic) types:
+	static int intScalar;
+	static long longScalar;
+	static double doubleScalar;
+	static Boolean booleanScalar;
+	static String stringScalar;
+	static Integer[] integerArray;
+	static int[] intArray;
+	static Set<String> stringSet;
+	static List<Integer> integerList;
+	static IntArrayList intArrayList;
+	static LongHashSet longHashSet;
+
+	private static Type typeOf(String fieldName) throws NoSuchFieldException {
+		return ParserBenchmark.class.getDeclaredField(fieldName)
+			.getGenericType();
+	}
+
+	@State(Scope.Benchmark)
+	public static class Scalars {
+		@Param({"intScalar", "longScalar", "doubleScalar", "booleanScalar",
+				"stringScalar"})
+		public String scalar;
+
+		PropertyConverter converter;
+		String value;
+
+		@Setup
+		public void setUp() throws NoSuchFieldException {
+			converter = PropertiesParser.converterFor(typeOf(scalar));
+			value = scalar.equals("booleanScalar") ? "true"
+				: scalar.equals("doubleScalar") ? "3.14159"
+				: scalar.equals("stringScalar") ? "Douglas Adams"
+				: "1234567";
+		}
+	}
+
+	@State(Scope.Benchmark)
+	public static class Collections {
+		@Param({"integerArray", "intArray", "stringSet", "integerList",
+				"intArrayList", "longHashSet"})
+		public String collection;
+
+		@Param({"10", "1000", "100000", "1000000"})
+		public int elements;
+
+		PropertyConverter converter;
+		String value;
+
+		@Setup
+		public void setUp() throws NoSuchFieldException {
+			converter = PropertiesParser.converterFor(typeOf(collection));
+			StringBuilder builder = new StringBuilder();
+			for(int i=0; i < elements; ++i) {
+				if(i > 0) {
+					builder.append(',');
+				}
+				if(collection.equals("stringSet")) {
+					builder.append("element").append(i);
+				} else {
+					builder.append(i * 7);
+				}
+			}
+			value = builder.toString();
+		}
+	}
+
+	@Benchmark
+	public Object parseScalar(Scalars state) {
+		return state.converter.convert(state.value);
+	}
+
+	@Benchmark
+	public Object parseCollection(Collections state) {
+		return state.converter.convert(state.value);
+	}
+}
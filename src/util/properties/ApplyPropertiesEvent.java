@@ -0,0 +1,56 @@
+package util.properties;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one call to
+ *  {@link PropertiesHandler#applyProperties}.
+ *
+ * @author Louis Acresti
+ */
+@Name("util.properties.ApplyProperties")
+@Label("Apply Properties")
+@Description("Applying a set of properties to an object")
+@Category("Property Annotations")
+@StackTrace(false)
+final class ApplyPropertiesEvent extends jdk.jfr.Event {
+	@Label("Object Class")
+	Class<?> objectClass;
+
+	@Label("Source")
+	@Description("Where the values were read from")
+	String source;
+
+	@Label("Keys Applied")
+	@Description("Properties set from a value in the source")
+	int keysApplied;
+
+	@Label("Defaults Applied")
+	@Description("Properties set to their default value")
+	int defaultsApplied;
+
+	/**
+	 * Checks whether a recording wants this event before creating it, so
+	 * 	that nothing is allocated while Flight Recorder is off.
+	 * @return a started event, or null if this event is not being recorded
+	 */
+	static ApplyPropertiesEvent beginIfRecorded() {
+		if(!FlightRecorder.isInitialized() || !Type.TYPE.isEnabled()) {
+			return null;
+		}
+		ApplyPropertiesEvent event = new ApplyPropertiesEvent();
+		event.begin();
+		return event;
+	}
+
+	// Registers the event with Flight Recorder once it is running.
+	private static final class Type {
+		static final EventType TYPE = EventType.getEventType(ApplyPropertiesEvent.class);
+	}
+}
@@ -0,0 +1,524 @@
+package util.properties;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>
+ * Applies properties to, and extracts them from, a whole population of
+ *  objects at once (per-tenant or per-shard configurations, say), instead
+ *  of creating a {@link PropertiesHandler} per object in a loop.
+ * </p>
+ *
+ * <p>
+ * Objects are split into chunks which are handled on an {@link Executor}:
+ *  by default, a virtual thread per chunk when the JVM has them (Java 21
+ *  and later), and the common {@link ForkJoinPool} otherwise. When a single
+ *  {@link Properties} is applied to every object, each value is looked up
+ *  and parsed once per class, before anything is written, so that a missing
+ *  or malformed value leaves every object untouched; immutable values (such
+ *  as numbers and strings) are then shared by all objects, while mutable
+ *  ones (arrays and collections) are copied for each object, and nested
+ *  objects are built anew for each object, so that no two objects share
+ *  them.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * BulkPropertiesHandler tenants = new BulkPropertiesHandler(tenantConfigs);
+ * tenants.applyProperties(defaults);
+ * ...
+ * tenants.extractProperties(tenantNames, writer); {@literal // "acme.quota=10"}
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Handlers' listeners, statistics and Flight Recorder events do not apply
+ *  to bulk operations.
+ * </p>
+ *
+ * @see PropertiesHandler
+ * @author Louis Acresti
+ */
+public final class BulkPropertiesHandler {
+	// Objects per task; enough to make the cost of a task negligible.
+	private static final int CHUNK_SIZE = 1024;
+
+	private final Object[] objects;
+	private final PropertiesBinding[] bindings;
+	private final Executor executor;
+
+	/**
+	 * @param objects the objects whose properties you would like to load or
+	 * 	store, in the order used by every other method
+	 * @throws PropertyInaccessibleException if any of the properties of any
+	 * 	of the objects cannot be properly mapped to a field or
+	 * 	getters/setters
+	 */
+	public BulkPropertiesHandler(Collection<?> objects)
+		throws PropertyInaccessibleException {
+		this(objects, DefaultExecutor.INSTANCE);
+	}
+
+	/**
+	 * @param objects the objects whose properties you would like to load or
+	 * 	store, in the order used by every other method
+	 * @param executor where to apply and extract chunks of objects; if it
+	 * 	rejects a chunk, the {@link RejectedExecutionException} is thrown
+	 * 	once the chunks it accepted are done, so that no object changes
+	 * 	afterwards (the objects of those chunks have been applied, though)
+	 * @throws PropertyInaccessibleException if any of the properties of any
+	 * 	of the objects cannot be properly mapped to a field or
+	 * 	getters/setters
+	 */
+	public BulkPropertiesHandler(Collection<?> objects, Executor executor)
+		throws PropertyInaccessibleException {
+		if(executor == null) {
+			throw new NullPointerException("executor");
+		}
+		this.objects = objects.toArray();
+		this.bindings = new PropertiesBinding[this.objects.length];
+		this.executor = executor;
+
+		Class<?> lastType = null;
+		PropertiesBinding lastBinding = null;
+		for(int i=0; i < this.objects.length; ++i) {
+			Class<?> type = this.objects[i].getClass();
+			if(type != lastType) {
+				lastType = type;
+				lastBinding = PropertiesBinding.forClass(type);
+			}
+			bindings[i] = lastBinding;
+		}
+	}
+
+	/**
+	 * @return the number of objects
+	 */
+	public int size() {
+		return objects.length;
+	}
+
+	/**
+	 * Applies the same properties to every object.
+	 * @param loadedProperties a pre-loaded properties object
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	loadedProperties; no object is changed then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from loadedProperties; no object is changed then
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	invoking a setter method; every other object is still applied, and
+	 * 	the first failure (in the order of the objects) is thrown once they
+	 * 	all are
+	 */
+	public void applyProperties(Properties loadedProperties)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		// Look up and parse each value once per class, up front:
+		final Map<PropertiesBinding,SharedValues> sharedValues
+			= new HashMap<PropertiesBinding,SharedValues>();
+		for(PropertiesBinding binding : bindings) {
+			if(!sharedValues.containsKey(binding)) {
+				sharedValues.put(binding,
+						new SharedValues(binding, loadedProperties));
+			}
+		}
+
+		Exception failure = forEachChunk(new Chunk() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				PropertiesBinding lastBinding = null;
+				SharedValues values = null;
+				Exception failure = null;
+				for(int i=from; i < to; ++i) {
+					if(bindings[i] != lastBinding) {
+						lastBinding = bindings[i];
+						values = sharedValues.get(lastBinding);
+					}
+					try {
+						values.applyTo(objects[i]);
+					} catch (Exception e) {
+						if(failure == null) {
+							failure = e;
+						}
+					}
+				}
+				if(failure != null) {
+					throw failure;
+				}
+			}
+		});
+		rethrowApplyFailure(failure);
+	}
+
+	/**
+	 * Applies different properties to each object. Each object's values are
+	 * 	all parsed before any of them is set, so an object with a missing or
+	 * 	malformed value is left untouched; every other object is still
+	 * 	applied.
+	 * @param loadedProperties the properties of each object, in the same
+	 * 	order as the objects
+	 * @throws IllegalArgumentException if there are not as many properties
+	 * 	as objects
+	 * @throws PropertyMissingException if a required property is not set
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	invoking a setter method
+	 */
+	public void applyProperties(List<? extends Properties> loadedProperties)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		checkSize(loadedProperties);
+		final Properties[] perObject
+			= loadedProperties.toArray(new Properties[objects.length]);
+
+		Exception failure = forEachChunk(new Chunk() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				Exception failure = null;
+				for(int i=from; i < to; ++i) {
+					try {
+						applyTo(objects[i], bindings[i], perObject[i]);
+					} catch (Exception e) {
+						if(failure == null) {
+							failure = e;
+						}
+					}
+				}
+				if(failure != null) {
+					throw failure;
+				}
+			}
+		});
+		rethrowApplyFailure(failure);
+	}
+
+	/**
+	 * Merges the properties of every object into one {@link Properties},
+	 * 	each key prefixed with its object's prefix.
+	 * @param prefixes the prefix of each object's keys (<code>"acme."</code>,
+	 * 	say), in the same order as the objects
+	 * @return the properties of every object
+	 * @throws IllegalArgumentException if there are not as many prefixes as
+	 * 	objects
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	invoking a getter method
+	 */
+	public Properties extractProperties(List<String> prefixes)
+		throws IOException, PropertyInvocationTargetException {
+		checkSize(prefixes);
+		final String[] keyPrefixes = prefixes.toArray(new String[0]);
+		final Properties[] chunks = new Properties[chunkCount()];
+
+		Exception failure = forEachChunk(new Chunk() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				Properties extracted = new Properties();
+				PropertiesWriter writer
+					= PropertiesWriter.forProperties(extracted);
+				for(int i=from; i < to; ++i) {
+					PropertiesHandler.writeObject(writer, keyPrefixes[i],
+							objects[i], bindings[i], null,
+							PropertiesHandler.NO_LISTENERS);
+				}
+				chunks[from / CHUNK_SIZE] = extracted;
+			}
+		});
+		rethrowExtractionFailure(failure);
+
+		Properties extractedProperties = new Properties();
+		for(Properties chunk : chunks) {
+			extractedProperties.putAll(chunk);
+		}
+		return extractedProperties;
+	}
+
+	/**
+	 * Writes the properties of every object as <code>key=value</code>
+	 * 	lines, each key prefixed with its object's prefix, escaped like
+	 * 	{@link Properties#store(java.io.Writer, String)} would escape them.
+	 * 	Objects are written in order; chunks of them are formatted in
+	 * 	parallel.
+	 * @param prefixes the prefix of each object's keys (<code>"acme."</code>,
+	 * 	say), in the same order as the objects
+	 * @param out where to append the properties
+	 * @throws IllegalArgumentException if there are not as many prefixes as
+	 * 	objects
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	invoking a getter method
+	 * @see PropertiesHandler#extractProperties(Appendable)
+	 */
+	public void extractProperties(List<String> prefixes, Appendable out)
+		throws IOException, PropertyInvocationTargetException {
+		checkSize(prefixes);
+		final String[] keyPrefixes = prefixes.toArray(new String[0]);
+		final StringBuilder[] chunks = new StringBuilder[chunkCount()];
+
+		Exception failure = forEachChunk(new Chunk() {
+			@Override
+			public void run(int from, int to) throws Exception {
+				StringBuilder text = new StringBuilder();
+				PropertiesWriter writer
+					= PropertiesWriter.forAppendable(text, true);
+				for(int i=from; i < to; ++i) {
+					PropertiesHandler.writeObject(writer, keyPrefixes[i],
+							objects[i], bindings[i], null,
+							PropertiesHandler.NO_LISTENERS);
+				}
+				writer.flush();
+				chunks[from / CHUNK_SIZE] = text;
+			}
+		});
+		rethrowExtractionFailure(failure);
+
+		for(StringBuilder chunk : chunks) {
+			out.append(chunk);
+		}
+	}
+
+	/**
+	 * One value per property of a class, looked up and parsed once for all
+	 * 	of its objects. Nested objects are built once up front, so that a
+	 * 	malformed nested value fails before any object is changed, then
+	 * 	built again for each object.
+	 */
+	private static final class SharedValues {
+		private final PropertySlot[] slots;
+		private final PropertyGroup group;
+		private final String[] rawValues;
+		private final Object[] parsedValues;
+
+		SharedValues(PropertiesBinding binding, Properties loadedProperties)
+			throws PropertyMissingException,
+				   PropertyParserException,
+				   PropertyInvocationTargetException {
+			this.slots = binding.getSlots();
+			this.group = binding.hasNestedSlots()
+				? PropertyGroup.of(binding, loadedProperties) : null;
+			this.rawValues = new String[slots.length];
+			this.parsedValues = new Object[slots.length];
+			for(PropertySlot slot : slots) {
+				if(slot.getWriter() != null) {
+					String raw = (group != null) 
+						? group.getValue(slot.getIndex())
+						: loadedProperties.getProperty(slot.getName());
+					rawValues[slot.getIndex()] = raw;
+					parsedValues[slot.getIndex()] = parse(slot, group, raw);
+				}
+			}
+		}
+
+		void applyTo(Object object) 
+			throws PropertyMissingException,
+				   PropertyParserException,
+				   PropertyInvocationTargetException {
+			for(PropertySlot slot : slots) {
+				if(slot.getWriter() == null) {
+					continue;
+				}
+				String raw = rawValues[slot.getIndex()];
+				Object value = parsedValues[slot.getIndex()];
+				if(slot.isNested()) {
+					value = parse(slot, group, raw);
+				} else if(!slot.isImmutable()) {
+					value = slot.copy(value, raw);
+				}
+				PropertiesHandler.setValue(object, slot, slot.getName(), raw,
+						value, PropertiesHandler.NO_LISTENERS);
+			}
+		}
+	}
+
+	private static void applyTo(Object object, PropertiesBinding binding,
+			Properties loadedProperties)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		PropertySlot[] slots = binding.getSlots();
+		PropertyGroup group = binding.hasNestedSlots()
+			? PropertyGroup.of(binding, loadedProperties) : null;
+		String[] rawValues = new String[slots.length];
+		Object[] parsedValues = new Object[slots.length];
+		for(PropertySlot slot : slots) {
+			if(slot.getWriter() != null) {
+				String raw = (group != null) 
+					? group.getValue(slot.getIndex())
+					: loadedProperties.getProperty(slot.getName());
+				rawValues[slot.getIndex()] = raw;
+				parsedValues[slot.getIndex()] = parse(slot, group, raw);
+			}
+		}
+		for(PropertySlot slot : slots) {
+			if(slot.getWriter() != null) {
+				PropertiesHandler.setValue(object, slot, slot.getName(),
+						rawValues[slot.getIndex()],
+						parsedValues[slot.getIndex()],
+						PropertiesHandler.NO_LISTENERS);
+			}
+		}
+	}
+
+	/**
+	 * @param slot the property to parse
+	 * @param group the keys of nested properties, or null if there are none
+	 * @param raw the raw value, or null to use the default value
+	 * @return the parsed value, or a new nested object
+	 */
+	private static Object parse(PropertySlot slot, PropertyGroup group,
+			String raw)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		if(slot.isNested()) {
+			return PropertiesHandler.newNestedValue(slot, slot.getName(),
+					group, PropertiesHandler.NO_LISTENERS, null);
+		}
+		return PropertiesHandler.parseValue(slot, slot.getName(), raw,
+				PropertiesHandler.NO_LISTENERS, null);
+	}
+
+	private static void rethrowApplyFailure(Exception failure)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		if(failure instanceof PropertyMissingException) {
+			throw (PropertyMissingException)failure;
+		} else if(failure instanceof PropertyParserException) {
+			throw (PropertyParserException)failure;
+		} else if(failure != null) {
+			throw (PropertyInvocationTargetException)failure;
+		}
+	}
+
+	private static void rethrowExtractionFailure(Exception failure)
+		throws IOException, PropertyInvocationTargetException {
+		if(failure instanceof IOException) {
+			throw (IOException)failure;
+		} else if(failure != null) {
+			throw (PropertyInvocationTargetException)failure;
+		}
+	}
+
+	private void checkSize(List<?> perObject) {
+		if(perObject.size() != objects.length) {
+			throw new IllegalArgumentException("Expected " + objects.length
+					+ " entries, one per object, but got " + perObject.size());
+		}
+	}
+
+	private int chunkCount() {
+		return (objects.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+	}
+
+	/**
+	 * Work on the objects from index <code>from</code> (inclusive) to
+	 * 	<code>to</code> (exclusive).
+	 */
+	private interface Chunk {
+		void run(int from, int to) throws Exception;
+	}
+
+	/**
+	 * Runs a chunk of work per {@link #CHUNK_SIZE} objects on the executor,
+	 * 	and waits for all of them.
+	 * @return the checked exception thrown by the first chunk that failed,
+	 * 	or null if none did
+	 * @throws RejectedExecutionException if the executor rejects a chunk;
+	 * 	thrown once the chunks it accepted are done
+	 */
+	private Exception forEachChunk(final Chunk chunk) {
+		final int chunkCount = chunkCount();
+		final Throwable[] failures = new Throwable[chunkCount];
+		final CountDownLatch done = new CountDownLatch(chunkCount);
+		RejectedExecutionException rejected = null;
+		for(int c=0; c < chunkCount; ++c) {
+			final int index = c;
+			try {
+				executor.execute(new Runnable() {
+					@Override
+					public void run() {
+						try {
+							int from = index * CHUNK_SIZE;
+							chunk.run(from,
+									Math.min(from + CHUNK_SIZE, objects.length));
+						} catch (Throwable t) {
+							failures[index] = t;
+						} finally {
+							done.countDown();
+						}
+					}
+				});
+			} catch (RejectedExecutionException e) {
+				// Neither this chunk nor the next ones will run; those
+				//  already submitted are still waited for.
+				rejected = e;
+				for(int skipped=c; skipped < chunkCount; ++skipped) {
+					done.countDown();
+				}
+				break;
+			}
+		}
+
+		boolean interrupted = false;
+		while(true) {
+			try {
+				done.await();
+				break;
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if(interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		if(rejected != null) {
+			throw rejected;
+		}
+		// The latch makes every chunk's writes visible here.
+		for(Throwable failure : failures) {
+			if(failure instanceof RuntimeException) {
+				throw (RuntimeException)failure;
+			} else if(failure instanceof Error) {
+				throw (Error)failure;
+			} else if(failure != null) {
+				return (Exception)failure;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Virtual threads when the JVM has them, the common pool otherwise.
+	 */
+	private static final class DefaultExecutor {
+		static final Executor INSTANCE = create();
+
+		private static Executor create() {
+			try {
+				return (Executor)Executors.class
+					.getMethod("newVirtualThreadPerTaskExecutor")
+					.invoke(null);
+			} catch (NoSuchMethodException e) {
+				return ForkJoinPool.commonPool();
+			} catch (ReflectiveOperationException e) {
+				return ForkJoinPool.commonPool();
+			}
+		}
+	}
+}
@@ -0,0 +1,51 @@
+package util.properties;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for one call to
+ *  {@link PropertiesHandler#extractProperties}.
+ *
+ * @author Louis Acresti
+ */
+@Name("util.properties.ExtractProperties")
+@Label("Extract Properties")
+@Description("Extracting the properties of an object")
+@Category("Property Annotations")
+@StackTrace(false)
+final class ExtractPropertiesEvent extends jdk.jfr.Event {
+	@Label("Object Class")
+	Class<?> objectClass;
+
+	@Label("Destination")
+	@Description("Where the values were written to")
+	String destination;
+
+	@Label("Keys Extracted")
+	int keysExtracted;
+
+	/**
+	 * Checks whether a recording wants this event before creating it, so
+	 * 	that nothing is allocated while Flight Recorder is off.
+	 * @return a started event, or null if this event is not being recorded
+	 */
+	static ExtractPropertiesEvent beginIfRecorded() {
+		if(!FlightRecorder.isInitialized() || !Type.TYPE.isEnabled()) {
+			return null;
+		}
+		ExtractPropertiesEvent event = new ExtractPropertiesEvent();
+		event.begin();
+		return event;
+	}
+
+	// Registers the event with Flight Recorder once it is running.
+	private static final class Type {
+		static final EventType TYPE = EventType.getEventType(ExtractPropertiesEvent.class);
+	}
+}
@@ -0,0 +1,147 @@
+package util.properties;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * <p>
+ * What a handler last extracted from each property of its object, by slot
+ *  index, kept for two purposes: to format only the values that were
+ *  replaced or changed in place, whichever way properties are extracted;
+ *  and to tell which properties changed since they were last reported by
+ *  {@link PropertiesHandler#extractChanges()}, which alone moves that
+ *  baseline forward.
+ * </p>
+ *
+ * <p>
+ * Only immutable values (strings, and boxed numbers, booleans and
+ *  characters) are taken from the cache, when equal to the last one, such
+ *  as a number boxed again by a getter. Arrays and collections may have
+ *  changed in place to anything, so they are formatted every time and
+ *  compared with what was last formatted instead; nested properties are
+ *  formatted every time too, and their keys compared one by one with those
+ *  last reported.
+ * </p>
+ *
+ * <p>
+ * Not thread-safe: callers hold this object's monitor.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class ExtractedValues {
+	private static final Object UNREPORTED = new Object();
+
+	// The format cache:
+	private final Object[] values;
+	private final String[] strings;
+
+	// What extractChanges last reported: the formatted value of each
+	//  property (null if it was null), or every key of a nested property
+	//  with its formatted value, or UNREPORTED.
+	private final Object[] reported;
+
+	private final StringBuilder formatted = new StringBuilder();
+	private final PropertiesWriter formatter
+		= PropertiesWriter.forAppendable(formatted, false);
+
+	/**
+	 * @param size the number of slots of the object
+	 */
+	ExtractedValues(int size) {
+		this.values = new Object[size];
+		this.strings = new String[size];
+		this.reported = new Object[size];
+		Arrays.fill(reported, UNREPORTED);
+	}
+
+	/**
+	 * @param index the slot index of a property
+	 * @param value the value just extracted from the property, or null
+	 * @return the value formatted as it is written (before escaping), from
+	 * 	the cache if it did not change, or null if the value is null
+	 * @throws IOException never, in practice; formatting writes to memory
+	 */
+	String format(int index, Object value) throws IOException {
+		if(value == null) {
+			values[index] = null;
+			strings[index] = null;
+			return null;
+		}
+		boolean immutable = isImmutable(value);
+		if(immutable && strings[index] != null
+				&& value.equals(values[index])) {
+			return strings[index];
+		}
+
+		values[index] = immutable ? value : null;
+		if(value instanceof String) {
+			// Already formatted.
+			strings[index] = (String)value;
+		} else {
+			formatted.setLength(0);
+			formatter.writeValue(value);
+			formatter.flush();
+			if(strings[index] == null
+					|| !strings[index].contentEquals(formatted)) {
+				strings[index] = formatted.toString();
+			}
+		}
+		return strings[index];
+	}
+
+	/**
+	 * Records what is being reported of a property.
+	 * @param index the slot index of the property
+	 * @param string its formatted value, or null
+	 * @return true if it differs from what was last reported, or nothing
+	 * 	was
+	 */
+	boolean report(int index, String string) {
+		Object previous = reported[index];
+		reported[index] = string;
+		return previous == UNREPORTED
+			|| (string == null ? previous != null : !string.equals(previous));
+	}
+
+	/**
+	 * Records what is being reported of a nested property.
+	 * @param index the slot index of the property
+	 * @param keys every key of the property, with its formatted value
+	 * @return the keys whose value differs from what was last reported,
+	 * 	or that were not reported
+	 */
+	List<String> reportNested(int index, Properties keys) {
+		Object previous = reported[index];
+		reported[index] = keys;
+		if(previous == UNREPORTED) {
+			return new ArrayList<String>(keys.stringPropertyNames());
+		}
+		Properties last = (Properties)previous;
+		List<String> changed = Collections.emptyList();
+		for(String key : keys.stringPropertyNames()) {
+			if(!keys.getProperty(key).equals(last.getProperty(key))) {
+				if(changed.isEmpty()) {
+					changed = new ArrayList<String>();
+				}
+				changed.add(key);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * @return true if the value cannot change once extracted
+	 */
+	private static boolean isImmutable(Object value) {
+		return value instanceof String || value instanceof Integer
+			|| value instanceof Long || value instanceof Double
+			|| value instanceof Boolean || value instanceof Float
+			|| value instanceof Short || value instanceof Byte
+			|| value instanceof Character;
+	}
+}
@@ -0,0 +1,48 @@
+package util.properties;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for the construction of a {@link PropertiesHandler},
+ *  including binding its class the first time the class is seen.
+ *
+ * @author Louis Acresti
+ */
+@Name("util.properties.HandlerCreated")
+@Label("Properties Handler Created")
+@Description("Construction of a PropertiesHandler, including the first "
+		+ "binding of its object's class")
+@Category("Property Annotations")
+@StackTrace(false)
+final class HandlerCreatedEvent extends jdk.jfr.Event {
+	@Label("Object Class")
+	Class<?> objectClass;
+
+	@Label("Property Count")
+	int propertyCount;
+
+	/**
+	 * Checks whether a recording wants this event before creating it, so
+	 * 	that nothing is allocated while Flight Recorder is off.
+	 * @return a started event, or null if this event is not being recorded
+	 */
+	static HandlerCreatedEvent beginIfRecorded() {
+		if(!FlightRecorder.isInitialized() || !Type.TYPE.isEnabled()) {
+			return null;
+		}
+		HandlerCreatedEvent event = new HandlerCreatedEvent();
+		event.begin();
+		return event;
+	}
+
+	// Registers the event with Flight Recorder once it is running.
+	private static final class Type {
+		static final EventType TYPE = EventType.getEventType(HandlerCreatedEvent.class);
+	}
+}
@@ -0,0 +1,89 @@
+package util.properties;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters kept by a {@link PropertiesHandler} once it has been registered
+ *  with {@link PropertiesRegistry}. Handlers that are not registered keep no
+ *  statistics at all.
+ *
+ * <p>
+ * Every counter may be updated by several threads applying properties at
+ *  once, and read by JMX at any time.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class HandlerStatistics {
+	private final LongAdder applyCount = new LongAdder();
+	private final LongAdder totalApplyNanos = new LongAdder();
+	private final AtomicLong maxApplyNanos = new AtomicLong();
+	private volatile long lastApplyMillis;
+	private final ConcurrentHashMap<String,LongAdder> parseFailures
+		= new ConcurrentHashMap<String,LongAdder>();
+
+	/**
+	 * @param nanos how long a successful apply took
+	 */
+	void applied(long nanos) {
+		applyCount.increment();
+		totalApplyNanos.add(nanos);
+		long max = maxApplyNanos.get();
+		while(nanos > max && !maxApplyNanos.compareAndSet(max, nanos)) {
+			max = maxApplyNanos.get();
+		}
+		lastApplyMillis = System.currentTimeMillis();
+	}
+
+	/**
+	 * @param propertyName the property whose value could not be parsed
+	 */
+	void parseFailed(String propertyName) {
+		LongAdder failures = parseFailures.get(propertyName);
+		if(failures == null) {
+			LongAdder newFailures = new LongAdder();
+			failures = parseFailures.putIfAbsent(propertyName, newFailures);
+			if(failures == null) {
+				failures = newFailures;
+			}
+		}
+		failures.increment();
+	}
+
+	long getApplyCount() {
+		return applyCount.sum();
+	}
+
+	long getTotalApplyNanos() {
+		return totalApplyNanos.sum();
+	}
+
+	long getMaxApplyNanos() {
+		return maxApplyNanos.get();
+	}
+
+	/**
+	 * @return when the last successful apply finished, in milliseconds since
+	 * 	the epoch, or 0 if there was none
+	 */
+	long getLastApplyMillis() {
+		return lastApplyMillis;
+	}
+
+	/**
+	 * @return the number of parse failures of each property that ever failed
+	 * 	to parse, sorted by name
+	 */
+	Map<String,Long> getParseFailures() {
+		Map<String,Long> failures = new TreeMap<String,Long>();
+		for(Map.Entry<String,LongAdder> entry : parseFailures.entrySet()) {
+			failures.put(entry.getKey(), entry.getValue().sum());
+		}
+		return Collections.unmodifiableMap(failures);
+	}
+}
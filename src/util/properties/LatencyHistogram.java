@@ -0,0 +1,138 @@
+package util.properties;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>
+ * A lock-free histogram of durations in nanoseconds, with one bucket per
+ *  power of two: bucket 0 counts durations of 0, and bucket <code>b</code>
+ *  counts durations from <code>2^(b-1)</code> to <code>2^b - 1</code>.
+ *  Recording a duration is a couple of atomic increments and allocates
+ *  nothing, so it can be done on every call; percentiles are only precise
+ *  to a factor of two, which is enough to tell a 1&micro;s setter from a
+ *  1ms one.
+ * </p>
+ *
+ * <p>
+ * Readers may see a histogram halfway through an update (a count that
+ *  does not quite add up to the sum of its buckets, say), never a corrupt
+ *  one.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+public final class LatencyHistogram {
+	/** The number of buckets, enough for any non-negative long. */
+	public static final int BUCKET_COUNT = 64;
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong count = new AtomicLong();
+	private final AtomicLong totalNanos = new AtomicLong();
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	/**
+	 * @param nanos the duration to record; negative durations (from a clock
+	 * 	going backwards) count as 0
+	 */
+	public void record(long nanos) {
+		if(nanos < 0) {
+			nanos = 0;
+		}
+		buckets.incrementAndGet(bucketOf(nanos));
+		count.incrementAndGet();
+		totalNanos.addAndGet(nanos);
+		long max = maxNanos.get();
+		while(nanos > max && !maxNanos.compareAndSet(max, nanos)) {
+			max = maxNanos.get();
+		}
+	}
+
+	/**
+	 * @return the number of durations recorded
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the sum of the durations recorded
+	 */
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	/**
+	 * @return the longest duration recorded, or 0 if there was none
+	 */
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * @param bucket a bucket, from 0 to {@link #BUCKET_COUNT} - 1
+	 * @return the number of durations recorded in that bucket
+	 */
+	public long getBucketCount(int bucket) {
+		return buckets.get(bucket);
+	}
+
+	/**
+	 * @param percentile from 0 to 100
+	 * @return an upper bound of the given percentile of the durations
+	 * 	recorded (the upper end of its bucket, or the longest duration
+	 * 	recorded if that is lower), or 0 if there was none
+	 */
+	public long getPercentileNanos(double percentile) {
+		if(percentile < 0 || percentile > 100) {
+			throw new IllegalArgumentException("Not a percentile: "
+					+ percentile);
+		}
+		long[] counts = new long[BUCKET_COUNT];
+		long total = 0;
+		for(int b=0; b < BUCKET_COUNT; ++b) {
+			counts[b] = buckets.get(b);
+			total += counts[b];
+		}
+		if(total == 0) {
+			return 0;
+		}
+
+		long rank = Math.max(1, (long)Math.ceil(total * percentile / 100));
+		long seen = 0;
+		int bucket = 0;
+		while(bucket < BUCKET_COUNT - 1) {
+			seen += counts[bucket];
+			if(seen >= rank) {
+				break;
+			}
+			++bucket;
+		}
+		return Math.min(upperBoundOf(bucket), getMaxNanos());
+	}
+
+	/**
+	 * @param nanos a non-negative duration
+	 * @return the bucket the duration falls in
+	 */
+	static int bucketOf(long nanos) {
+		return Math.min(BUCKET_COUNT - 1, 64 - Long.numberOfLeadingZeros(nanos));
+	}
+
+	/**
+	 * @param bucket a bucket
+	 * @return the longest duration that falls in the bucket
+	 */
+	static long upperBoundOf(int bucket) {
+		return bucket == BUCKET_COUNT - 1
+			? Long.MAX_VALUE
+			: (1L << bucket) - 1;
+	}
+
+	@Override
+	public String toString() {
+		return "count=" + getCount() + " p50=" + getPercentileNanos(50)
+			+ "ns p99=" + getPercentileNanos(99) + "ns max=" + getMaxNanos()
+			+ "ns";
+	}
+}
@@ -0,0 +1,173 @@
+package util.properties;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A growable list of <code>long</code>s, backed by a single
+ *  <code>long[]</code>.
+ * </p>
+ *
+ * <p>
+ * Use it instead of <code>List&lt;Long&gt;</code> for large {@link Property}
+ *  values: elements are parsed straight into the backing array and never
+ *  boxed, so each one costs eight bytes instead of a reference plus an
+ *  <code>Long</code> object.
+ * </p>
+ *
+ * <p>
+ * Its {@link #toString()} is the comma-separated form used in .properties
+ *  files, so it round-trips through {@link PropertiesHandler#applyProperties}
+ *  and {@link PropertiesHandler#extractProperties}.
+ * </p>
+ *
+ * @see IntArrayList
+ * @see DoubleArrayList
+ * @see LongHashSet
+ * @author Louis Acresti
+ */
+public final class LongArrayList {
+	private long[] elements;
+	private int size;
+
+	public LongArrayList() {
+		this(10);
+	}
+
+	/**
+	 * @param initialCapacity the number of elements to make room for
+	 */
+	public LongArrayList(int initialCapacity) {
+		if(initialCapacity < 0) {
+			throw new IllegalArgumentException("Illegal capacity: "
+					+ initialCapacity);
+		}
+		elements = new long[initialCapacity];
+	}
+
+	/**
+	 * @param values the initial elements of the list (copied)
+	 */
+	public LongArrayList(long[] values) {
+		elements = values.clone();
+		size = values.length;
+	}
+
+	/**
+	 * @param value the value to append
+	 */
+	public void add(long value) {
+		if(size == elements.length) {
+			elements = Arrays.copyOf(elements,
+					Math.max(8, size + (size >> 1)));
+		}
+		elements[size++] = value;
+	}
+
+	/**
+	 * @param index the index of the element to return
+	 * @return the element at the given index
+	 */
+	public long get(int index) {
+		checkIndex(index);
+		return elements[index];
+	}
+
+	/**
+	 * @param index the index of the element to replace
+	 * @param value the new value
+	 * @return the value previously at the given index
+	 */
+	public long set(int index, long value) {
+		checkIndex(index);
+		long previous = elements[index];
+		elements[index] = value;
+		return previous;
+	}
+
+	/**
+	 * @param value the value to look for
+	 * @return the index of the first occurrence of the value, or -1
+	 */
+	public int indexOf(long value) {
+		for(int i=0; i < size; ++i) {
+			if(elements[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	public boolean contains(long value) {
+		return indexOf(value) >= 0;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		size = 0;
+	}
+
+	/**
+	 * @return a copy of the elements of this list
+	 */
+	public long[] toArray() {
+		return Arrays.copyOf(elements, size);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		} else if(!(obj instanceof LongArrayList)) {
+			return false;
+		}
+		LongArrayList other = (LongArrayList)obj;
+		if(size != other.size) {
+			return false;
+		}
+		for(int i=0; i < size; ++i) {
+			if(elements[i] != other.elements[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for(int i=0; i < size; ++i) {
+			hash = 31 * hash + Long.hashCode(elements[i]);
+		}
+		return hash;
+	}
+
+	/**
+	 * @return the elements of this list, separated by commas
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(size * 8);
+		for(int i=0; i < size; ++i) {
+			if(i > 0) {
+				builder.append(',');
+			}
+			builder.append(elements[i]);
+		}
+		return builder.toString();
+	}
+
+	private void checkIndex(int index) {
+		if(index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index
+					+ ", Size: " + size);
+		}
+	}
+}
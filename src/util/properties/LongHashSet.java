@@ -0,0 +1,296 @@
+package util.properties;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * A set of <code>long</code>s using open addressing (linear probing) over a
+ *  single <code>long[]</code>.
+ * </p>
+ *
+ * <p>
+ * Use it instead of <code>Set&lt;Long&gt;</code> for large {@link Property}
+ *  values such as allow-lists of IDs: each element costs one slot of the
+ *  backing array (8 to 16 bytes, depending on how full the table is) instead
+ *  of a <code>HashMap</code> entry plus a boxed <code>Long</code>.
+ * </p>
+ *
+ * <p>
+ * Its {@link #toString()} is the comma-separated form used in .properties
+ *  files (in no particular order), so it round-trips through
+ *  {@link PropertiesHandler#applyProperties} and
+ *  {@link PropertiesHandler#extractProperties}.
+ * </p>
+ *
+ * @see IntHashSet
+ * @see LongArrayList
+ * @author Louis Acresti
+ */
+public final class LongHashSet {
+	private static final float LOAD_FACTOR = 0.75f;
+	// The largest power of two an array can hold, and the most elements
+	//  such a table is filled with:
+	private static final int MAX_CAPACITY = 1 << 30;
+	private static final int MAX_SIZE = (int)(MAX_CAPACITY * LOAD_FACTOR);
+
+	// 0 marks an empty slot; whether 0 itself is in the set is kept apart.
+	private long[] table;
+	private boolean containsZero;
+	private int size;
+	private int resizeThreshold;
+
+	public LongHashSet() {
+		this(16);
+	}
+
+	/**
+	 * @param expectedSize the number of elements to make room for
+	 * @throws IllegalArgumentException if the size is negative, or more than
+	 * 	a set can hold
+	 */
+	public LongHashSet(int expectedSize) {
+		if(expectedSize < 0) {
+			throw new IllegalArgumentException("Illegal size: "
+					+ expectedSize);
+		}
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	/**
+	 * @param value the value to add
+	 * @return true if the set did not already contain the value
+	 * @throws IllegalStateException if the set holds as many elements as it
+	 * 	can already
+	 */
+	public boolean add(long value) {
+		if(value == 0) {
+			if(containsZero) {
+				return false;
+			}
+			containsZero = true;
+			++size;
+			return true;
+		}
+
+		int mask = table.length - 1;
+		int i = hash(value) & mask;
+		while(table[i] != 0) {
+			if(table[i] == value) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		table[i] = value;
+		if(++size > resizeThreshold) {
+			if(table.length == MAX_CAPACITY) {
+				// Taken back, so that probes still end on an empty slot.
+				table[i] = 0;
+				--size;
+				throw new IllegalStateException("Set is full: " + size
+						+ " elements");
+			}
+			rehash(table.length * 2);
+		}
+		return true;
+	}
+
+	/**
+	 * @param value the value to look for
+	 * @return true if the set contains the value
+	 */
+	public boolean contains(long value) {
+		if(value == 0) {
+			return containsZero;
+		}
+
+		int mask = table.length - 1;
+		int i = hash(value) & mask;
+		while(table[i] != 0) {
+			if(table[i] == value) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * @param value the value to remove
+	 * @return true if the set contained the value
+	 */
+	public boolean remove(long value) {
+		if(value == 0) {
+			if(!containsZero) {
+				return false;
+			}
+			containsZero = false;
+			--size;
+			return true;
+		}
+
+		int mask = table.length - 1;
+		int i = hash(value) & mask;
+		while(table[i] != value) {
+			if(table[i] == 0) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+
+		// Shift back any following entries that probed past this slot, so
+		//  lookups never stop early at the hole we're leaving.
+		int j = i;
+		while(true) {
+			j = (j + 1) & mask;
+			if(table[j] == 0) {
+				break;
+			}
+			int home = hash(table[j]) & mask;
+			boolean inRange = (i <= j)
+				? (i < home && home <= j)
+				: (i < home || home <= j);
+			if(!inRange) {
+				table[i] = table[j];
+				i = j;
+			}
+		}
+		table[i] = 0;
+		--size;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(table, 0);
+		containsZero = false;
+		size = 0;
+	}
+
+	/**
+	 * @return the elements of this set, in no particular order
+	 */
+	public long[] toArray() {
+		long[] array = new long[size];
+		int n = 0;
+		if(containsZero) {
+			array[n++] = 0;
+		}
+		for(long value : table) {
+			if(value != 0) {
+				array[n++] = value;
+			}
+		}
+		return array;
+	}
+
+	/**
+	 * Lets {@link PropertiesWriter} format the elements without copying them.
+	 * @return the backing table, in which 0 marks an empty slot; must not be
+	 * 	modified
+	 * @see #containsZero()
+	 */
+	long[] table() {
+		return table;
+	}
+
+	/**
+	 * @return true if 0 is in the set (it is never stored in the table)
+	 */
+	boolean containsZero() {
+		return containsZero;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if(this == obj) {
+			return true;
+		} else if(!(obj instanceof LongHashSet)) {
+			return false;
+		}
+		LongHashSet other = (LongHashSet)obj;
+		if(size != other.size || containsZero != other.containsZero) {
+			return false;
+		}
+		for(long value : table) {
+			if(value != 0 && !other.contains(value)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		// Same as a Set<Long> with the same elements.
+		int hash = 0;
+		for(long value : table) {
+			hash += Long.hashCode(value);
+		}
+		return hash;
+	}
+
+	/**
+	 * @return the elements of this set, separated by commas
+	 */
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder(size * 8);
+		if(containsZero) {
+			builder.append('0');
+		}
+		for(long value : table) {
+			if(value != 0) {
+				if(builder.length() > 0) {
+					builder.append(',');
+				}
+				builder.append(value);
+			}
+		}
+		return builder.toString();
+	}
+
+	private void rehash(int newCapacity) {
+		long[] oldTable = table;
+		allocate(newCapacity);
+		int mask = table.length - 1;
+		for(long value : oldTable) {
+			if(value != 0) {
+				int i = hash(value) & mask;
+				while(table[i] != 0) {
+					i = (i + 1) & mask;
+				}
+				table[i] = value;
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		table = new long[capacity];
+		resizeThreshold = (int)(capacity * LOAD_FACTOR);
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		if(expectedSize > MAX_SIZE) {
+			throw new IllegalArgumentException("Illegal size: "
+					+ expectedSize + " (at most " + MAX_SIZE + ")");
+		}
+		int capacity = 16;
+		while(capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	private static int hash(long value) {
+		// Spread sequential IDs over the table (Fibonacci hashing).
+		long h = value * 0x9E3779B97F4A7C15L;
+		return (int)(h ^ (h >>> 32));
+	}
+}
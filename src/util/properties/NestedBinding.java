@@ -0,0 +1,167 @@
+package util.properties;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * The type of a nested property: a property whose type (or, for a
+ *  <code>List</code>, whose element type) is itself a class with
+ *  {@link Property}-annotated members, bound from keys prefixed with the
+ *  property's name (<code>db.primary.host</code>, or
+ *  <code>shards.7.weight</code> for an element of a list).
+ *
+ * <p>
+ * Each nested object is created with the class's constructor without
+ *  parameters, compiled once into a {@link MethodHandle} (the same goes
+ *  for each object of a {@link PropertiesSnapshot}). The class's own
+ *  {@link PropertiesBinding} is only looked up once the binding holding
+ *  this property is complete (see {@link PropertiesBinding#resolveNested}),
+ *  since a class may nest itself, directly or not.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class NestedBinding {
+	private static final MethodType CONSTRUCTOR_TYPE
+		= MethodType.methodType(Object.class);
+
+	private final Class<?> type;
+	private final MethodHandle constructor;
+	private final Constructor<?> reflectiveConstructor;
+	private volatile PropertiesBinding binding;
+
+	private NestedBinding(Class<?> type, MethodHandle constructor,
+			Constructor<?> reflectiveConstructor) {
+		this.type = type;
+		this.constructor = constructor;
+		this.reflectiveConstructor = reflectiveConstructor;
+	}
+
+	/**
+	 * @param type a class
+	 * @return true if the class has any {@link Property},
+	 * 	{@link PropertyGetter} or {@link PropertySetter} annotated members,
+	 * 	so that properties of its type are bound as nested objects
+	 */
+	static boolean isNested(Class<?> type) {
+		if(type.isPrimitive() || type.isArray() || type.isInterface()
+		|| type.getName().startsWith("java.")) {
+			return false;
+		}
+		for(Field field : type.getDeclaredFields()) {
+			if(field.isAnnotationPresent(Property.class)) {
+				return true;
+			}
+		}
+		for(Method method : type.getMethods()) {
+			if(method.isAnnotationPresent(PropertySetter.class)
+			|| method.isAnnotationPresent(PropertyGetter.class)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @param propName the name of the nested property, for errors, or null
+	 * 	for the class of a {@link PropertiesSnapshot}
+	 * @param type the class of the nested objects
+	 * @throws PropertyInaccessibleException if the class cannot be created
+	 * 	without arguments
+	 */
+	static NestedBinding forClass(String propName, Class<?> type)
+		throws PropertyInaccessibleException {
+		Constructor<?> constructor;
+		try {
+			constructor = type.getDeclaredConstructor();
+		} catch (NoSuchMethodException e) {
+			constructor = null;
+		}
+		if(constructor == null || Modifier.isAbstract(type.getModifiers())
+		|| (type.getEnclosingClass() != null
+			&& !Modifier.isStatic(type.getModifiers()))) {
+			throw new PropertyInaccessibleException(propName,
+				(propName != null
+					? "The nested property named '" + propName + "' is a "
+					: "The class ")
+					+ type.getName() + ", which cannot be created: it "
+					+ "must be a concrete, static class with a constructor "
+					+ "that accepts zero (0) parameters.");
+		}
+
+		try {
+			MethodHandle handle
+				= MethodHandles.lookup().unreflectConstructor(constructor);
+			return new NestedBinding(type, handle.asType(CONSTRUCTOR_TYPE),
+					null);
+		} catch (IllegalAccessException e) {
+			try {
+				constructor.setAccessible(true);
+			} catch (RuntimeException inaccessible) {
+				throw new PropertyInaccessibleException(propName,
+					"The constructor of " + type.getName()
+						+ " is not accessible.");
+			}
+			return new NestedBinding(type, null, constructor);
+		}
+	}
+
+	/**
+	 * @return the class of the nested objects
+	 */
+	Class<?> getType() {
+		return type;
+	}
+
+	/**
+	 * @return the binding of the nested objects' class
+	 * @throws IllegalStateException if it has not been resolved yet
+	 */
+	PropertiesBinding getBinding() {
+		PropertiesBinding binding = this.binding;
+		if(binding == null) {
+			throw new IllegalStateException("Unresolved binding for "
+					+ type.getName());
+		}
+		return binding;
+	}
+
+	void setBinding(PropertiesBinding binding) {
+		this.binding = binding;
+	}
+
+	boolean isResolved() {
+		return binding != null;
+	}
+
+	/**
+	 * @return a new nested object
+	 * @throws InvocationTargetException if the constructor throws
+	 */
+	Object newInstance() throws InvocationTargetException {
+		if(constructor == null) {
+			try {
+				return reflectiveConstructor.newInstance();
+			} catch (InstantiationException e) {
+				throw new InvocationTargetException(e);
+			} catch (IllegalAccessException e) {
+				throw new InvocationTargetException(e);
+			}
+		}
+		try {
+			return (Object)constructor.invokeExact();
+		} catch (RuntimeException e) {
+			throw new InvocationTargetException(e);
+		} catch (Error e) {
+			throw e;
+		} catch (Throwable e) {
+			throw new InvocationTargetException(e);
+		}
+	}
+}
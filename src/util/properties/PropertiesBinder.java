@@ -0,0 +1,140 @@
+package util.properties;
+
+/**
+ * <p>
+ * Base class of the reflection-free binders generated at compile time by
+ *  {@link PropertiesProcessor}.
+ * </p>
+ *
+ * <p>
+ * A binder is generated next to each class that uses {@link Property},
+ *  {@link PropertyGetter}, or {@link PropertySetter}, and is named after that
+ *  class' binary name followed by <code>$$PropertiesBinder</code>. It reads
+ *  and writes fields and calls getters/setters directly, and parses simple
+ *  types with static calls. {@link PropertiesHandler} uses it automatically
+ *  when it is present, and falls back to reflection when it is not.
+ * </p>
+ *
+ * <p>
+ * You should never need to extend this class yourself.
+ * </p>
+ *
+ * @see PropertiesProcessor
+ * @author Louis Acresti
+ */
+public abstract class PropertiesBinder {
+
+	/**
+	 * Appended to a class' binary name to form the name of its binder.
+	 */
+	static final String BINDER_SUFFIX = "$$PropertiesBinder";
+
+	/**
+	 * Returned by {@link #parse} for properties whose type has no
+	 * 	compiled parser.
+	 */
+	protected static final Object NO_PARSER = new Object();
+
+	protected PropertiesBinder() {
+	}
+
+	/**
+	 * @return the names of all properties this binder knows about; the
+	 * 	position of each name is the index passed to the other methods
+	 */
+	protected abstract String[] getPropertyNames();
+
+	/**
+	 * @param target the object to read from
+	 * @param index the index of the property
+	 * @return the current value of the property
+	 * @throws Exception anything thrown by the property's getter
+	 */
+	protected abstract Object get(Object target, int index) throws Exception;
+
+	/**
+	 * @param target the object to write to
+	 * @param index the index of the property
+	 * @param value the already-parsed value of the property
+	 * @throws Exception anything thrown by the property's setter
+	 */
+	protected abstract void set(Object target, int index, Object value)
+		throws Exception;
+
+	/**
+	 * @param index the index of the property
+	 * @param value the string to parse
+	 * @return the parsed value, or {@link #NO_PARSER} if the property's type
+	 * 	must be parsed by {@link PropertiesHandler} at runtime
+	 */
+	protected abstract Object parse(int index, String value);
+
+	/**
+	 * @param type a class which may have had a binder generated for it
+	 * @return a new instance of the type's binder, or null if there is none
+	 */
+	static PropertiesBinder forClass(Class<?> type) {
+		ClassLoader loader = type.getClassLoader();
+		try {
+			Class<?> binderClass = Class.forName(
+					type.getName() + BINDER_SUFFIX, true, loader);
+			if(!PropertiesBinder.class.isAssignableFrom(binderClass)) {
+				return null;
+			}
+			return (PropertiesBinder)binderClass.getConstructor().newInstance();
+		} catch (ClassNotFoundException e) {
+			return null;
+		} catch (LinkageError e) {
+			return null;
+		} catch (ReflectiveOperationException e) {
+			// A binder that can't be instantiated is treated as missing.
+			return null;
+		}
+	}
+
+	/**
+	 * @param index the index of a property
+	 * @param fallback the converter to use when the binder has no compiled
+	 * 	parser for the property
+	 * @return a converter that parses the property with this binder
+	 */
+	final PropertyConverter converterFor(final int index,
+			final PropertyConverter fallback) {
+		boolean compiled;
+		try {
+			compiled = (parse(index, "") != NO_PARSER);
+		} catch (RuntimeException e) {
+			// A compiled parser rejected the empty string.
+			compiled = true;
+		}
+		if(!compiled) {
+			return fallback;
+		}
+		return new PropertyConverter() {
+			@Override
+			Object convert(String string) {
+				return parse(index, string);
+			}
+
+			@Override
+			boolean isImmutable() {
+				return fallback.isImmutable();
+			}
+		};
+	}
+
+	/**
+	 * @param name the name of a property
+	 * @return the index of the named property, or -1 if this binder doesn't
+	 * 	know about it
+	 */
+	final int indexOf(String name) {
+		String[] names = getPropertyNames();
+		for(int i=0; i < names.length; ++i) {
+			if(names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+}
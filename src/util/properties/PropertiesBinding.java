@@ -0,0 +1,558 @@
+package util.properties;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The immutable, per-class description of how a type's properties map onto
+ *  its fields and getter/setter methods.
+ *
+ * <p>
+ * Scanning a class for {@link Property}, {@link PropertyGetter}, and
+ *  {@link PropertySetter} annotations is expensive, and the result only ever
+ *  depends on the class itself, so it is done once per class and shared by
+ *  every {@link PropertiesHandler} of that class. Bindings are cached in a
+ *  {@link ClassValue}, which lets a class (and its binding) be unloaded
+ *  normally.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class PropertiesBinding {
+
+	private static final ClassValue<Object> bindings = new ClassValue<Object>() {
+		@Override
+		protected Object computeValue(Class<?> type) {
+			try {
+				return new PropertiesBinding(type);
+			} catch (PropertyInaccessibleException e) {
+				// Cache the failure too; the class won't change.
+				return e;
+			}
+		}
+	};
+
+	/**
+	 * @param type the class whose binding is needed
+	 * @return the (possibly cached) binding for the given class
+	 * @throws PropertyInaccessibleException if any of the properties cannot be
+	 * 	properly mapped to a field or getters/setters
+	 */
+	static PropertiesBinding forClass(Class<?> type)
+		throws PropertyInaccessibleException {
+		PropertiesBinding binding = cached(type);
+		if(!binding.nestedResolved) {
+			binding.resolveNested();
+		}
+		return binding;
+	}
+
+	private static PropertiesBinding cached(Class<?> type)
+		throws PropertyInaccessibleException {
+		Object binding = bindings.get(type);
+
+		if(binding instanceof PropertyInaccessibleException) {
+			PropertyInaccessibleException cause
+				= (PropertyInaccessibleException)binding;
+			// Re-throw a fresh copy so the stack trace points at the caller.
+			throw new PropertyInaccessibleException(cause.getPropertyName(),
+					cause.getMessage());
+		}
+
+		return (PropertiesBinding)binding;
+	}
+
+	private final Class<?> type;
+	private final Set<String> propertyNames;
+	private final Map<String,Type> propertyTypes;
+	private final Map<String,Field> fieldMap;
+	private final Map<String,Method> getterMap;
+	private final Map<String,Method> setterMap;
+	private final Map<String,String> defaults;
+	private final PropertySlot[] slots;
+	private final PropertySlot[] nestedSlots;
+	private final PropertiesBinder binder;
+
+	// Set once the bindings of every nested class, all the way down, are
+	//  known (see resolveNested):
+	private volatile boolean nestedResolved;
+
+	private final PropertyNameTrie slotNames;
+
+	private PropertiesBinding(Class<?> objClass)
+		throws PropertyInaccessibleException {
+		this.type = objClass;
+
+		Set<String> propertyNames = new HashSet<String>();
+		Map<String,Type> propertyTypes = new HashMap<String,Type>();
+		Map<String,Field> fieldMap = new HashMap<String,Field>();
+		Map<String,Method> getterMap = new HashMap<String,Method>();
+		Map<String,Method> setterMap = new HashMap<String,Method>();
+		Map<String,String> defaults = new HashMap<String,String>();
+
+		Field[] objFields = objClass.getDeclaredFields();
+		Method[] objMethods = objClass.getMethods();
+
+		for (Method method : objMethods) {
+			if (!Modifier.isPublic(method.getModifiers())) {
+				// Skip any non-public methods.
+				continue;
+			}
+
+			if (method.isAnnotationPresent(PropertySetter.class)) {
+				PropertySetter somePropertySetter = method
+						.getAnnotation(PropertySetter.class);
+				String propName;
+
+				if(somePropertySetter.name().equals("-guess-")) {
+					propName = guessPropertyNameFromSetterName(method
+																.getName());
+				} else {
+					propName = somePropertySetter.name();
+				}
+				setterMap.put(propName, method);
+
+				if(!somePropertySetter.defaultValue().equals("-required-")) {
+					defaults.put(propName,somePropertySetter.defaultValue());
+				}
+				propertyNames.add(propName);
+			}
+
+			if (method.isAnnotationPresent(PropertyGetter.class)) {
+				PropertyGetter somePropertyGetter = method
+						.getAnnotation(PropertyGetter.class);
+				String propName;
+
+				if(somePropertyGetter.name().equals("-guess-")) {
+					propName = guessPropertyNameFromGetterName(method
+																.getName());
+				} else {
+					propName = somePropertyGetter.name();
+				}
+				getterMap.put(propName, method);
+				propertyNames.add(propName);
+			}
+		}
+
+		for (Field field : objFields) {
+			// For each field (including protected/private fields)
+			//  check whether the 'Property' annotation is present on it.
+			// If so, read some of the Property's parameters to determine how
+			//  this field should behave. (See Property.java for details.)
+			if (field.isAnnotationPresent(Property.class)) {
+				Property someProperty = field.getAnnotation(Property.class);
+				Method setterMethod = null;
+				Method getterMethod = null;
+
+				String propName = someProperty.name().equals("-inherit-")
+								 ? field.getName()
+								 : someProperty.name();
+
+				fieldMap.put(propName, field);
+				propertyNames.add(propName);
+
+				if(setterMap.get(propName) == null) {
+					if(someProperty.setter().equals("-guess-")) {
+						setterMethod = getMethodFromPrefixAndName(objMethods,
+								"set", propName);
+					} else {
+						setterMethod = resolveMethod(objMethods,
+								someProperty.setter());
+					}
+
+					if(!Modifier.isPublic(field.getModifiers())
+						&& setterMethod == null) {
+						throw new PropertyInaccessibleException(propName,
+							"Could not resolve a setter for the property named "
+								+ "'" + propName + "'"
+								+ "\n"
+								+ PropertyInaccessibleException
+									.helpMsg("set", propName));
+					}
+					setterMap.put(propName, setterMethod);
+				}
+
+				if(getterMap.get(propName) == null) {
+					if(someProperty.getter().equals("-guess-")) {
+						getterMethod = getMethodFromPrefixAndName(objMethods,
+								"get", propName);
+					} else {
+						getterMethod = resolveMethod(objMethods,
+								someProperty.getter());
+					}
+
+					if(!Modifier.isPublic(field.getModifiers())
+						&& getterMethod == null) {
+						throw new PropertyInaccessibleException(propName,
+							"Could not resolve a getter for the property named "
+								+ "'" + propName + "'"
+								+ "\n"
+								+ PropertyInaccessibleException
+									.helpMsg("get", propName));
+					}
+					getterMap.put(propName, getterMethod);
+				}
+
+				if(!someProperty.defaultValue().equals("-required-")) {
+					defaults.put(propName,someProperty.defaultValue());
+				}
+			}
+		}
+
+		for(String propName : propertyNames) {
+			Method getterMethod = getterMap.get(propName);
+			Method setterMethod = setterMap.get(propName);
+			Field propField = fieldMap.get(propName);
+			Type propType = null;
+
+			if(setterMethod != null
+			&& setterMethod.getParameterTypes().length != 1) {
+				throw new PropertyInaccessibleException(propName,
+					"The setter for the '" + propName + "' property "
+						+ "with the name '" + setterMethod.getName() + "' "
+						+ "accepts an unexpected number of parameters ("
+						+ setterMethod.getParameterTypes().length + ").\n"
+					+ "You must specify a setter that accepts one (1) "
+						+ "parameter or use @Property on a public field."
+				);
+			}
+
+			if(getterMethod != null
+			&& getterMethod.getParameterTypes().length != 0) {
+				throw new PropertyInaccessibleException(propName,
+					"The getter for the '" + propName + "' property "
+						+ "with the name '" + getterMethod.getName() + "' "
+						+ "accepts an unexpected number of parameters ("
+						+ getterMethod.getParameterTypes().length + ").\n"
+					+ "You must specify a getter that accepts zero (0) "
+						+ "parameters or use @Property on a public field."
+				);
+			}
+
+			// Determine the Type of this property:
+			if(getterMethod != null) {
+				propType = getterMethod.getGenericReturnType();
+			} else {
+				propType = propField.getGenericType();
+			}
+
+			propertyTypes.put(propName, propType);
+
+			if(propType == null) {
+				throw new PropertyInaccessibleException(propName,
+					"Unable to determine the type of the property named '"
+					+ propName +"'.\n"
+					+ PropertyInaccessibleException.helpMsg("get", propName));
+			}
+		}
+
+		PropertiesBinder binder = PropertiesBinder.forClass(objClass);
+		if(binder != null) {
+			for(String propName : propertyNames) {
+				if(binder.indexOf(propName) < 0) {
+					// Stale binder; the class changed since it was generated.
+					binder = null;
+					break;
+				}
+			}
+		}
+		this.binder = binder;
+
+		this.slots = new PropertySlot[propertyNames.size()];
+		List<PropertySlot> nestedSlots = new ArrayList<PropertySlot>();
+		int index = 0;
+		for(String propName : declarationOrder(propertyNames, fieldMap, 
+				objFields)) {
+			slots[index] = createSlot(index, propName, propertyTypes.get(propName),
+					fieldMap.get(propName), getterMap.get(propName),
+					setterMap.containsKey(propName), setterMap.get(propName),
+					defaults.get(propName), binder);
+			if(slots[index].isNested()) {
+				nestedSlots.add(slots[index]);
+			}
+			++index;
+		}
+		this.nestedSlots = nestedSlots.toArray(new PropertySlot[0]);
+		this.nestedResolved = nestedSlots.isEmpty();
+
+		this.slotNames = new PropertyNameTrie(slots);
+
+		this.propertyNames = Collections.unmodifiableSet(propertyNames);
+		this.propertyTypes = Collections.unmodifiableMap(propertyTypes);
+		this.fieldMap = Collections.unmodifiableMap(fieldMap);
+		this.getterMap = Collections.unmodifiableMap(getterMap);
+		this.setterMap = Collections.unmodifiableMap(setterMap);
+		this.defaults = Collections.unmodifiableMap(defaults);
+	}
+
+	/**
+	 * @return the names of the given properties, those that are fields first,
+	 * 	in the order the fields are declared in, then those that only have
+	 * 	getter/setter methods, by name
+	 */
+	private static List<String> declarationOrder(Set<String> propertyNames,
+			Map<String,Field> fieldMap, Field[] objFields) {
+		final Map<String,Integer> positions = new HashMap<String,Integer>();
+		List<Field> fields = Arrays.asList(objFields);
+		for(String propName : propertyNames) {
+			Field field = fieldMap.get(propName);
+			positions.put(propName, field == null 
+					? Integer.MAX_VALUE : fields.indexOf(field));
+		}
+		
+		List<String> ordered = new ArrayList<String>(propertyNames);
+		Collections.sort(ordered, new Comparator<String>() {
+			@Override
+			public int compare(String a, String b) {
+				int byPosition = positions.get(a).compareTo(positions.get(b));
+				return byPosition != 0 ? byPosition : a.compareTo(b);
+			}
+		});
+		return ordered;
+	}
+
+	/**
+	 * @return the class this binding describes
+	 */
+	Class<?> getType() {
+		return type;
+	}
+
+	Set<String> getPropertyNames() {
+		return propertyNames;
+	}
+	Map<String,Type> getPropertyTypes() {
+		return propertyTypes;
+	}
+	Map<String,Field> getFieldMap() {
+		return fieldMap;
+	}
+	Map<String,Method> getSetterMap() {
+		return setterMap;
+	}
+	Map<String,Method> getGetterMap() {
+		return getterMap;
+	}
+	Map<String,String> getDefaults() {
+		return defaults;
+	}
+
+	/**
+	 * @return one slot per property, in the order they are declared in (see
+	 * 	{@link #declarationOrder})
+	 */
+	PropertySlot[] getSlots() {
+		return slots;
+	}
+
+	/**
+	 * @return true if any property is bound from the keys prefixed with its
+	 * 	name (see {@link NestedBinding})
+	 */
+	boolean hasNestedSlots() {
+		return nestedSlots.length > 0;
+	}
+
+	/**
+	 * @return the slots of the nested properties, in the order they are
+	 * 	declared in
+	 */
+	PropertySlot[] getNestedSlots() {
+		return nestedSlots;
+	}
+
+	/**
+	 * Looks up the binding of every nested class reachable from this one.
+	 * 	This cannot be done while the binding is built, since a class may
+	 * 	nest itself (directly or not), and a {@link ClassValue} may not ask
+	 * 	for its own value while computing it.
+	 * @throws PropertyInaccessibleException if any nested class cannot be
+	 * 	bound
+	 */
+	private void resolveNested() throws PropertyInaccessibleException {
+		Map<PropertiesBinding,Boolean> visited
+			= new IdentityHashMap<PropertiesBinding,Boolean>();
+		List<PropertiesBinding> pending = new ArrayList<PropertiesBinding>();
+		visited.put(this, Boolean.TRUE);
+		pending.add(this);
+		while(!pending.isEmpty()) {
+			PropertiesBinding binding = pending.remove(pending.size() - 1);
+			for(PropertySlot slot : binding.nestedSlots) {
+				PropertiesBinding nested
+					= cached(slot.getNested().getType());
+				slot.getNested().setBinding(nested);
+				if(!nested.nestedResolved
+				&& visited.put(nested, Boolean.TRUE) == null) {
+					pending.add(nested);
+				}
+			}
+		}
+		for(PropertiesBinding binding : visited.keySet()) {
+			binding.nestedResolved = true;
+		}
+	}
+
+	/**
+	 * @param chars a buffer holding the name of a property
+	 * @param length the length of the name
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int slotIndexOf(char[] chars, int length) {
+		return slotNames.indexOf(chars, length);
+	}
+
+	/**
+	 * @param name the name of a property
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int slotIndexOf(CharSequence name) {
+		return slotNames.indexOf(name);
+	}
+
+	/**
+	 * @param key a string ending with the name of a property
+	 * @param begin the index of the first character of the name
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int slotIndexOf(CharSequence key, int begin) {
+		return slotNames.indexOf(key, begin);
+	}
+
+	/**
+	 * @param key a string containing a key such as
+	 * 	<code>db.primary.host</code>
+	 * @param begin the index of the first character of the key
+	 * @return the index of the nested property whose name, followed by a
+	 * 	dot, the key starts with (the longest one, if several do), or -1 if
+	 * 	there is none
+	 */
+	int nestedSlotIndexOf(CharSequence key, int begin) {
+		return nestedSlots.length == 0 
+			? -1 : slotNames.prefixIndexOf(key, begin, slots);
+	}
+
+	/**
+	 * @return the compile-time generated binder for this class, or null if
+	 * 	this binding uses reflection
+	 */
+	PropertiesBinder getBinder() {
+		return binder;
+	}
+
+	private static PropertySlot createSlot(int index, String propName,
+			Type propType, Field field, Method getter, boolean settable,
+			Method setter, String defaultValue, PropertiesBinder binder)
+		throws PropertyInaccessibleException {
+		PropertyAccessor reader = null;
+		PropertyAccessor writer = null;
+		PropertyConverter converter = PropertiesParser.converterFor(propType);
+
+		// A class with properties of its own, or a List of them:
+		NestedBinding nested = null;
+		boolean indexed = false;
+		if(propType instanceof Class<?> 
+		&& NestedBinding.isNested((Class<?>)propType)) {
+			nested = NestedBinding.forClass(propName, (Class<?>)propType);
+		} else if(propType instanceof ParameterizedType
+		&& ((ParameterizedType)propType).getRawType() == List.class) {
+			Type element = ((ParameterizedType)propType)
+				.getActualTypeArguments()[0];
+			if(element instanceof Class<?> 
+			&& NestedBinding.isNested((Class<?>)element)) {
+				nested = NestedBinding.forClass(propName, (Class<?>)element);
+				indexed = true;
+			}
+		}
+
+		if(binder != null) {
+			int binderIndex = binder.indexOf(propName);
+			if(getter != null || field != null) {
+				reader = PropertyAccessor.forBinder(binder, binderIndex,
+						getter != null);
+			}
+			if(setter != null || (settable && field != null)) {
+				writer = PropertyAccessor.forBinder(binder, binderIndex,
+						setter != null);
+			}
+			return new PropertySlot(index, propName, propType, defaultValue,
+					reader, writer, binder.converterFor(binderIndex, converter),
+					nested, indexed);
+		}
+
+		if(getter != null) {
+			reader = PropertyAccessor.forGetter(getter);
+		} else if(field != null) {
+			reader = PropertyAccessor.forFieldGetter(field);
+		}
+
+		if(setter != null) {
+			writer = PropertyAccessor.forSetter(setter);
+		} else if(settable && field != null) {
+			writer = PropertyAccessor.forFieldSetter(field);
+		}
+
+		return new PropertySlot(index, propName, propType, defaultValue,
+				reader, writer, converter, nested, indexed);
+	}
+
+	private static Method resolveMethod(Method[] methods, String methodName) {
+		Method method = null;
+		for(Method someMethod : methods) {
+			if(someMethod.getName().equals(methodName)) {
+				method = someMethod;
+				break;
+			}
+		}
+
+		return method;
+	}
+
+	private static Method getMethodFromPrefixAndName(Method[] methods,
+			String prefix, String propertyName) {
+
+		String methodName = PropertiesHandler
+				.getMethodNameFromPropertyName(prefix, propertyName);
+		Method method = resolveMethod(methods, methodName);
+		return method;
+	}
+
+	private static String guessPropertyNameFromSetterName(String setterName) {
+		return guessNameFromPrefixAndName("set", setterName);
+	}
+
+	private static String guessPropertyNameFromGetterName(String getterName) {
+		return guessNameFromPrefixAndName("get", getterName);
+	}
+
+	private static String guessNameFromPrefixAndName(String prefix,
+			String fullName) {
+		String name;
+		int l = prefix.length();
+		if (fullName.substring(0, l).equals(prefix)
+				&& Character.isUpperCase(fullName.charAt(l))) {
+			name = fullName.substring(l, l+1).toLowerCase()
+					+ fullName.substring(l+1);
+		} else {
+			// "Malformed" name.
+			name = fullName;
+		}
+		return name;
+	}
+}
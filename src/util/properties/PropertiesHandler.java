@@ -1,648 +1,1583 @@
-package util.properties;
-
-import java.io.IOException;
-
-import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Modifier;
-import java.lang.reflect.Type;
-import java.lang.Character;
-import java.lang.reflect.Method;
-
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
-
-
-
-/**
- * A middleman that loads parsed property values into an object, or stores 
- *  the values of the object into a .properties file format.
- *  
- * <p>
- * Works with the {@link Property}, {@link PropertyGetter}, and 
- *  {@link PropertySetter} annotations to manipulate an object's fields or 
- *  invoke getter/setter methods based on a {@link Properties} object with the
- *  {@link #applyProperties} method, as well as as output properties based on the
- *  values of the object's fields and results of its getter methods with the 
- *  {@link #extractProperties} method.
- * </p>
- * 
- * <b>Quick Guide:</b>
- * <ul>
- * <li><a href="#simple_example">Simple Example</a></li>
- * <li><a href="#special_types">Special Types</a>
- * 	<ul>
- * 	<li><a href="#special_types_arrays">Arrays, Sets, and Lists</a></li>
- * 	<li><a href="#special_types_everything_else">Everything Else</a></li>
- * 	</ul>
- * </li>
- * </ul>
- * 
- * <hr>
- * 
- * <p>
- * <a name="simple_example"><b>Simple Example</b></a>
- * 
- * <p>
- * Account.java:
- * <pre>
- * class Account {
- *     {@literal @}{@link Property}
- *     public Integer id;
- *     
- *     {@literal @}{@link Property}
- *     public String name;
- *     ...
- * }
- * </pre>
- * </p>
- * 
- * <p>
- * someAccount.properties:
- * <pre>
- * # A contrived example of a .properties file
- * id=24
- * name=Douglas Adams
- * </pre>
- * </p>
- * 
- * <p>
- * Somewhere in your code:
- * <pre>
- * ...
- * 
- * Account someAccount = new Account();
- * 
- * ...
- * 
- * PropertiesHandler propHandler = new PropertiesHandler(someAccount);
- * InputStream propStream = this.getContextClassLoader()
- *                              .getResourceAsStream("someAccount.properties");
- *
- * Properties someAccountProperties = new Properties();
- * someAccountProperties.load(propStream);
- * 
- * propHandler.applyProperties(someAccountProperties);
- * 
- * System.out.println(someAccount.id); {@literal // output: "24"}
- * System.out.println(someAccount.name); {@literal // output: "Douglas Adams"}
- * 
- * someAccount.id = 42;
- * 
- * someAccountProperties = propHandler.extractProperties();
- * 
- * someAccountProperties.store(
- *     new FileWriter("someAccount.properties"),
- *     "An updated contrived example of a .properties file"
- * );
- * ...
- * </pre>
- * </p>
- * 
- * 
- * <p>
- * <i>Updated</i> someAccount.properties:
- * <pre>
- * # ... TimeStamp ...
- * # An updated contrived example of a .properties file
- * id=42
- * name=Douglas Adams
- * </pre>
- * </p>
- * </p>
- * 
- * <hr>
- * 
- * <p>
- * <a name="special_types"><b>Special Types</b></a>
- * 	<p>
- * 	<a name="special_types_arrays"><b>Arrays, <code>List</code>s, and <code>Set</code>s</b></a>
- * 		<p>
- * 			Properties that map to Java arrays, <code>List</code>s, and <code>Set</code>s of a limited
- * 			number of types are supported.
- * 			<ul>Supported array types:
- * 			<li><code>String</code>
- * 			<li><code>Boolean</code>
- * 			<li><code>Byte</code>
- * 			<li><code>Short</code>
- * 			<li><code>Integer</code>
- *			<li><code>Long</code>
- *			<li><code>Float</code>
- *			<li><code>Double</code>
- * 			</ul>
- *		</p>
- *		<p>
- * 			Nested arrays, <code>List</code>s and <code>Set</code>s, are not supported.
- * 		</p>
- * 		<p>
- * 			<b>Example:</b>
- *<pre>
- *	#                           v------notice the whitespace----v
- *	exampleArray=green eggs,ham, bacon # {"green eggs", "ham", " bacon"}
- *	# .properties string --^           # parsed array --^
- *</pre>
- * 		</p>
- * 	</p>
- * 	<p>
- * 	<a name="special_types_everything_else"><b>Everything Else</b></a>
- * 	<p>It is generally not recommended that you map any Properties to types other 
- * 		than those listed in {@link #getSupportedTypes()}.</p>
- *  <p>Instead, simply write custom getters and setters and apply the 
- *  	{@link PropertyGetter} and {@link PropertySetter} methods to map custom
- *  	or complex data to properties.</p>
- * 
- * 		<p>
- * 		Other object types can however be fully supported if they satisfy two conditions:
- * 		<ul>
- * 		<li>Can be cast from a <code>String</code>
- * 		<li>Has a sufficient <code>toString</code> implementation
- * 		</ul>
- * 		</p>
- * 	</p>
- * </p>
- * @see Property
- * @see PropertyGetter
- * @see PropertySetter
- * @author Louis Acresti
- */
-public class PropertiesHandler {
-	private Object object;
-	
-	/**
-	 * @return the object this PropertiesHandler is reading and/or manipulating
-	 */
-	public Object getObject() {
-		return object;
-	}
-	
-	private Set<String> propertyNames;
-	private Map<String,Type> propertyTypes;
-	private Map<String,Field> fieldMap;
-	private Map<String,Method> getterMap;
-	private Map<String,Method> setterMap;
-	private Map<String,String> defaults;
-	
-	/**
-	 * <p>
-	 * If you have a property of a type that is not in this list, you may need
-	 * 	to specify your own getter and setter that return and accept a *String*
-	 * 	value, respectively. It is *possible* for a type not included in this 
-	 *  list to work if it has a toString method that returns a string
-	 *  which will generate an equivalent object when casting said string to 
-	 *  the type in question.
-	 * </p>
-	 *  
-	 * <p>
-	 * In other words:
-	 * <pre>
-	 * MyType object = new MyType();
-	 * if((MyType)(object.toString()) == object) {
-	 *     System.out.println("Compatible (maybe)!");
-	 * } else {
-	 *     System.out.println("Incompatible (definitely)!");
-	 * }
-	 * </pre>
-	 * </p>
-	 * @return a set containing all of the officially-supported types that can 
-	 * 	be mapped as a property using PropertiesHandler
-	 */
-	public static Set<Type> getSupportedTypes() {
-		return PropertiesParser.parserMap.keySet();
-	}
-	
-	/**
-	 * @param obj the object whose properties you would like to load or store
-	 * @throws PropertyInaccessibleException if any of the properties cannot be
-	 * 	properly mapped to a field or getters/setters
-	 * @see Property
-	 * @see PropertyGetter
-	 * @see PropertySetter
-	 */
-	public PropertiesHandler(Object obj) 
-		throws PropertyInaccessibleException {
-		this.object = obj;
-		
-		propertyNames = new HashSet<String>();
-		propertyTypes = new HashMap<String,Type>();
-		fieldMap = new HashMap<String,Field>();
-		getterMap = new HashMap<String,Method>();
-		setterMap = new HashMap<String,Method>();
-		defaults = new HashMap<String,String>();
-		
-		Class<?> objClass = obj.getClass();
-		Field[] objFields = objClass.getDeclaredFields();
-		Method[] objMethods = objClass.getMethods();
-
-		for (Method method : objMethods) {
-			if (!Modifier.isPublic(method.getModifiers())) {
-				// Skip any non-public methods.
-				continue;
-			}
-			
-			if (method.isAnnotationPresent(PropertySetter.class)) {
-				PropertySetter somePropertySetter = method
-						.getAnnotation(PropertySetter.class);
-				String propName;
-				
-				if(somePropertySetter.name().equals("-guess-")) {
-					propName = guessPropertyNameFromSetterName(method
-																.getName());
-				} else {
-					propName = somePropertySetter.name();
-				}
-				setterMap.put(propName, method);
-				
-				if(!somePropertySetter.defaultValue().equals("-required-")) {
-					defaults.put(propName,somePropertySetter.defaultValue());
-				}
-				propertyNames.add(propName);
-			}
-			
-			if (method.isAnnotationPresent(PropertyGetter.class)) {
-				PropertyGetter somePropertyGetter = method
-						.getAnnotation(PropertyGetter.class);
-				String propName;
-				
-				if(somePropertyGetter.name().equals("-guess-")) {
-					propName = guessPropertyNameFromGetterName(method
-																.getName());
-				} else {
-					propName = somePropertyGetter.name();
-				}
-				getterMap.put(propName, method);
-				propertyNames.add(propName);
-			}
-		}
-		
-		for (Field field : objFields) {
-			// For each field (including protected/private fields)
-			//  check whether the 'Property' annotation is present on it.
-			// If so, read some of the Property's parameters to determine how
-			//  this field should behave. (See Property.java for details.)
-			if (field.isAnnotationPresent(Property.class)) {
-				Property someProperty = field.getAnnotation(Property.class);
-				Method setterMethod = null;
-				Method getterMethod = null;
-				
-				String propName = someProperty.name().equals("-inherit-")
-								 ? field.getName()
-								 : someProperty.name();
-				
-				fieldMap.put(propName, field);
-				propertyNames.add(propName);
-				
-				if(setterMap.get(propName) == null) {
-					if(someProperty.setter().equals("-guess-")) {
-						setterMethod = getMethodFromPrefixAndName("set", 
-								propName);
-					} else {
-						setterMethod = resolveMethod(someProperty.setter());
-					}
-					
-					if(!Modifier.isPublic(field.getModifiers()) 
-						&& setterMethod == null) {
-						throw new PropertyInaccessibleException(propName,
-							"Could not resolve a setter for the property named "
-								+ "'" + propName + "'"
-								+ "\n"
-								+ PropertyInaccessibleException
-									.helpMsg("set", propName));
-					}
-					setterMap.put(propName, setterMethod);
-				}
-				
-				if(getterMap.get(propName) == null) {
-					if(someProperty.getter().equals("-guess-")) {
-						getterMethod = getMethodFromPrefixAndName("get", 
-								propName);
-					} else {
-						getterMethod = resolveMethod(someProperty.getter());
-					}
-					
-					if(!Modifier.isPublic(field.getModifiers()) 
-						&& getterMethod == null) {
-						throw new PropertyInaccessibleException(propName,
-							"Could not resolve a getter for the property named "
-								+ "'" + propName + "'"
-								+ "\n"
-								+ PropertyInaccessibleException
-									.helpMsg("get", propName));
-					}
-					getterMap.put(propName, getterMethod);
-				}
-				
-				if(!someProperty.defaultValue().equals("-required-")) {
-					defaults.put(propName,someProperty.defaultValue());
-				}
-			}
-		}
-		
-		for(String propName : propertyNames) {
-			Method getterMethod = getterMap.get(propName);
-			Method setterMethod = setterMap.get(propName);
-			Field propField = fieldMap.get(propName);
-			Type propType = null;
-			
-			if(setterMethod != null
-			&& setterMethod.getParameterTypes().length != 1) {
-				throw new PropertyInaccessibleException(propName,
-					"The setter for the '" + propName + "' property "
-						+ "with the name '" + setterMethod.getName() + "' "
-						+ "accepts an unexpected number of parameters ("
-						+ setterMethod.getParameterTypes().length + ").\n"
-					+ "You must specify a setter that accepts one (1) "
-						+ "parameter or use @Property on a public field."
-				);
-			}
-					
-			if(getterMethod != null
-			&& getterMethod.getParameterTypes().length != 0) {
-				throw new PropertyInaccessibleException(propName,
-					"The getter for the '" + propName + "' property "
-						+ "with the name '" + getterMethod.getName() + "' "
-						+ "accepts an unexpected number of parameters ("
-						+ getterMethod.getParameterTypes().length + ").\n"
-					+ "You must specify a getter that accepts zero (0) "
-						+ "parameters or use @Property on a public field."
-				);
-			}
-			
-			// Determine the Type of this property:
-			if(getterMethod != null) {
-				propType = getterMethod.getGenericReturnType();
-			} else {
-				propType = propField.getGenericType();
-			}
-			
-			propertyTypes.put(propName, propType);
-			
-			if(propType == null) {
-				throw new PropertyInaccessibleException(propName,
-					"Unable to determine the type of the property named '"
-					+ propName +"'.\n"
-					+ PropertyInaccessibleException.helpMsg("get", propName));
-			}
-		}
-	}
-	
-	Set<String> getPropertyNames() {
-		return propertyNames;
-	}
-	Map<String,Field> getFieldMap() {
-		return fieldMap;
-	}
-	Map<String,Method> getSetterMap() {
-		return setterMap;
-	}
-	Map<String,Method> getGetterMap() {
-		return getterMap;
-	}	
-	Map<String,String> getDefaults() {
-		return defaults;
-	}
-
-	/**
-	 * Given a pre-loaded Properties object, set fields and/or call setters on
-	 * 	our associated property-using object.
-	 * @param loadedProperties a pre-loaded properties object that will populate
-	 * 	fields or call getters/setters on the object this PropertiesHandler is
-	 * 	associated with.
-	 * @throws PropertyMissingException if a required property is not set in 
-	 * 	loadedProperties 
-	 * @throws PropertyParserException if there are any problems parsing a
-	 * 	value from loadedProperties 
-	 * @throws PropertyInvocationTargetException  if any exceptions occur while
-	 * 	invoking a setter method
-	 * @see Property
-	 * @see PropertyGetter
-	 * @see PropertySetter
-	 */
-	public void applyProperties(Properties loadedProperties) 
-		throws PropertyMissingException,
-			   PropertyParserException,
-			   PropertyInvocationTargetException {
-		
-		for(String propertyName : setterMap.keySet()) {
-			Method setter = setterMap.get(propertyName);
-			String propertyValueString =
-				(loadedProperties.getProperty(propertyName) == null)
-				? defaults.get(propertyName)
-				: loadedProperties.getProperty(propertyName);
-		
-			if(propertyValueString == null) {
-				throw new PropertyMissingException(propertyName);
-			}
-			
-			Object propertyValue = null;
-			Type propType = propertyTypes.get(propertyName);
-			
-			Field field = null;
-			
-			if(setter == null) {
-				// Attempt to set the field directly.
-				field = fieldMap.get(propertyName);
-			}
-			
-			try {
-				propertyValue = 
-					PropertiesParser.parse(propType, propertyValueString);
-			} catch (Exception e) {
-				throw new PropertyParserException(propType, propertyName, 
-						propertyValueString, e);
-			}
-			
-			if(setter == null) {
-				try {
-					field.set(object, propertyValue);
-				} catch (IllegalAccessException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				}
-			} else {
-				try {
-					setter.invoke(object, propertyValue);
-				} catch (IllegalAccessException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				} catch (IllegalArgumentException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				} catch (InvocationTargetException e) {
-					throw new PropertyInvocationTargetException(propertyName, 
-							propertyValueString,
-							propertyValue,
-							e.getCause());
-				}
-			}
-		} // foreach loop
-	}
-	
-	/**
-	 * Store all property data associated with our object based on their actual
-	 *  values in the object.
-	 * @return a {@link Properties} object based on the properties 
-	 * @throws IOException if there are any issues writing the data
-	 * @throws PropertyInvocationTargetException if any exceptions occur while
-	 *  invoking a getter method
-	 * @see Property
-	 * @see PropertyGetter
-	 * @see PropertySetter
-	 */
-	@SuppressWarnings("rawtypes")
-	public Properties extractProperties()
-		throws IOException, PropertyInvocationTargetException {
-		Properties extractedProperties = new Properties();
-		
-		for(String propName : propertyNames) {
-			Object value = null;
-			
-			if(getterMap.containsKey(propName)
-			&& getterMap.get(propName) != null)
-			{
-				// Invoke the getter.
-				try {
-					value = getterMap.get(propName).invoke(object);
-				} catch (IllegalAccessException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				} catch (IllegalArgumentException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				} catch (InvocationTargetException e) {
-					throw new PropertyInvocationTargetException(propName, 
-							"-UNKNOWN-",
-							value,
-							e.getCause());
-				}
-			} else {
-				// Simply try to read the field.
-				Field field = fieldMap.get(propName);
-				try {
-					value = field.get(object);
-				} catch (IllegalAccessException e) {
-					// Should not happen; we check for this in ctor
-					e.printStackTrace();
-				}
-			}
-			
-			String stringValue;
-			if(value == null) {
-				stringValue = null;
-			} else {
-				
-				// Check for generic array:
-				if(value instanceof Object[]) {
-					stringValue = "";
-					for(Object obj : (Object[])value) {
-						stringValue += obj.toString() + ",";
-					}
-					// Truncate the last comma:
-					stringValue 
-						= stringValue.substring(0,stringValue.length()-1);
-					
-				} else if(value.getClass().isArray()) {
-					stringValue = "";
-					
-					if(value instanceof boolean[]) {
-						for(boolean obj : (boolean[])value)
-							stringValue += Boolean.toString(obj) + ",";
-					} else if(value instanceof byte[]) {
-						for(byte obj : (byte[])value)
-							stringValue += Byte.toString(obj) + ",";
-					} else if(value instanceof short[]) {
-						for(short obj : (short[])value)
-							stringValue += Short.toString(obj) + ",";
-					} else if(value instanceof int[]) {
-						for(int obj : (int[])value)
-							stringValue += Integer.toString(obj) + ",";
-					} else if(value instanceof long[]) {
-						for(long obj : (long[])value)
-							stringValue += Long.toString(obj) + ",";
-					} else if(value instanceof float[]) {
-						for(float obj : (float[])value)
-							stringValue += Float.toString(obj) + ",";
-					} else if(value instanceof double[]) {
-						for(double obj : (double[])value)
-							stringValue += Double.toString(obj) + ",";
-					} else {
-						stringValue = "Unknown array type: " 
-										+ value.toString() + ",";
-					}
-					
-					// Truncate the last comma:
-					stringValue 
-						= stringValue.substring(0,stringValue.length()-1);
-					
-				} else if(value instanceof Collection) {
-					stringValue = "";
-					for(Object obj : (Collection)value)
-						stringValue += obj.toString() + ",";
-					
-					// Truncate the last comma:
-					stringValue 
-						= stringValue.substring(0,stringValue.length()-1);
-				} else {
-					stringValue = value.toString();
-				}
-				
-				extractedProperties.setProperty(propName, stringValue);					
-			}
-		}
-		
-		return extractedProperties;
-	}
-	
-	private Method resolveMethod(String methodName) {
-		Method[] methods = object.getClass().getMethods();
-		Method method = null;
-		for(Method someMethod : methods) {
-			if(someMethod.getName().equals(methodName)) {
-				method = someMethod;
-				break;
-			}
-		}
-		
-		return method;
-	}
-
-	private Method getMethodFromPrefixAndName(String prefix,
-			String propertyName) {
-		
-		String methodName = getMethodNameFromPropertyName(prefix, propertyName);
-		Method method = resolveMethod(methodName);
-		return method;
-	}
-	
-	static String getMethodNameFromPropertyName(String prefix, 
-			String propertyName) {
-		return prefix + propertyName.substring(0, 1).toUpperCase()
-		+ propertyName.substring(1);
-	}
-
-	private static String guessPropertyNameFromSetterName(String setterName) {
-		return guessNameFromPrefixAndName("set", setterName);
-	}
-	
-	private static String guessPropertyNameFromGetterName(String getterName) {
-		return guessNameFromPrefixAndName("get", getterName);
-	}
-	
-	private static String guessNameFromPrefixAndName(String prefix, 
-			String fullName) {
-		String name;
-		int l = prefix.length();
-		if (fullName.substring(0, l).equals(prefix)
-				&& Character.isUpperCase(fullName.charAt(l))) {
-			name = fullName.substring(l, l+1).toLowerCase()
-					+ fullName.substring(l+1);
-		} else {
-			// "Malformed" name.
-			name = fullName;
-		}
-		return name;
-	}
-}
+package util.properties;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Type;
+import java.lang.reflect.Method;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+
+
+/**
+ * A middleman that loads parsed property values into an object, or stores 
+ *  the values of the object into a .properties file format.
+ *  
+ * <p>
+ * Works with the {@link Property}, {@link PropertyGetter}, and 
+ *  {@link PropertySetter} annotations to manipulate an object's fields or 
+ *  invoke getter/setter methods based on a {@link Properties} object with the
+ *  {@link #applyProperties} method, as well as as output properties based on the
+ *  values of the object's fields and results of its getter methods with the 
+ *  {@link #extractProperties} method.
+ * </p>
+ * 
+ * <p>
+ * A handler is safe to use from several threads at once: applies are
+ *  serialized, while extracting may run alongside an apply, and sees each
+ *  property either as it was before the apply or as it set it, never while
+ *  its setter is running. It may see some properties already applied and
+ *  others not yet; to read an object that is consistent as a whole, use a
+ *  {@link PropertiesSnapshot}.
+ * </p>
+ * 
+ * <b>Quick Guide:</b>
+ * <ul>
+ * <li><a href="#simple_example">Simple Example</a></li>
+ * <li><a href="#special_types">Special Types</a>
+ * 	<ul>
+ * 	<li><a href="#special_types_arrays">Arrays, Sets, and Lists</a></li>
+ * 	<li><a href="#special_types_everything_else">Everything Else</a></li>
+ * 	</ul>
+ * </li>
+ * </ul>
+ * 
+ * <hr>
+ * 
+ * <p>
+ * <a name="simple_example"><b>Simple Example</b></a>
+ * 
+ * <p>
+ * Account.java:
+ * <pre>
+ * class Account {
+ *     {@literal @}{@link Property}
+ *     public Integer id;
+ *     
+ *     {@literal @}{@link Property}
+ *     public String name;
+ *     ...
+ * }
+ * </pre>
+ * </p>
+ * 
+ * <p>
+ * someAccount.properties:
+ * <pre>
+ * # A contrived example of a .properties file
+ * id=24
+ * name=Douglas Adams
+ * </pre>
+ * </p>
+ * 
+ * <p>
+ * Somewhere in your code:
+ * <pre>
+ * ...
+ * 
+ * Account someAccount = new Account();
+ * 
+ * ...
+ * 
+ * PropertiesHandler propHandler = new PropertiesHandler(someAccount);
+ * InputStream propStream = this.getContextClassLoader()
+ *                              .getResourceAsStream("someAccount.properties");
+ *
+ * Properties someAccountProperties = new Properties();
+ * someAccountProperties.load(propStream);
+ * 
+ * propHandler.applyProperties(someAccountProperties);
+ * 
+ * System.out.println(someAccount.id); {@literal // output: "24"}
+ * System.out.println(someAccount.name); {@literal // output: "Douglas Adams"}
+ * 
+ * someAccount.id = 42;
+ * 
+ * someAccountProperties = propHandler.extractProperties();
+ * 
+ * someAccountProperties.store(
+ *     new FileWriter("someAccount.properties"),
+ *     "An updated contrived example of a .properties file"
+ * );
+ * ...
+ * </pre>
+ * </p>
+ * 
+ * 
+ * <p>
+ * <i>Updated</i> someAccount.properties:
+ * <pre>
+ * # ... TimeStamp ...
+ * # An updated contrived example of a .properties file
+ * id=42
+ * name=Douglas Adams
+ * </pre>
+ * </p>
+ * </p>
+ * 
+ * <hr>
+ * 
+ * <p>
+ * <a name="special_types"><b>Special Types</b></a>
+ * 	<p>
+ * 	<a name="special_types_arrays"><b>Arrays, <code>List</code>s, and <code>Set</code>s</b></a>
+ * 		<p>
+ * 			Properties that map to Java arrays, <code>List</code>s, and <code>Set</code>s of a limited
+ * 			number of types are supported.
+ * 			<ul>Supported array types:
+ * 			<li><code>String</code>
+ * 			<li><code>Boolean</code>
+ * 			<li><code>Byte</code>
+ * 			<li><code>Short</code>
+ * 			<li><code>Integer</code>
+ *			<li><code>Long</code>
+ *			<li><code>Float</code>
+ *			<li><code>Double</code>
+ *			<li>Arrays only: every primitive type (<code>boolean</code>,
+ *				<code>byte</code>, <code>char</code>, <code>short</code>,
+ *				<code>int</code>, <code>long</code>, <code>float</code>,
+ *				<code>double</code>), parsed without boxing any element
+ * 			</ul>
+ *		</p>
+ *		<p>
+ * 			Nested arrays, <code>List</code>s and <code>Set</code>s, are not supported.
+ * 		</p>
+ * 		<p>
+ * 			<b>Example:</b>
+ *<pre>
+ *	#                           v------notice the whitespace----v
+ *	exampleArray=green eggs,ham, bacon # {"green eggs", "ham", " bacon"}
+ *	# .properties string --^           # parsed array --^
+ *</pre>
+ * 		</p>
+ * 	</p>
+ * 	<p>
+ * 	<a name="special_types_everything_else"><b>Everything Else</b></a>
+ * 	<p>It is generally not recommended that you map any Properties to types other 
+ * 		than those listed in {@link #getSupportedTypes()}.</p>
+ *  <p>Instead, simply write custom getters and setters and apply the 
+ *  	{@link PropertyGetter} and {@link PropertySetter} methods to map custom
+ *  	or complex data to properties.</p>
+ * 
+ * 		<p>
+ * 		Other object types can however be fully supported if they satisfy two conditions:
+ * 		<ul>
+ * 		<li>Can be cast from a <code>String</code>
+ * 		<li>Has a sufficient <code>toString</code> implementation
+ * 		</ul>
+ * 		</p>
+ * 	</p>
+ * </p>
+ * @see Property
+ * @see PropertyGetter
+ * @see PropertySetter
+ * @author Louis Acresti
+ */
+public class PropertiesHandler {
+	private final Object object;
+	
+	/**
+	 * @return the object this PropertiesHandler is reading and/or manipulating
+	 */
+	public Object getObject() {
+		return object;
+	}
+	
+	private final PropertiesBinding binding;
+	
+	// Only kept once registered with PropertiesRegistry:
+	private volatile HandlerStatistics statistics;
+	
+	static final PropertiesListener[] NO_LISTENERS
+		= new PropertiesListener[0];
+	
+	// Copied on write, so that applying properties takes no lock:
+	private volatile PropertiesListener[] listeners = NO_LISTENERS;
+	
+	private static final Object NOT_APPLIED = new Object();
+	
+	// Only kept once applyChanges has been called: what was last applied to
+	//  each property, by slot index; its raw value, null for its default
+	//  value, or the keys of a nested property (see
+	//  PropertyGroup#getNestedKeys), or NOT_APPLIED.
+	private Object[] appliedValues;
+	
+	// At most this many locks guard the properties of an object.
+	private static final int MAX_STRIPES = 16;
+	
+	// Each property is only set, or read for extraction, while holding its
+	//  stripe (by slot index, modulo the number of stripes), so that
+	//  extracting never sees a property halfway through its setter, nor a
+	//  long or double field half written, without waiting for whole applies;
+	//  applies themselves are synchronized on the handler.
+	private final Object[] stripes;
+	
+	// Only kept once extractChanges has been called: the formatted value
+	//  of each property, and what extractChanges last reported of it.
+	//  Created and used holding its monitor.
+	private volatile ExtractedValues extractedValues;
+	
+	/**
+	 * <p>
+	 * If you have a property of a type that is not in this list, you may need
+	 * 	to specify your own getter and setter that return and accept a *String*
+	 * 	value, respectively. It is *possible* for a type not included in this 
+	 *  list to work if it has a toString method that returns a string
+	 *  which will generate an equivalent object when casting said string to 
+	 *  the type in question.
+	 * </p>
+	 *  
+	 * <p>
+	 * In other words:
+	 * <pre>
+	 * MyType object = new MyType();
+	 * if((MyType)(object.toString()) == object) {
+	 *     System.out.println("Compatible (maybe)!");
+	 * } else {
+	 *     System.out.println("Incompatible (definitely)!");
+	 * }
+	 * </pre>
+	 * </p>
+	 * @return a set containing all of the officially-supported types that can 
+	 * 	be mapped as a property using PropertiesHandler
+	 */
+	public static Set<Type> getSupportedTypes() {
+		return Collections.unmodifiableSet(PropertiesParser.converterMap.keySet());
+	}
+	
+	/**
+	 * @param obj the object whose properties you would like to load or store
+	 * @throws PropertyInaccessibleException if any of the properties cannot be
+	 * 	properly mapped to a field or getters/setters
+	 * @see Property
+	 * @see PropertyGetter
+	 * @see PropertySetter
+	 */
+	public PropertiesHandler(Object obj) 
+		throws PropertyInaccessibleException {
+		HandlerCreatedEvent event = HandlerCreatedEvent.beginIfRecorded();
+		this.object = obj;
+		this.binding = PropertiesBinding.forClass(obj.getClass());
+		this.stripes = new Object[Math.max(1, 
+				Math.min(binding.getSlots().length, MAX_STRIPES))];
+		for(int i=0; i < stripes.length; ++i) {
+			stripes[i] = new Object();
+		}
+		if(event != null && event.shouldCommit()) {
+			event.objectClass = obj.getClass();
+			event.propertyCount = binding.getSlots().length;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * @return this handler's statistics, which it starts keeping now if it
+	 * 	was not already
+	 */
+	synchronized HandlerStatistics enableStatistics() {
+		if(statistics == null) {
+			statistics = new HandlerStatistics();
+		}
+		return statistics;
+	}
+	
+	/**
+	 * Starts calling a listener for every property this handler applies or
+	 * 	extracts.
+	 * @param listener the listener to add
+	 * @see PropertyLatencyHistograms
+	 */
+	public synchronized void addListener(PropertiesListener listener) {
+		if(listener == null) {
+			throw new NullPointerException("listener");
+		}
+		PropertiesListener[] newListeners 
+			= Arrays.copyOf(listeners, listeners.length + 1);
+		newListeners[listeners.length] = listener;
+		listeners = newListeners;
+	}
+	
+	/**
+	 * @param listener a listener added with {@link #addListener}
+	 * @return false if the listener was not listening to this handler
+	 */
+	public synchronized boolean removeListener(PropertiesListener listener) {
+		for(int i=0; i < listeners.length; ++i) {
+			if(listeners[i] == listener) {
+				PropertiesListener[] newListeners
+					= new PropertiesListener[listeners.length - 1];
+				System.arraycopy(listeners, 0, newListeners, 0, i);
+				System.arraycopy(listeners, i + 1, newListeners, i,
+						newListeners.length - i);
+				listeners = newListeners.length == 0 
+					? NO_LISTENERS : newListeners;
+				return true;
+			}
+		}
+		return false;
+	}
+	
+	Set<String> getPropertyNames() {
+		return binding.getPropertyNames();
+	}
+	PropertiesBinding getBinding() {
+		return binding;
+	}
+	Object[] getStripes() {
+		return stripes;
+	}
+	Map<String,Field> getFieldMap() {
+		return binding.getFieldMap();
+	}
+	Map<String,Method> getSetterMap() {
+		return binding.getSetterMap();
+	}
+	Map<String,Method> getGetterMap() {
+		return binding.getGetterMap();
+	}	
+	Map<String,String> getDefaults() {
+		return binding.getDefaults();
+	}
+
+	/**
+	 * Given a pre-loaded Properties object, set fields and/or call setters on
+	 * 	our associated property-using object.
+	 * @param loadedProperties a pre-loaded properties object that will populate
+	 * 	fields or call getters/setters on the object this PropertiesHandler is
+	 * 	associated with.
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	loadedProperties 
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from loadedProperties 
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 * @see Property
+	 * @see PropertyGetter
+	 * @see PropertySetter
+	 */
+	public synchronized void applyProperties(Properties loadedProperties) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		if(binding.hasNestedSlots()) {
+			PropertyGroup group = PropertyGroup.of(binding, loadedProperties);
+			applyValues(group.getValues(), group, event, startNanos,
+					"Properties");
+			return;
+		}
+		int keysApplied = 0;
+		int defaultsApplied = 0;
+		for(PropertySlot slot : binding.getSlots()) {
+			if(slot.getWriter() != null) {
+				if(applyValue(slot, 
+						loadedProperties.getProperty(slot.getName()))) {
+					++keysApplied;
+				} else {
+					++defaultsApplied;
+				}
+			}
+		}
+		applied(event, startNanos, "Properties", keysApplied, defaultsApplied);
+	}
+	
+	/**
+	 * Same as {@link #applyPropertiesInParallel(Properties, ForkJoinPool)},
+	 * 	on the common pool.
+	 * @param loadedProperties a pre-loaded properties object
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	loadedProperties; nothing is set then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from loadedProperties; nothing is set then
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 * @see ForkJoinPool#commonPool()
+	 */
+	public void applyPropertiesInParallel(Properties loadedProperties) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		applyPropertiesInParallel(loadedProperties, ForkJoinPool.commonPool());
+	}
+	
+	/**
+	 * <p>
+	 * Applies properties in two phases: first every value is parsed, in
+	 *  parallel on the given pool; then, only if all of them parsed, every
+	 *  setter is called (or field set), one after the other on the calling
+	 *  thread, in the order the properties are declared in.
+	 * </p>
+	 * 
+	 * <p>
+	 * Unlike {@link #applyProperties(Properties)}, a missing or malformed
+	 *  value leaves the object untouched, instead of partly updated. Values
+	 *  are split between tasks by length, so that large arrays, lists and
+	 *  sets are parsed side by side while short values are not worth a task
+	 *  of their own; for objects with nothing but short values, the
+	 *  sequential version is faster.
+	 * </p>
+	 * 
+	 * <p>
+	 * Listeners are told about parsing from the pool's threads.
+	 * </p>
+	 * @param loadedProperties a pre-loaded properties object
+	 * @param pool the pool to parse values on
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	loadedProperties; nothing is set then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from loadedProperties; nothing is set then (if several values
+	 * 	are malformed, the first one declared is reported)
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method; the properties declared before it have been
+	 * 	set, the others have not
+	 */
+	public synchronized void applyPropertiesInParallel(
+			Properties loadedProperties,
+			ForkJoinPool pool) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		PropertySlot[] slots = binding.getSlots();
+		PropertyGroup group = null;
+		String[] values;
+		if(binding.hasNestedSlots()) {
+			group = PropertyGroup.of(binding, loadedProperties);
+			values = group.getValues();
+		} else {
+			values = new String[slots.length];
+			for(PropertySlot slot : slots) {
+				if(slot.getWriter() != null) {
+					values[slot.getIndex()] 
+						= loadedProperties.getProperty(slot.getName());
+				}
+			}
+		}
+		
+		// Phase 1: parse everything (and build every nested object), or fail
+		//  without touching the object.
+		ParallelParse parse = new ParallelParse(slots, values, group,
+				this.listeners);
+		pool.invoke(parse.new Task(0, slots.length));
+		for(Exception failure : parse.failures) {
+			if(failure instanceof PropertyMissingException) {
+				throw (PropertyMissingException)failure;
+			} else if(failure instanceof PropertyParserException) {
+				throw (PropertyParserException)failure;
+			} else if(failure != null) {
+				throw (PropertyInvocationTargetException)failure;
+			}
+		}
+		
+		// Phase 2: set everything.
+		int keysApplied = 0;
+		int defaultsApplied = 0;
+		for(PropertySlot slot : slots) {
+			if(slot.getWriter() == null) {
+				continue;
+			}
+			int index = slot.getIndex();
+			PropertyAppliedEvent slotEvent 
+				= PropertyAppliedEvent.beginIfRecorded();
+			long setStart = (slotEvent != null) ? System.nanoTime() : 0;
+			set(slot, values[index], parse.parsedValues[index],
+					parse.listeners);
+			remember(slot, rawValueOf(slot, values, group));
+			if(slotEvent != null) {
+				commit(slotEvent, slot, values[index], 
+						parse.parseNanos[index], System.nanoTime() - setStart);
+			}
+			if(values[index] != null 
+			|| (group != null && group.hasChild(index))) {
+				++keysApplied;
+			} else {
+				++defaultsApplied;
+			}
+		}
+		applied(event, startNanos, "Properties", keysApplied, defaultsApplied);
+	}
+	
+	/**
+	 * The first phase of {@link #applyPropertiesInParallel}: the parsed value
+	 * 	(or new nested object) of each property, or why it could not be
+	 * 	parsed, by slot index.
+	 */
+	private final class ParallelParse {
+		// Ranges of values shorter than this, in total, are parsed by a
+		//  single task.
+		private static final int TASK_LENGTH = 8192;
+		
+		final PropertySlot[] slots;
+		final String[] values;
+		final PropertyGroup group;
+		final PropertiesListener[] listeners;
+		final Object[] parsedValues;
+		final Exception[] failures;
+		final long[] parseNanos;
+		private final boolean timed;
+		
+		// Cumulative length of the values, to size tasks:
+		private final long[] lengthsBefore;
+		
+		ParallelParse(PropertySlot[] slots, String[] values,
+				PropertyGroup group, PropertiesListener[] listeners) {
+			this.slots = slots;
+			this.values = values;
+			this.group = group;
+			this.listeners = listeners;
+			this.parsedValues = new Object[slots.length];
+			this.failures = new Exception[slots.length];
+			this.parseNanos = new long[slots.length];
+			this.timed = PropertyAppliedEvent.isRecorded();
+			
+			this.lengthsBefore = new long[slots.length + 1];
+			for(int i=0; i < slots.length; ++i) {
+				String value = values[i] != null 
+					? values[i] : slots[i].getDefaultValue();
+				lengthsBefore[i + 1] = lengthsBefore[i] + 1
+					+ (value != null ? value.length() : 0);
+			}
+		}
+		
+		@SuppressWarnings("serial")
+		final class Task extends RecursiveAction {
+			private final int from;
+			private final int to;
+			
+			Task(int from, int to) {
+				this.from = from;
+				this.to = to;
+			}
+			
+			@Override
+			protected void compute() {
+				if(to - from > 1 
+				&& lengthsBefore[to] - lengthsBefore[from] > TASK_LENGTH) {
+					int middle = (from + to) >>> 1;
+					invokeAll(new Task(from, middle), new Task(middle, to));
+					return;
+				}
+				
+				for(int i=from; i < to; ++i) {
+					if(slots[i].getWriter() == null) {
+						continue;
+					}
+					long parseStart = timed ? System.nanoTime() : 0;
+					try {
+						parsedValues[i] = slots[i].isNested()
+							? newNestedValue(slots[i], slots[i].getName(),
+									group, listeners, statistics)
+							: parseValue(slots[i], slots[i].getName(),
+									values[i], listeners, statistics);
+					} catch (PropertyMissingException e) {
+						failures[i] = e;
+					} catch (PropertyParserException e) {
+						failures[i] = e;
+					} catch (PropertyInvocationTargetException e) {
+						// Thrown by a nested object, not ours.
+						failures[i] = e;
+					}
+					parseNanos[i] = timed ? System.nanoTime() - parseStart : 0;
+				}
+			}
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Apply property values held in any {@link Map}, such as a plain
+	 *  <code>HashMap&lt;String,String&gt;</code>, without copying them into a
+	 *  {@link Properties} object first.
+	 * </p>
+	 * 
+	 * <p>
+	 * Whichever side is smaller is iterated: a map with fewer entries than
+	 *  our object has properties is walked entry by entry (entries that are
+	 *  not properties are skipped); a larger map is looked up once per
+	 *  property by name. The latter needs {@link Map#get} to work with
+	 *  <code>String</code> names, so maps whose keys are not
+	 *  <code>String</code>s are always walked. Entries with a
+	 *  <code>null</code> value are treated as missing.
+	 * </p>
+	 * @param properties the value of each property, by name
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	the map
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the map
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 * @see #applyProperties(Properties)
+	 */
+	public synchronized void applyProperties(
+			Map<? extends CharSequence, ? extends CharSequence> properties) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		if(binding.hasNestedSlots()) {
+			PropertyGroup group = new PropertyGroup(binding);
+			group.putAll(properties);
+			applyValues(group.getValues(), group, event, startNanos, "Map");
+			return;
+		}
+		applyValues(valuesOf(properties), null, event, startNanos, "Map");
+	}
+	
+	/**
+	 * @param properties the value of each property, by name, for an object
+	 * 	without nested properties
+	 * @return the raw value of each property, by slot index, or null where
+	 * 	there is none
+	 */
+	private String[] valuesOf(
+			Map<? extends CharSequence, ? extends CharSequence> properties) {
+		PropertySlot[] slots = binding.getSlots();
+		String[] values = new String[slots.length];
+		
+		if(properties.size() <= slots.length || !isKeyedByString(properties)) {
+			for(Map.Entry<? extends CharSequence, ? extends CharSequence> entry
+					: properties.entrySet()) {
+				if(entry.getKey() == null || entry.getValue() == null) {
+					continue;
+				}
+				int index = binding.slotIndexOf(entry.getKey());
+				if(index >= 0) {
+					values[index] = entry.getValue().toString();
+				}
+			}
+		} else {
+			for(PropertySlot slot : slots) {
+				CharSequence value = properties.get(slot.getName());
+				if(value != null) {
+					values[slot.getIndex()] = value.toString();
+				}
+			}
+		}
+		return values;
+	}
+	
+	/**
+	 * <p>
+	 * Read .properties text from a buffer and apply it to our associated
+	 *  property-using object, without loading it into a {@link Properties}
+	 *  object first.
+	 * </p>
+	 * 
+	 * <p>
+	 * The text is tokenized in place, following the same rules as
+	 *  {@link Properties#load(java.io.Reader)}; when a key appears more than
+	 *  once, the last value wins. Keys that are not properties of our object
+	 *  are skipped without being copied.
+	 * </p>
+	 * @param buffer the text to read, from its position to its limit (the
+	 * 	position is left unchanged)
+	 * @param charset the encoding of the text; ISO 8859-1 (what
+	 * 	{@link Properties#load(java.io.InputStream)} expects) and UTF-8 are
+	 * 	decoded as they are read, anything else is decoded up front
+	 * @throws IllegalArgumentException if the text contains a malformed
+	 * 	<code>\\uXXXX</code> escape sequence
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	the text
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the text
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 * @see #applyProperties(Path, Charset)
+	 */
+	public synchronized void applyProperties(ByteBuffer buffer, Charset charset)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		PropertyGroup group = binding.hasNestedSlots() 
+			? new PropertyGroup(binding) : null;
+		String[] values = (group != null) 
+			? group.getValues() : new String[binding.getSlots().length];
+		PropertiesReader reader = new PropertiesReader(buffer, charset);
+		while(reader.next()) {
+			int index = binding.slotIndexOf(reader.getKey(), 
+					reader.getKeyLength());
+			if(index >= 0 && !binding.getSlots()[index].isNested()) {
+				values[index] = reader.getValue();
+			} else if(group != null) {
+				CharBuffer key = CharBuffer.wrap(reader.getKey(), 0, 
+						reader.getKeyLength());
+				if(binding.nestedSlotIndexOf(key, 0) >= 0) {
+					group.put(key, reader.getValue());
+				}
+			}
+		}
+		applyValues(values, group, event, startNanos, "ByteBuffer");
+	}
+	
+	/**
+	 * Memory-map a .properties file and apply it to our associated
+	 *  property-using object.
+	 * @param file the .properties file to read
+	 * @param charset the encoding of the file
+	 * @throws IOException if the file cannot be read
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	the file
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the file
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 * @see #applyProperties(ByteBuffer, Charset)
+	 */
+	public void applyProperties(Path file, Charset charset)
+		throws IOException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+		try {
+			applyProperties(channel.map(FileChannel.MapMode.READ_ONLY, 0, 
+					channel.size()), charset);
+		} finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * <p>
+	 * Applies only the properties whose value changed since they were last
+	 *  applied: the handler remembers the raw value it last applied to each
+	 *  property, and compares the given properties against it, so that only
+	 *  the values that changed are parsed and only their setters are called
+	 *  (or fields set). A property that was missing, and still is, has not
+	 *  changed; a nested property has changed if any of its keys has.
+	 * </p>
+	 * 
+	 * <p>
+	 * The first call applies every property, as nothing has been remembered
+	 *  yet; from then on, every way of applying properties keeps the handler's
+	 *  memory up to date. Changes made to the object by other means are not
+	 *  noticed. Like {@link #applyPropertiesInParallel}, every changed value
+	 *  is parsed before any is set, so a missing or malformed value leaves
+	 *  the object untouched.
+	 * </p>
+	 * @param loadedProperties a pre-loaded properties object
+	 * @return the names of the properties that changed, in the order they
+	 * 	are declared in; empty if none did
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	loadedProperties; nothing is set then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	changed value from loadedProperties; nothing is set then
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method; the changed properties declared before it
+	 * 	have been set, the others have not
+	 */
+	public synchronized Set<String> applyChanges(Properties loadedProperties) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		if(binding.hasNestedSlots()) {
+			PropertyGroup group = PropertyGroup.of(binding, loadedProperties);
+			return applyChanges(group.getValues(), group, event, startNanos,
+					"Properties");
+		}
+		PropertySlot[] slots = binding.getSlots();
+		String[] values = new String[slots.length];
+		for(PropertySlot slot : slots) {
+			if(slot.getWriter() != null) {
+				values[slot.getIndex()] 
+					= loadedProperties.getProperty(slot.getName());
+			}
+		}
+		return applyChanges(values, null, event, startNanos, "Properties");
+	}
+	
+	/**
+	 * Same as {@link #applyChanges(Properties)}, for property values held in
+	 * 	any {@link Map}. Entries with a <code>null</code> value are treated
+	 * 	as missing.
+	 * @param properties the value of each property, by name
+	 * @return the names of the properties that changed, in the order they
+	 * 	are declared in; empty if none did
+	 * @throws PropertyMissingException if a required property is not set in 
+	 * 	the map; nothing is set then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	changed value from the map; nothing is set then
+	 * @throws PropertyInvocationTargetException  if any exceptions occur while
+	 * 	invoking a setter method
+	 */
+	public synchronized Set<String> applyChanges(
+			Map<? extends CharSequence, ? extends CharSequence> properties) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		ApplyPropertiesEvent event = ApplyPropertiesEvent.beginIfRecorded();
+		long startNanos = (statistics == null) ? 0 : System.nanoTime();
+		if(binding.hasNestedSlots()) {
+			PropertyGroup group = new PropertyGroup(binding);
+			group.putAll(properties);
+			return applyChanges(group.getValues(), group, event, startNanos, 
+					"Map");
+		}
+		return applyChanges(valuesOf(properties), null, event, startNanos,
+				"Map");
+	}
+	
+	/**
+	 * @param values the raw value of each property, by slot index, or null
+	 * 	to use the property's default value
+	 * @param group the keys of nested properties, or null if there are none
+	 * @return the names of the properties that changed
+	 */
+	private Set<String> applyChanges(String[] values, PropertyGroup group,
+			ApplyPropertiesEvent event, long startNanos, String source)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		PropertySlot[] slots = binding.getSlots();
+		if(appliedValues == null) {
+			appliedValues = new Object[slots.length];
+			Arrays.fill(appliedValues, NOT_APPLIED);
+		}
+		PropertiesListener[] listeners = this.listeners;
+		HandlerStatistics statistics = this.statistics;
+		
+		// Phase 1: parse what changed.
+		Object[] parsedValues = null;
+		int[] changed = null;
+		int changedCount = 0;
+		for(PropertySlot slot : slots) {
+			if(slot.getWriter() == null) {
+				continue;
+			}
+			int index = slot.getIndex();
+			Object raw = rawValueOf(slot, values, group);
+			Object previous = appliedValues[index];
+			if(previous != NOT_APPLIED 
+			&& (previous == null ? raw == null : previous.equals(raw))) {
+				continue;
+			}
+			
+			if(changed == null) {
+				parsedValues = new Object[slots.length];
+				changed = new int[slots.length];
+			}
+			parsedValues[index] = slot.isNested()
+				? newNestedValue(slot, slot.getName(), group, listeners,
+						statistics)
+				: parseValue(slot, slot.getName(), values[index], listeners,
+						statistics);
+			changed[changedCount++] = index;
+		}
+		if(changedCount == 0) {
+			applied(event, startNanos, source, 0, 0);
+			return Collections.emptySet();
+		}
+		
+		// Phase 2: set it.
+		Set<String> changedNames = new LinkedHashSet<String>();
+		int keysApplied = 0;
+		int defaultsApplied = 0;
+		for(int i=0; i < changedCount; ++i) {
+			PropertySlot slot = slots[changed[i]];
+			Object raw = rawValueOf(slot, values, group);
+			set(slot, values[slot.getIndex()], parsedValues[slot.getIndex()],
+					listeners);
+			remember(slot, raw);
+			changedNames.add(slot.getName());
+			if(raw != null) {
+				++keysApplied;
+			} else {
+				++defaultsApplied;
+			}
+		}
+		applied(event, startNanos, source, keysApplied, defaultsApplied);
+		return Collections.unmodifiableSet(changedNames);
+	}
+	
+	/**
+	 * @return the raw value of a property, or the keys of a nested property,
+	 * 	or null if there are none
+	 */
+	private static Object rawValueOf(PropertySlot slot, String[] values,
+			PropertyGroup group) {
+		if(!slot.isNested()) {
+			return values[slot.getIndex()];
+		}
+		return (group != null) ? group.getNestedKeys(slot.getIndex()) : null;
+	}
+	
+	/**
+	 * Records what was applied to a property, if {@link #applyChanges} needs
+	 * 	to know.
+	 * @param raw the raw value of the property, null for its default value,
+	 * 	or the keys of a nested property
+	 */
+	private void remember(PropertySlot slot, Object raw) {
+		Object[] appliedValues = this.appliedValues;
+		if(appliedValues != null) {
+			appliedValues[slot.getIndex()] = raw;
+		}
+	}
+	
+	private static boolean isKeyedByString(Map<?,?> map) {
+		// Maps don't mix key types in practice, so the first key will do.
+		return map.keySet().iterator().next() instanceof String;
+	}
+	
+	/**
+	 * @param values the raw value of each property, by slot index, or null
+	 * 	to use the property's default value
+	 * @param group the keys of nested properties, or null if there are none
+	 * @param event the event to commit once done
+	 * @param startNanos when the apply started, for the statistics
+	 * @param source what the values were read from, for the event
+	 */
+	private void applyValues(String[] values, PropertyGroup group,
+			ApplyPropertiesEvent event, long startNanos, String source) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		int keysApplied = 0;
+		int defaultsApplied = 0;
+		for(PropertySlot slot : binding.getSlots()) {
+			if(slot.getWriter() != null) {
+				if(slot.isNested() 
+					? applyNested(slot, group)
+					: applyValue(slot, values[slot.getIndex()])) {
+					++keysApplied;
+				} else {
+					++defaultsApplied;
+				}
+			}
+		}
+		applied(event, startNanos, source, keysApplied, defaultsApplied);
+	}
+	
+	private void applied(ApplyPropertiesEvent event, long startNanos,
+			String source, int keysApplied, int defaultsApplied) {
+		HandlerStatistics statistics = this.statistics;
+		if(statistics != null) {
+			statistics.applied(System.nanoTime() - startNanos);
+		}
+		if(event != null && event.shouldCommit()) {
+			event.objectClass = object.getClass();
+			event.source = source;
+			event.keysApplied = keysApplied;
+			event.defaultsApplied = defaultsApplied;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * @param slot the property to set; must have a writer
+	 * @param propertyValueString the raw value of the property, or null to
+	 * 	use its default value
+	 * @return true if the raw value was used, false if the default was
+	 */
+	private boolean applyValue(PropertySlot slot, String propertyValueString) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		PropertyAppliedEvent event = PropertyAppliedEvent.beginIfRecorded();
+		PropertiesListener[] listeners = this.listeners;
+		long parseStart = (event != null) ? System.nanoTime() : 0;
+		
+		Object propertyValue = parseValue(slot, slot.getName(),
+				propertyValueString, listeners, statistics);
+		
+		long setStart = (event != null) ? System.nanoTime() : 0;
+		set(slot, propertyValueString, propertyValue, listeners);
+		remember(slot, propertyValueString);
+		
+		if(event != null) {
+			commit(event, slot, propertyValueString, setStart - parseStart,
+					System.nanoTime() - setStart);
+		}
+		return propertyValueString != null;
+	}
+	
+	/**
+	 * @param slot the property to set; must be nested and have a writer
+	 * @param group the keys of the nested properties
+	 * @return true if any key was used, false if only defaults were
+	 */
+	private boolean applyNested(PropertySlot slot, PropertyGroup group) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		PropertiesListener[] listeners = this.listeners;
+		Object propertyValue = newNestedValue(slot, slot.getName(), group,
+				listeners, statistics);
+		set(slot, null, propertyValue, listeners);
+		remember(slot, rawValueOf(slot, null, group));
+		return group.hasChild(slot.getIndex());
+	}
+	
+	/**
+	 * Builds the value of a nested property: a new object, or a new
+	 * 	<code>List</code> of them, with their own properties applied from
+	 * 	the group's keys (or their defaults). A property with no keys at all
+	 * 	is null, or an empty <code>List</code>, rather than an object of
+	 * 	defaults; that is also what ends a class nesting itself.
+	 * @param slot the nested property
+	 * @param propertyName the full name of the property, such as
+	 * 	<code>db.primary</code>
+	 * @param group the group holding the keys of the property, or null
+	 * @param listeners the listeners to tell
+	 * @param statistics the statistics to update, or null
+	 * @return the new value, or null if the group holds no key for it
+	 * @throws PropertyMissingException if a required nested property is
+	 * 	not set, or an index of a <code>List</code> is skipped
+	 * @throws PropertyParserException if a nested value is malformed
+	 * @throws PropertyInvocationTargetException if a nested object's
+	 * 	constructor or setter throws
+	 */
+	static Object newNestedValue(PropertySlot slot, String propertyName,
+			PropertyGroup group, PropertiesListener[] listeners,
+			HandlerStatistics statistics) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		NestedBinding nested = slot.getNested();
+		if(!slot.isIndexed()) {
+			PropertyGroup child = (group == null) 
+				? null : group.getChild(slot.getIndex());
+			return (child == null) ? null
+				: newNestedObject(nested, propertyName, child, listeners,
+						statistics);
+		}
+		
+		SortedMap<Integer,PropertyGroup> elements = (group == null) 
+			? null : group.getElements(slot.getIndex());
+		if(elements == null) {
+			return new ArrayList<Object>();
+		}
+		List<Object> list = new ArrayList<Object>(elements.size());
+		for(Map.Entry<Integer,PropertyGroup> element : elements.entrySet()) {
+			String elementName = propertyName + "." + list.size();
+			if(element.getKey() != list.size()) {
+				// Indexes must go from 0 up, without gaps.
+				throw failed(listeners, elementName, 
+						new PropertyMissingException(elementName));
+			}
+			list.add(newNestedObject(nested, elementName, element.getValue(),
+					listeners, statistics));
+		}
+		return list;
+	}
+	
+	private static Object newNestedObject(NestedBinding nested,
+			String propertyName, PropertyGroup group, 
+			PropertiesListener[] listeners, HandlerStatistics statistics) 
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		Object target;
+		try {
+			target = nested.newInstance();
+		} catch (InvocationTargetException e) {
+			throw failed(listeners, propertyName,
+					new PropertyInvocationTargetException(propertyName,
+					"-NEW-",
+					null,
+					e.getCause()));
+		}
+		
+		String prefix = propertyName + ".";
+		for(PropertySlot slot : nested.getBinding().getSlots()) {
+			if(slot.getWriter() == null) {
+				continue;
+			}
+			String name = prefix + slot.getName();
+			Object value = slot.isNested()
+				? newNestedValue(slot, name, group, listeners, statistics)
+				: parseValue(slot, name, 
+						group == null ? null : group.getValue(slot.getIndex()),
+						listeners, statistics);
+			setValue(target, slot, name, 
+					group == null ? null : group.getValue(slot.getIndex()), 
+					value, listeners);
+		}
+		return target;
+	}
+	
+	/**
+	 * @param slot the property to parse
+	 * @param propertyName the full name of the property
+	 * @param propertyValueString the raw value of the property, or null to
+	 * 	use its default value
+	 * @param listeners the listeners to tell
+	 * @param statistics the statistics to update, or null
+	 * @return the parsed value
+	 */
+	static Object parseValue(PropertySlot slot, String propertyName,
+			String propertyValueString, PropertiesListener[] listeners,
+			HandlerStatistics statistics) 
+		throws PropertyMissingException,
+			   PropertyParserException {
+		boolean isDefault = (propertyValueString == null);
+		
+		if(isDefault) {
+			propertyValueString = slot.getDefaultValue();
+		}
+		
+		if(propertyValueString == null) {
+			throw failed(listeners, propertyName,
+					new PropertyMissingException(propertyName));
+		}
+		
+		for(PropertiesListener listener : listeners) {
+			listener.parseStarted(propertyName);
+		}
+		long parseStart = (listeners.length > 0) ? System.nanoTime() : 0;
+		
+		Object propertyValue;
+		try {
+			propertyValue = isDefault
+				? slot.parseDefault()
+				: slot.parse(propertyValueString);
+		} catch (Exception e) {
+			if(statistics != null) {
+				statistics.parseFailed(propertyName);
+			}
+			throw failed(listeners, propertyName,
+					new PropertyParserException(slot.getType(),
+					propertyName, propertyValueString, e));
+		}
+		
+		if(listeners.length > 0) {
+			long parseEnd = System.nanoTime();
+			for(PropertiesListener listener : listeners) {
+				listener.parseEnded(propertyName, parseEnd - parseStart);
+			}
+		}
+		return propertyValue;
+	}
+	
+	/**
+	 * Sets a property of our object, holding its stripe.
+	 * @see #setValue
+	 */
+	private void set(PropertySlot slot, String propertyValueString,
+			Object propertyValue, PropertiesListener[] listeners)
+		throws PropertyInvocationTargetException {
+		synchronized(stripeOf(stripes, slot)) {
+			setValue(object, slot, slot.getName(), propertyValueString,
+					propertyValue, listeners);
+		}
+	}
+	
+	private static Object stripeOf(Object[] stripes, PropertySlot slot) {
+		return stripes[slot.getIndex() % stripes.length];
+	}
+	
+	/**
+	 * @param target the object to set the property of
+	 * @param slot the property to set; must have a writer
+	 * @param propertyName the full name of the property
+	 * @param propertyValueString the raw value of the property, or null if
+	 * 	its default value was used
+	 * @param propertyValue the parsed value
+	 * @param listeners the listeners to tell
+	 */
+	static void setValue(Object target, PropertySlot slot, 
+			String propertyName, String propertyValueString,
+			Object propertyValue, PropertiesListener[] listeners)
+		throws PropertyInvocationTargetException {
+		long setStart = (listeners.length > 0) ? System.nanoTime() : 0;
+		try {
+			slot.getWriter().set(target, propertyValue);
+		} catch (InvocationTargetException e) {
+			throw failed(listeners, propertyName,
+					new PropertyInvocationTargetException(propertyName, 
+					propertyValueString != null 
+						? propertyValueString : slot.getDefaultValue(),
+					propertyValue,
+					e.getCause()));
+		}
+		
+		if(listeners.length > 0) {
+			long setEnd = System.nanoTime();
+			for(PropertiesListener listener : listeners) {
+				listener.setterInvoked(propertyName, setEnd - setStart);
+			}
+		}
+	}
+	
+	private void commit(PropertyAppliedEvent event, PropertySlot slot,
+			String propertyValueString, long parseNanos, long setNanos) {
+		if(event.shouldCommit()) {
+			boolean isDefault = (propertyValueString == null);
+			event.setTime = setNanos;
+			event.parseTime = parseNanos;
+			event.objectClass = object.getClass();
+			event.name = slot.getName();
+			event.type = slot.getType().getTypeName();
+			String value = isDefault 
+				? slot.getDefaultValue() : propertyValueString;
+			// Nested properties have no value of their own:
+			event.valueLength = (value != null) ? value.length() : 0;
+			event.isDefault = isDefault;
+			event.commit();
+		}
+	}
+	
+	/**
+	 * Tells the listeners about a failure.
+	 * @return the failure, to be thrown
+	 */
+	static <E extends Exception> E failed(
+			PropertiesListener[] listeners, String propertyName, E failure) {
+		for(PropertiesListener listener : listeners) {
+			listener.failed(propertyName, failure);
+		}
+		return failure;
+	}
+	
+	/**
+	 * Store all property data associated with our object based on their actual
+	 *  values in the object.
+	 * @return a {@link Properties} object based on the properties 
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 *  invoking a getter method
+	 * @see #extractProperties(Writer)
+	 * @see Property
+	 * @see PropertyGetter
+	 * @see PropertySetter
+	 */
+	public Properties extractProperties()
+		throws IOException, PropertyInvocationTargetException {
+		ExtractPropertiesEvent event = ExtractPropertiesEvent.beginIfRecorded();
+		Properties extractedProperties = new Properties();
+		PropertiesWriter writer 
+			= PropertiesWriter.forProperties(extractedProperties);
+		ExtractedValues extracted = extractedValues;
+		if(extracted != null) {
+			writeTracked(writer, extracted, false);
+		} else {
+			writeObject(writer, "", object, binding, stripes, this.listeners);
+		}
+		commit(event, "Properties", extractedProperties.size());
+		return extractedProperties;
+	}
+	
+	/**
+	 * <p>
+	 * Store only the properties whose value changed since this method last
+	 *  stored them; other ways of extracting properties do not count.
+	 * </p>
+	 * 
+	 * <p>
+	 * Getters are still invoked (or fields read) every time, since the object
+	 *  may be changed by other means than this handler, but a string, or a
+	 *  boxed number, boolean or character, is only formatted again if it is
+	 *  not equal to the one last extracted. Arrays and collections can be
+	 *  changed in place, so they are formatted every time; a value formatted
+	 *  to the same string as last time has not changed. The first call
+	 *  stores every property, as nothing has been stored yet; from then on,
+	 *  every way of extracting properties reuses the formatted values of
+	 *  unchanged properties instead of formatting them again. The keys of
+	 *  nested properties are formatted every time, and each one is stored if
+	 *  its value changed, whether its object was replaced or changed in
+	 *  place.
+	 * </p>
+	 * 
+	 * <p>
+	 * Properties whose value became <code>null</code>, and the keys of
+	 *  nested objects that were removed, are left out, like
+	 *  {@link #extractProperties()} leaves them out.
+	 * </p>
+	 * @return a {@link Properties} object holding the changed properties;
+	 * 	empty if none did
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 *  invoking a getter method
+	 * @see #applyChanges(Properties)
+	 */
+	public Properties extractChanges()
+		throws IOException, PropertyInvocationTargetException {
+		ExtractPropertiesEvent event = ExtractPropertiesEvent.beginIfRecorded();
+		ExtractedValues extracted = extractedValues;
+		if(extracted == null) {
+			// Not on this, which applies hold:
+			synchronized(stripes) {
+				extracted = extractedValues;
+				if(extracted == null) {
+					extracted = new ExtractedValues(binding.getSlots().length);
+					extractedValues = extracted;
+				}
+			}
+		}
+		Properties changedProperties = new Properties();
+		writeTracked(PropertiesWriter.forProperties(changedProperties),
+				extracted, true);
+		commit(event, "Properties", changedProperties.size());
+		return changedProperties;
+	}
+	
+	/**
+	 * <p>
+	 * Write all property data associated with our object as
+	 *  <code>key=value</code> lines, escaped like
+	 *  {@link Properties#store(Writer, String)} would escape them, without
+	 *  building a {@link Properties} object (or a <code>String</code> per
+	 *  value) first.
+	 * </p>
+	 * 
+	 * <p>
+	 * Properties are written in the order they are declared in;
+	 *  properties whose value is <code>null</code> are left out. No comment or timestamp
+	 *  is written.
+	 * </p>
+	 * @param out where to append the properties
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 *  invoking a getter method
+	 */
+	public void extractProperties(Appendable out)
+		throws IOException, PropertyInvocationTargetException {
+		writeProperties(PropertiesWriter.forAppendable(out, true), 
+				"Appendable");
+	}
+	
+	/**
+	 * Write all property data associated with our object as
+	 *  <code>key=value</code> lines, then flush the writer.
+	 * @param out where to write the properties
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 *  invoking a getter method
+	 * @see #extractProperties(Appendable)
+	 */
+	public void extractProperties(Writer out)
+		throws IOException, PropertyInvocationTargetException {
+		writeProperties(PropertiesWriter.forWriter(out), "Writer");
+		out.flush();
+	}
+	
+	/**
+	 * Write all property data associated with our object as
+	 *  <code>key=value</code> lines in ISO 8859-1, escaping every other
+	 *  character, like {@link Properties#store(java.io.OutputStream, String)}.
+	 * @param out where to write the properties; must be in blocking mode
+	 * @throws IOException if there are any issues writing the data
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 *  invoking a getter method
+	 * @see #extractProperties(Appendable)
+	 */
+	public void extractProperties(WritableByteChannel out)
+		throws IOException, PropertyInvocationTargetException {
+		writeProperties(PropertiesWriter.forChannel(out), 
+				"WritableByteChannel");
+	}
+	
+	private void writeProperties(PropertiesWriter writer, String destination)
+		throws IOException, PropertyInvocationTargetException {
+		ExtractPropertiesEvent event = ExtractPropertiesEvent.beginIfRecorded();
+		ExtractedValues extracted = extractedValues;
+		int keysExtracted = (extracted != null)
+			? writeTracked(writer, extracted, false)
+			: writeObject(writer, "", object, binding, stripes,
+					this.listeners);
+		writer.flush();
+		commit(event, destination, keysExtracted);
+	}
+	
+	/**
+	 * Writes the properties of an object, and of its nested objects, each
+	 * 	key prefixed with the given prefix.
+	 * @param writer where to write the properties
+	 * @param prefix the prefix of every key, such as <code>db.</code>, or
+	 * 	an empty string
+	 * @param target the object to read the properties of
+	 * @param binding the binding of the object
+	 * @param stripes the locks to read each property of the object under,
+	 * 	by slot index, or null to take none
+	 * @param listeners the listeners to tell
+	 * @return the number of properties written
+	 */
+	static int writeObject(PropertiesWriter writer, String prefix,
+			Object target, PropertiesBinding binding, Object[] stripes,
+			PropertiesListener[] listeners)
+		throws IOException, PropertyInvocationTargetException {
+		int keysExtracted = 0;
+		for(PropertySlot slot : binding.getSlots()) {
+			if(slot.getReader() == null) {
+				continue; // Write-only property.
+			}
+			
+			String propertyName = (prefix.length() == 0)
+				? slot.getName() : prefix + slot.getName();
+			Object value;
+			if(stripes == null) {
+				value = extractProperty(target, slot, propertyName, listeners);
+			} else {
+				synchronized(stripeOf(stripes, slot)) {
+					value = extractProperty(target, slot, propertyName,
+							listeners);
+				}
+			}
+			if(value == null) {
+				continue;
+			}
+			if(!slot.isNested()) {
+				writer.writeProperty(prefix, slot.getName(), value);
+				++keysExtracted;
+			} else {
+				keysExtracted += writeNested(writer, propertyName, slot, value,
+						listeners);
+			}
+		}
+		return keysExtracted;
+	}
+	
+	/**
+	 * Writes the properties of a nested object, or of each object of a
+	 * 	nested list.
+	 * @param propertyName the full name of the nested property
+	 * @param slot the nested property
+	 * @param value the nested object, or list of them
+	 * @return the number of properties written
+	 */
+	private static int writeNested(PropertiesWriter writer, 
+			String propertyName, PropertySlot slot, Object value,
+			PropertiesListener[] listeners)
+		throws IOException, PropertyInvocationTargetException {
+		// Nested objects are replaced by applies, never changed.
+		if(!slot.isIndexed()) {
+			return writeObject(writer, propertyName + ".", value,
+					slot.getNested().getBinding(), null, listeners);
+		}
+		int keysExtracted = 0;
+		int index = 0;
+		for(Object element : (List<?>)value) {
+			if(element != null) {
+				keysExtracted += writeObject(writer, 
+						propertyName + "." + index + ".", element,
+						slot.getNested().getBinding(), null, listeners);
+			}
+			++index;
+		}
+		return keysExtracted;
+	}
+	
+	/**
+	 * Writes the properties of our object, reusing the formatted value of
+	 * 	each property that did not change since it was last extracted.
+	 * @param writer where to write the properties
+	 * @param extracted what was last extracted; updated
+	 * @param changesOnly true to only write the properties that changed
+	 * 	since {@link #extractChanges()} last reported them, and move that
+	 * 	baseline forward; false to write every property
+	 * @return the number of properties written
+	 */
+	private int writeTracked(PropertiesWriter writer, ExtractedValues extracted,
+			boolean changesOnly)
+		throws IOException, PropertyInvocationTargetException {
+		PropertiesListener[] listeners = this.listeners;
+		int keysExtracted = 0;
+		synchronized(extracted) {
+			for(PropertySlot slot : binding.getSlots()) {
+				if(slot.getReader() == null) {
+					continue; // Write-only property.
+				}
+				Object value;
+				synchronized(stripeOf(stripes, slot)) {
+					value = extractProperty(object, slot, slot.getName(),
+							listeners);
+				}
+				int index = slot.getIndex();
+				if(!slot.isNested()) {
+					String string = extracted.format(index, value);
+					boolean changed = !changesOnly 
+						|| extracted.report(index, string);
+					if(string != null && changed) {
+						writer.writeProperty("", slot.getName(), string);
+						++keysExtracted;
+					}
+				} else if(!changesOnly) {
+					if(value != null) {
+						keysExtracted += writeNested(writer, slot.getName(),
+								slot, value, listeners);
+					}
+				} else {
+					// Compared key by key, so that changes made inside
+					//  nested objects are noticed too.
+					Properties keys = new Properties();
+					if(value != null) {
+						writeNested(PropertiesWriter.forProperties(keys),
+								slot.getName(), slot, value, listeners);
+					}
+					for(String key : extracted.reportNested(index, keys)) {
+						writer.writeProperty("", key, keys.getProperty(key));
+						++keysExtracted;
+					}
+				}
+			}
+		}
+		return keysExtracted;
+	}
+	
+	private void commit(ExtractPropertiesEvent event, String destination,
+			int keysExtracted) {
+		if(event != null && event.shouldCommit()) {
+			event.objectClass = object.getClass();
+			event.destination = destination;
+			event.keysExtracted = keysExtracted;
+			event.commit();
+		}
+	}
+	
+	private static Object extractProperty(Object target, PropertySlot slot,
+			String propertyName, PropertiesListener[] listeners)
+		throws PropertyInvocationTargetException {
+		long getStart = listeners.length > 0 ? System.nanoTime() : 0;
+		Object value;
+		try {
+			value = slot.getReader().get(target);
+		} catch (InvocationTargetException e) {
+			throw failed(listeners, propertyName,
+					new PropertyInvocationTargetException(propertyName, 
+					"-UNKNOWN-",
+					null,
+					e.getCause()));
+		}
+		if(listeners.length > 0) {
+			long getEnd = System.nanoTime();
+			for(PropertiesListener listener : listeners) {
+				listener.getterInvoked(propertyName, getEnd - getStart);
+			}
+		}
+		return value;
+	}
+	
+	static String getMethodNameFromPropertyName(String prefix, 
+			String propertyName) {
+		return prefix + propertyName.substring(0, 1).toUpperCase()
+		+ propertyName.substring(1);
+	}
+}
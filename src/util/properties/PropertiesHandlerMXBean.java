@@ -0,0 +1,60 @@
+package util.properties;
+
+import java.util.Date;
+import java.util.Map;
+
+/**
+ * The management interface of a {@link PropertiesHandler} registered with
+ *  {@link PropertiesRegistry}, as seen from JConsole or any other JMX
+ *  client.
+ *
+ * @author Louis Acresti
+ */
+public interface PropertiesHandlerMXBean {
+
+	/**
+	 * @return the name of the class of the handler's object
+	 */
+	String getObjectClassName();
+
+	/**
+	 * @return the number of properties bound on the handler's object
+	 */
+	int getPropertyCount();
+
+	/**
+	 * @return the number of successful <code>applyProperties</code> calls
+	 * 	since the handler was registered
+	 */
+	long getApplyCount();
+
+	/**
+	 * @return when the last successful <code>applyProperties</code> call
+	 * 	finished, or null if there was none
+	 */
+	Date getLastApplyTime();
+
+	/**
+	 * @return the time spent in successful <code>applyProperties</code>
+	 * 	calls, in total, in nanoseconds
+	 */
+	long getTotalApplyTimeNanos();
+
+	/**
+	 * @return the time spent in the slowest successful
+	 * 	<code>applyProperties</code> call, in nanoseconds
+	 */
+	long getMaxApplyTimeNanos();
+
+	/**
+	 * @return the number of {@link PropertyParserException}s thrown for each
+	 * 	property that failed to parse at least once
+	 */
+	Map<String,Long> getParseFailureCounts();
+
+	/**
+	 * @return the current value of every property of the handler's object,
+	 * 	as extracted by {@link PropertiesHandler#extractProperties()}
+	 */
+	Map<String,String> getCurrentValues();
+}
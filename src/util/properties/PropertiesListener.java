@@ -0,0 +1,60 @@
+package util.properties;
+
+/**
+ * <p>
+ * Receives a callback for every step a {@link PropertiesHandler} takes on a
+ *  single property: parsing its value, writing it to the object (through its
+ *  setter or field), reading it back (through its getter or field), and any
+ *  failure along the way. Timings are measured with
+ *  {@link System#nanoTime()}.
+ * </p>
+ *
+ * <p>
+ * Listeners are added with {@link PropertiesHandler#addListener}. They are
+ *  called on whichever thread applies or extracts the properties (or
+ *  parses them, for
+ *  {@link PropertiesHandler#applyPropertiesInParallel}), in the middle of
+ *  doing so, so they should be quick, thread-safe, and must not throw. A
+ *  handler without listeners does not read the clock at all.
+ * </p>
+ *
+ * @see PropertyLatencyHistograms
+ * @author Louis Acresti
+ */
+public interface PropertiesListener {
+	/**
+	 * Called before a value is parsed.
+	 * @param propertyName the name of the property
+	 */
+	void parseStarted(String propertyName);
+
+	/**
+	 * Called once a value has been parsed successfully.
+	 * @param propertyName the name of the property
+	 * @param nanos how long parsing took
+	 */
+	void parseEnded(String propertyName, long nanos);
+
+	/**
+	 * Called once a parsed value has been written to the object.
+	 * @param propertyName the name of the property
+	 * @param nanos how long its setter (or the field write) took
+	 */
+	void setterInvoked(String propertyName, long nanos);
+
+	/**
+	 * Called once a value has been read from the object.
+	 * @param propertyName the name of the property
+	 * @param nanos how long its getter (or the field read) took
+	 */
+	void getterInvoked(String propertyName, long nanos);
+
+	/**
+	 * Called right before the handler throws because of a property.
+	 * @param propertyName the name of the property
+	 * @param failure the exception about to be thrown: a
+	 * 	{@link PropertyMissingException}, {@link PropertyParserException} or
+	 * 	{@link PropertyInvocationTargetException}
+	 */
+	void failed(String propertyName, Exception failure);
+}
@@ -1,371 +1,615 @@
-package util.properties;
-
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.ParameterizedType;
-import java.lang.reflect.Type;
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
-/**
- * @author Louis Acresti
- *
- */
-@SuppressWarnings("unused")
-class PropertiesParser {
-	
-	@SuppressWarnings("unchecked")
-	public static Object parse(Type type, String string) 
-		throws ClassCastException,
-			   InvocationTargetException {
-		if(type == null) return null;
-		
-		Method parser;
-		if(type instanceof ParameterizedType) {
-			// Advanced: we have something like Set<> or List<>
-			ParameterizedType ptype = (ParameterizedType)type;
-			
-			Type[] typeParams = ptype.getActualTypeArguments();
-			if(typeParams.length != 1) {
-				// Ensure that this is a single-type-param type (ie Set<String>)
-				return null;
-			} else if(!(typeParams[0] instanceof Class<?>)) {
-				// Ensure that the type parameter is _not_ a primitive type,
-				//  as they have allocation issues.
-				return null;
-			}
-			
-			Class<?> rawType = (Class<?>)ptype.getRawType(); // Set, List, etc.
-			String specialName = ((Class<?>)typeParams[0]).getSimpleName()
-								 + rawType.getSimpleName();
-			
-			Type specialType = getSpecialType(specialName);
-			if(rawType == Set.class) {
-				@SuppressWarnings("rawtypes")
-				Set set =
-					parseCollection(string, (Class<?>)typeParams[0], "Set");
-				return set;
-			} else if(rawType == List.class) {
-				@SuppressWarnings("rawtypes")
-				List list =
-					parseCollection(string, (Class<?>)typeParams[0], "List");
-				return list;
-			} else {
-				parser = null;
-			}
-		} else {
-			// Basic: a simple primitive.
-			parser = parserMap.get(type);
-		}
-		
-		if(parser != null) {
-			try {
-				return parser.invoke(null, string);
-			} catch (IllegalArgumentException e) {
-				e.printStackTrace(); // Should never happen.
-			} catch (IllegalAccessException e) {
-				e.printStackTrace(); // Should never happen.
-			}
-		} else {
-			// No parser is found; let's try to cast the string directly:
-			return ((Class<?>)type).cast(string);
-		}
-		return null;
-	}
-	
-	///// Kludge kludge kludge: ////////////////////////////////////////////////
-	// Unfortunately, Java's "erasure" prevents us from being able to specify
-	//  generic types at runtime (that is to say, "Set<String>" becomes "Set" at 
-	//	runtime), but there's a workaround: if you have a field or a member
-	//  method whose argument or return value is of the specific type you need,
-	//  you can access it using the "getGenericType" method on the corresponding
-	//  Field object using Java's reflection library, meaning you *can* specify
-	//  this generic type at runtime, but only by pointing to predefined
-	//  instances that were specified at compiletime.
-	//
-	// So in order to specify such types, I created a bunch of unusable fields 
-	//  and return a call to "getGenericType()" on their corresponding Field
-	//  objects in a method called "getSpecialType" which accepts a string that
-	//  matches the type's Field name (following a convention Type<Subtype> -> 
-	//  "SubtypeType"). This isn't meant to be used outside of the
-	//  PropertiesParser package.
-	static Type getSpecialType(String name) {
-		try {
-			return (Type)PropertiesParser.class.getDeclaredField(name)
-										 	   .getGenericType();
-		} catch (NoSuchFieldException e) {
-			return null;
-		}
-	}
-	
-	private static final Set<String> StringSet = null;
-	private static final Set<Byte> ByteSet = null;
-	private static final Set<Short> ShortSet = null;
-	private static final Set<Integer> IntegerSet = null;
-	private static final Set<Long> LongSet = null;
-	private static final Set<Float> FloatSet = null;
-	private static final Set<Double> DoubleSet = null;
-	
-	private static final List<String> StringList = null;
-	private static final List<Byte> ByteList = null;
-	private static final List<Short> ShortList = null;
-	private static final List<Integer> IntegerList = null;
-	private static final List<Long> LongList = null;
-	private static final List<Float> FloatList = null;
-	private static final List<Double> DoubleList = null;
-	
-	static final Map<Type,Method> allocatorMap = new HashMap<Type,Method>();
-	static {
-		try {
-			allocatorMap.put(String.class,
-					PropertiesParser.class.getDeclaredMethod("newStringArray",int.class));
-			allocatorMap.put(Boolean.class,
-					PropertiesParser.class.getDeclaredMethod("newBooleanArray",int.class));
-			allocatorMap.put(Byte.class,
-					PropertiesParser.class.getDeclaredMethod("newByteArray",int.class));
-			allocatorMap.put(Short.class,
-					PropertiesParser.class.getDeclaredMethod("newShortArray",int.class));
-			allocatorMap.put(Integer.class,
-					PropertiesParser.class.getDeclaredMethod("newIntegerArray",int.class));
-			allocatorMap.put(Long.class,
-					PropertiesParser.class.getDeclaredMethod("newLongArray",int.class));
-			allocatorMap.put(Float.class,
-					PropertiesParser.class.getDeclaredMethod("newFloatArray",int.class));
-			allocatorMap.put(Double.class,
-					PropertiesParser.class.getDeclaredMethod("newDoubleArray",int.class));
-
-			allocatorMap.put(getSpecialType("StringSet"),
-					PropertiesParser.class.getDeclaredMethod("newStringSet",int.class));
-			allocatorMap.put(getSpecialType("ByteSet"),
-					PropertiesParser.class.getDeclaredMethod("newByteSet",int.class));
-			allocatorMap.put(getSpecialType("ShortSet"),
-					PropertiesParser.class.getDeclaredMethod("newShortSet",int.class));
-			allocatorMap.put(getSpecialType("IntegerSet"),
-					PropertiesParser.class.getDeclaredMethod("newIntegerSet",int.class));
-			allocatorMap.put(getSpecialType("LongSet"),
-					PropertiesParser.class.getDeclaredMethod("newLongSet",int.class));
-			allocatorMap.put(getSpecialType("FloatSet"),
-					PropertiesParser.class.getDeclaredMethod("newFloatSet",int.class));
-			allocatorMap.put(getSpecialType("DoubleSet"),
-					PropertiesParser.class.getDeclaredMethod("newDoubleSet",int.class));
-			
-			allocatorMap.put(getSpecialType("StringList"),
-					PropertiesParser.class.getDeclaredMethod("newStringList",int.class));
-			allocatorMap.put(getSpecialType("BooleanList"),
-					PropertiesParser.class.getDeclaredMethod("newBooleanList",int.class));
-			allocatorMap.put(getSpecialType("ByteList"),
-					PropertiesParser.class.getDeclaredMethod("newByteList",int.class));
-			allocatorMap.put(getSpecialType("ShortList"),
-					PropertiesParser.class.getDeclaredMethod("newShortList",int.class));
-			allocatorMap.put(getSpecialType("IntegerList"),
-					PropertiesParser.class.getDeclaredMethod("newIntegerList",int.class));
-			allocatorMap.put(getSpecialType("LongList"),
-					PropertiesParser.class.getDeclaredMethod("newLongList",int.class));
-			allocatorMap.put(getSpecialType("FloatList"),
-					PropertiesParser.class.getDeclaredMethod("newFloatList",int.class));
-			allocatorMap.put(getSpecialType("DoubleList"),
-					PropertiesParser.class.getDeclaredMethod("newDoubleList",int.class));
-		} catch (NoSuchMethodException e) {
-			// Should never happen.
-			e.printStackTrace();
-		}
-	}
-	
-	// Allocators required for generic code:
-	// ARRAYS:
-	private static String[] newStringArray(int length) { return new String[length]; }
-	private static Boolean[] newBooleanArray(int length) { return new Boolean[length]; }
-	private static Byte[] newByteArray(int length) { return new Byte[length]; }
-	private static Short[] newShortArray(int length) { return new Short[length]; }
-	private static Integer[] newIntegerArray(int length) { return new Integer[length]; }
-	private static Long[] newLongArray(int length) { return new Long[length]; }
-	private static Float[] newFloatArray(int length) { return new Float[length]; }
-	private static Double[] newDoubleArray(int length) { return new Double[length]; }
-	
-	// SETS:
-	private static Set<String> newStringSet(int length) { return new HashSet<String>(); }
-	private static Set<Byte> newByteSet(int length) { return new HashSet<Byte>(); }
-	private static Set<Short> newShortSet(int length) { return new HashSet<Short>(); }
-	private static Set<Integer> newIntegerSet(int length) { return new HashSet<Integer>(); }
-	private static Set<Long> newLongSet(int length) { return new HashSet<Long>(); }
-	private static Set<Float> newFloatSet(int length) { return new HashSet<Float>(); }
-	private static Set<Double> newDoubleSet(int length) { return new HashSet<Double>(); }
-	
-	// LISTS:
-	private static List<String> newStringList(int length) { return new ArrayList<String>(); }
-	private static List<Boolean> newBooleanList(int length) { return new ArrayList<Boolean>(); }
-	private static List<Byte> newByteList(int length) { return new ArrayList<Byte>(); }
-	private static List<Short> newShortList(int length) { return new ArrayList<Short>(); }
-	private static List<Integer> newIntegerList(int length) { return new ArrayList<Integer>(); }
-	private static List<Long> newLongList(int length) { return new ArrayList<Long>(); }
-	private static List<Float> newFloatList(int length) { return new ArrayList<Float>(); }
-	private static List<Double> newDoubleList(int length) { return new ArrayList<Double>(); }
-	//
-	////// END Kludge kludge kludge. ///////////////////////////////////////////
-	
-	static final Map<Type,Method> parserMap = new HashMap<Type,Method>();
-	static {
-		try {
-			parserMap.put(boolean.class,Boolean.class.getMethod("parseBoolean", String.class));
-			parserMap.put(Boolean.class, Boolean.class.getMethod("parseBoolean", String.class));
-			parserMap.put(byte.class, Byte.class.getMethod("parseByte", String.class));
-			parserMap.put(Byte.class, Byte.class.getMethod("parseByte", String.class));
-			parserMap.put(short.class, Short.class.getMethod("parseShort", String.class));
-			parserMap.put(Short.class, Short.class.getMethod("parseShort", String.class));
-			parserMap.put(int.class, Integer.class.getMethod("parseInt", String.class));
-			parserMap.put(Integer.class, Integer.class.getMethod("parseInt", String.class));
-			parserMap.put(long.class, Long.class.getMethod("parseLong", String.class));
-			parserMap.put(Long.class, Long.class.getMethod("parseLong", String.class));
-			parserMap.put(float.class, Float.class.getMethod("parseFloat", String.class));
-			parserMap.put(Float.class, Float.class.getMethod("parseFloat", String.class));
-			parserMap.put(double.class, Double.class.getMethod("parseDouble", String.class));
-			parserMap.put(Double.class, Double.class.getMethod("parseDouble", String.class));
-			
-			// Array types:
-			parserMap.put(String[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseStringArray", String.class));
-			parserMap.put(Boolean[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseBooleanArray", String.class));
-			parserMap.put(Byte[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseByteArray", String.class));
-			parserMap.put(Short[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseShortArray", String.class));
-			parserMap.put(Integer[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseIntegerArray", String.class));
-			parserMap.put(Long[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseLongArray", String.class));
-			parserMap.put(Float[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseFloatArray", String.class));
-			parserMap.put(Double[].class, 
-					PropertiesParser.class.getDeclaredMethod("parseDoubleArray", String.class));
-		} catch (NoSuchMethodException e) {
-			// This should never happen.
-			e.printStackTrace();
-		}
-	}
-	
-	@SuppressWarnings("unchecked")
-	private static <T> T[] parseArray(String string, Class<T> type)
-			throws InvocationTargetException {
-		String[] splitString;
-		Method parser;
-		Method allocator;
-		Integer size;
-		
-		if(string == null || string.length() == 0) {
-			size = 0;
-			splitString = new String[0];
-		} else {
-			splitString = string.split(",");
-			size = splitString.length;
-		}
-		
-		allocator = allocatorMap.get(type);
-		parser = parserMap.get(type);
-		
-		T[] array = null;
-		try {
-			array = (T[]) allocator.invoke(null, splitString.length);
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			e.printStackTrace();
-		} catch (InvocationTargetException e) {
-			e.printStackTrace();
-		}
-
-		int i=0;
-		for(String sub : splitString) {
-			if(sub.length() == 0) {
-				break; // Skip over empties
-			}
-			
-			try {
-				T obj;
-				if(parser == null) {
-					obj = type.cast(sub); // Attempt to cast to T
-				} else {
-					obj = type.cast(parser.invoke(type, sub));
-				}
-				array[i] = obj;
-				++i;
-			} catch (IllegalArgumentException e) {
-				e.printStackTrace();
-			} catch (IllegalAccessException e) {
-				e.printStackTrace();
-			}
-		}
-		
-		return array;
-	}
-	
-	@SuppressWarnings("unchecked")
-	private static <E, T extends Collection<E>> T parseCollection(
-			String string, Class<E> type, String collectionType)
-			throws InvocationTargetException {
-		Type t = getSpecialType(type.getSimpleName() + collectionType);
-		Method allocator = allocatorMap.get(t);
-		E[] array = parseArray(string, type);
-		T collection = null;
-		try {
-			collection = (T)allocator.invoke(null, array.length);
-		} catch (IllegalArgumentException e) {
-			e.printStackTrace();
-		} catch (IllegalAccessException e) {
-			e.printStackTrace();
-		} catch (InvocationTargetException e) {
-			e.printStackTrace();
-		}
-		
-		for(E element : array) {
-			collection.add(element);
-		}
-		
-		return collection;
-	}
-	
-	private static String[] parseStringArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, String.class);
-	}
-
-	private static Boolean[] parseBooleanArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Boolean.class);
-	}
-
-	private static Byte[] parseByteArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Byte.class);
-	}
-
-	private static Short[] parseShortArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Short.class);
-	}
-
-	private static Integer[] parseIntegerArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Integer.class);
-	}
-
-	private static Long[] parseLongArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Long.class);
-	}
-
-	private static Float[] parseFloatArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Float.class);
-	}
-
-	private static Double[] parseDoubleArray(String string)
-			throws InvocationTargetException {
-		return PropertiesParser.parseArray(string, Double.class);
-	}
-}
+package util.properties;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves the {@link PropertyConverter} for a property's type, and parses
+ *  strings with it.
+ * 
+ * @author Louis Acresti
+ *
+ */
+@SuppressWarnings("unused")
+class PropertiesParser {
+	
+	public static Object parse(Type type, String string) 
+		throws ClassCastException,
+			   InvocationTargetException {
+		if(type == null) return null;
+		
+		return converterFor(type).convert(string);
+	}
+	
+	/**
+	 * @param type the type of a property
+	 * @return a converter that parses strings into the given type; types with
+	 * 	no dedicated converter are cast from the string directly
+	 */
+	static PropertyConverter converterFor(Type type) {
+		if(type instanceof ParameterizedType) {
+			// Advanced: we have something like Set<> or List<>
+			ParameterizedType ptype = (ParameterizedType)type;
+			
+			Type[] typeParams = ptype.getActualTypeArguments();
+			if(typeParams.length != 1) {
+				// Ensure that this is a single-type-param type (ie Set<String>)
+				return NULL_CONVERTER;
+			} else if(!(typeParams[0] instanceof Class<?>)) {
+				// Ensure that the type parameter is _not_ a primitive type,
+				//  as they have allocation issues.
+				return NULL_CONVERTER;
+			}
+			
+			Class<?> rawType = (Class<?>)ptype.getRawType(); // Set, List, etc.
+			Class<?> elementType = (Class<?>)typeParams[0];
+			if(rawType == Set.class) {
+				return new SetConverter(elementConverterFor(elementType));
+			} else if(rawType == List.class) {
+				return new ListConverter(elementConverterFor(elementType));
+			} else {
+				return new CastConverter(rawType);
+			}
+		}
+		
+		// Basic: a simple primitive, or an array of them.
+		PropertyConverter converter = converterMap.get(type);
+		if(converter != null) {
+			return converter;
+		} else if(type instanceof Class<?>) {
+			// No parser is found; let's try to cast the string directly:
+			return new CastConverter((Class<?>)type);
+		} else {
+			return new CastConverter(null);
+		}
+	}
+	
+	private static PropertyConverter elementConverterFor(Class<?> type) {
+		PropertyConverter converter = converterMap.get(type);
+		return (converter == null) ? new CastConverter(type) : converter;
+	}
+	
+	///// Kludge kludge kludge: ////////////////////////////////////////////////
+	// Unfortunately, Java's "erasure" prevents us from being able to specify
+	//  generic types at runtime (that is to say, "Set<String>" becomes "Set" at 
+	//	runtime), but there's a workaround: if you have a field or a member
+	//  method whose argument or return value is of the specific type you need,
+	//  you can access it using the "getGenericType" method on the corresponding
+	//  Field object using Java's reflection library, meaning you *can* specify
+	//  this generic type at runtime, but only by pointing to predefined
+	//  instances that were specified at compiletime.
+	//
+	// So in order to specify such types, I created a bunch of unusable fields 
+	//  and return a call to "getGenericType()" on their corresponding Field
+	//  objects in a method called "getSpecialType" which accepts a string that
+	//  matches the type's Field name (following a convention Type<Subtype> -> 
+	//  "SubtypeType"). This isn't meant to be used outside of the
+	//  PropertiesParser package.
+	static Type getSpecialType(String name) {
+		try {
+			return (Type)PropertiesParser.class.getDeclaredField(name)
+										 	   .getGenericType();
+		} catch (NoSuchFieldException e) {
+			return null;
+		}
+	}
+	
+	private static final Set<String> StringSet = null;
+	private static final Set<Boolean> BooleanSet = null;
+	private static final Set<Byte> ByteSet = null;
+	private static final Set<Short> ShortSet = null;
+	private static final Set<Integer> IntegerSet = null;
+	private static final Set<Long> LongSet = null;
+	private static final Set<Float> FloatSet = null;
+	private static final Set<Double> DoubleSet = null;
+	
+	private static final List<String> StringList = null;
+	private static final List<Boolean> BooleanList = null;
+	private static final List<Byte> ByteList = null;
+	private static final List<Short> ShortList = null;
+	private static final List<Integer> IntegerList = null;
+	private static final List<Long> LongList = null;
+	private static final List<Float> FloatList = null;
+	private static final List<Double> DoubleList = null;
+	//
+	////// END Kludge kludge kludge. ///////////////////////////////////////////
+	
+	/**
+	 * Converters whose values are immutable.
+	 */
+	private static abstract class ScalarConverter extends PropertyConverter {
+		@Override
+		boolean isImmutable() {
+			return true;
+		}
+	}
+	
+	private static final PropertyConverter BOOLEAN_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Boolean.valueOf(Boolean.parseBoolean(string));
+		}
+		
+		@Override
+		Object convert(String string, int begin, int end) {
+			return Boolean.valueOf(parseBoolean(string, begin, end));
+		}
+	};
+	
+	private static final PropertyConverter BYTE_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Byte.valueOf(Byte.parseByte(string));
+		}
+		
+		@Override
+		Object convert(String string, int begin, int end) {
+			return Byte.valueOf((byte)parseInt(string, begin, end,
+					Byte.MIN_VALUE, Byte.MAX_VALUE));
+		}
+	};
+	
+	private static final PropertyConverter SHORT_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Short.valueOf(Short.parseShort(string));
+		}
+		
+		@Override
+		Object convert(String string, int begin, int end) {
+			return Short.valueOf((short)parseInt(string, begin, end,
+					Short.MIN_VALUE, Short.MAX_VALUE));
+		}
+	};
+	
+	private static final PropertyConverter INTEGER_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Integer.valueOf(Integer.parseInt(string));
+		}
+		
+		@Override
+		Object convert(String string, int begin, int end) {
+			return Integer.valueOf(Integer.parseInt(string, begin, end, 10));
+		}
+	};
+	
+	private static final PropertyConverter LONG_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Long.valueOf(Long.parseLong(string));
+		}
+		
+		@Override
+		Object convert(String string, int begin, int end) {
+			return Long.valueOf(Long.parseLong(string, begin, end, 10));
+		}
+	};
+	
+	private static final PropertyConverter FLOAT_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Float.valueOf(Float.parseFloat(string));
+		}
+	};
+	
+	private static final PropertyConverter DOUBLE_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return Double.valueOf(Double.parseDouble(string));
+		}
+	};
+	
+	private static final PropertyConverter STRING_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return string;
+		}
+	};
+	
+	/**
+	 * Used for unsupported generic types; always converts to null.
+	 */
+	private static final PropertyConverter NULL_CONVERTER
+		= new ScalarConverter() {
+		@Override
+		Object convert(String string) {
+			return null;
+		}
+	};
+	
+	static final Map<Type,PropertyConverter> converterMap
+		= new HashMap<Type,PropertyConverter>();
+	static {
+		converterMap.put(boolean.class, BOOLEAN_CONVERTER);
+		converterMap.put(Boolean.class, BOOLEAN_CONVERTER);
+		converterMap.put(byte.class, BYTE_CONVERTER);
+		converterMap.put(Byte.class, BYTE_CONVERTER);
+		converterMap.put(short.class, SHORT_CONVERTER);
+		converterMap.put(Short.class, SHORT_CONVERTER);
+		converterMap.put(int.class, INTEGER_CONVERTER);
+		converterMap.put(Integer.class, INTEGER_CONVERTER);
+		converterMap.put(long.class, LONG_CONVERTER);
+		converterMap.put(Long.class, LONG_CONVERTER);
+		converterMap.put(float.class, FLOAT_CONVERTER);
+		converterMap.put(Float.class, FLOAT_CONVERTER);
+		converterMap.put(double.class, DOUBLE_CONVERTER);
+		converterMap.put(Double.class, DOUBLE_CONVERTER);
+		converterMap.put(String.class, STRING_CONVERTER);
+		
+		// Array types:
+		putArrayConverter(String.class);
+		putArrayConverter(Boolean.class);
+		putArrayConverter(Byte.class);
+		putArrayConverter(Short.class);
+		putArrayConverter(Integer.class);
+		putArrayConverter(Long.class);
+		putArrayConverter(Float.class);
+		putArrayConverter(Double.class);
+		
+		// Primitive array types (parsed without boxing any element):
+		converterMap.put(boolean[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new boolean[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((boolean[])array)[i] = parseBoolean(string, begin, end);
+			}
+		});
+		converterMap.put(byte[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new byte[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((byte[])array)[i] = (byte)parseInt(string, begin, end,
+						Byte.MIN_VALUE, Byte.MAX_VALUE);
+			}
+		});
+		converterMap.put(short[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new short[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((short[])array)[i] = (short)parseInt(string, begin, end,
+						Short.MIN_VALUE, Short.MAX_VALUE);
+			}
+		});
+		converterMap.put(char[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new char[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				if(end - begin != 1) {
+					throw new IllegalArgumentException("'"
+							+ string.substring(begin, end)
+							+ "' is not a single character");
+				}
+				((char[])array)[i] = string.charAt(begin);
+			}
+		});
+		converterMap.put(int[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new int[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((int[])array)[i] = Integer.parseInt(string, begin, end, 10);
+			}
+		});
+		converterMap.put(long[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new long[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((long[])array)[i] = Long.parseLong(string, begin, end, 10);
+			}
+		});
+		converterMap.put(float[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new float[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((float[])array)[i]
+					= Float.parseFloat(string.substring(begin, end));
+			}
+		});
+		converterMap.put(double[].class, new ScanningConverter() {
+			@Override
+			Object newContainer(int length) {
+				return new double[length];
+			}
+			
+			@Override
+			void add(Object array, int i, String string, int begin, int end) {
+				((double[])array)[i]
+					= Double.parseDouble(string.substring(begin, end));
+			}
+		});
+		
+		// Primitive collection types:
+		converterMap.put(IntArrayList.class, new ScanningConverter() {
+			@Override
+			Object newContainer(int size) {
+				return new IntArrayList(size);
+			}
+			
+			@Override
+			void add(Object list, int i, String string, int begin, int end) {
+				((IntArrayList)list).add(
+						Integer.parseInt(string, begin, end, 10));
+			}
+		});
+		converterMap.put(LongArrayList.class, new ScanningConverter() {
+			@Override
+			Object newContainer(int size) {
+				return new LongArrayList(size);
+			}
+			
+			@Override
+			void add(Object list, int i, String string, int begin, int end) {
+				((LongArrayList)list).add(
+						Long.parseLong(string, begin, end, 10));
+			}
+		});
+		converterMap.put(DoubleArrayList.class, new ScanningConverter() {
+			@Override
+			Object newContainer(int size) {
+				return new DoubleArrayList(size);
+			}
+			
+			@Override
+			void add(Object list, int i, String string, int begin, int end) {
+				((DoubleArrayList)list).add(
+						Double.parseDouble(string.substring(begin, end)));
+			}
+		});
+		converterMap.put(IntHashSet.class, new ScanningConverter() {
+			@Override
+			Object newContainer(int size) {
+				return new IntHashSet(size);
+			}
+			
+			@Override
+			void add(Object set, int i, String string, int begin, int end) {
+				((IntHashSet)set).add(
+						Integer.parseInt(string, begin, end, 10));
+			}
+		});
+		converterMap.put(LongHashSet.class, new ScanningConverter() {
+			@Override
+			Object newContainer(int size) {
+				return new LongHashSet(size);
+			}
+			
+			@Override
+			void add(Object set, int i, String string, int begin, int end) {
+				((LongHashSet)set).add(
+						Long.parseLong(string, begin, end, 10));
+			}
+		});
+	}
+	
+	private static void putArrayConverter(Class<?> elementType) {
+		converterMap.put(Array.newInstance(elementType, 0).getClass(),
+				new ArrayConverter(elementType, converterMap.get(elementType)));
+	}
+	
+	private static final class CastConverter extends PropertyConverter {
+		private final Class<?> type;
+		
+		CastConverter(Class<?> type) {
+			this.type = type;
+		}
+		
+		@Override
+		Object convert(String string) {
+			if(type == null) {
+				throw new ClassCastException("Cannot cast a String to a "
+						+ "generic type");
+			}
+			return type.cast(string);
+		}
+	}
+	
+	/**
+	 * Scans a comma-separated string once, converting each non-empty element
+	 * 	in place and storing it straight into the container (an array or
+	 * 	collection) it builds. The container is sized up front from an
+	 * 	allocation-free count of the elements.
+	 */
+	private static abstract class ScanningConverter extends PropertyConverter {
+		
+		/**
+		 * @param size the number of elements that will be added
+		 */
+		abstract Object newContainer(int size);
+		
+		abstract void add(Object container, int i, String string,
+				int begin, int end);
+		
+		@Override
+		Object convert(String string) {
+			Object container = newContainer(countElements(string));
+			
+			int i=0;
+			int begin=0;
+			int length = (string == null) ? -1 : string.length();
+			while(begin <= length) {
+				int end = string.indexOf(',', begin);
+				if(end < 0) {
+					end = length;
+				}
+				if(end > begin) { // Skip over empties
+					add(container, i++, string, begin, end);
+				}
+				begin = end + 1;
+			}
+			
+			return container;
+		}
+		
+		/**
+		 * Copies arrays, <code>ArrayList</code>s and <code>HashSet</code>s
+		 * 	without converting their elements again; their elements are all
+		 * 	primitives or immutable.
+		 */
+		@Override
+		Object copy(Object value, String string) {
+			if(value.getClass().isArray()) {
+				int length = Array.getLength(value);
+				Object copy = Array.newInstance(
+						value.getClass().getComponentType(), length);
+				System.arraycopy(value, 0, copy, 0, length);
+				return copy;
+			} else if(value instanceof ArrayList) {
+				return new ArrayList<Object>((ArrayList<?>)value);
+			} else if(value instanceof HashSet) {
+				return new HashSet<Object>((HashSet<?>)value);
+			}
+			return super.copy(value, string);
+		}
+	}
+	
+	private static final class ArrayConverter extends ScanningConverter {
+		private final Class<?> elementType;
+		private final PropertyConverter elementConverter;
+		
+		ArrayConverter(Class<?> elementType,
+				PropertyConverter elementConverter) {
+			this.elementType = elementType;
+			this.elementConverter = elementConverter;
+		}
+		
+		@Override
+		Object newContainer(int size) {
+			return Array.newInstance(elementType, size);
+		}
+		
+		@Override
+		void add(Object array, int i, String string, int begin, int end) {
+			((Object[])array)[i] 
+				= elementConverter.convert(string, begin, end);
+		}
+	}
+	
+	private static final class SetConverter extends ScanningConverter {
+		private final PropertyConverter elementConverter;
+		
+		SetConverter(PropertyConverter elementConverter) {
+			this.elementConverter = elementConverter;
+		}
+		
+		@Override
+		Object newContainer(int size) {
+			return new HashSet<Object>(Math.max((int)(size / .75f) + 1, 16));
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		void add(Object set, int i, String string, int begin, int end) {
+			((Set<Object>)set).add(
+					elementConverter.convert(string, begin, end));
+		}
+	}
+	
+	private static final class ListConverter extends ScanningConverter {
+		private final PropertyConverter elementConverter;
+		
+		ListConverter(PropertyConverter elementConverter) {
+			this.elementConverter = elementConverter;
+		}
+		
+		@Override
+		Object newContainer(int size) {
+			return new ArrayList<Object>(size);
+		}
+		
+		@SuppressWarnings("unchecked")
+		@Override
+		void add(Object list, int i, String string, int begin, int end) {
+			((List<Object>)list).add(
+					elementConverter.convert(string, begin, end));
+		}
+	}
+	
+	/**
+	 * @return the number of non-empty elements in a comma-separated string
+	 */
+	static int countElements(String string) {
+		if(string == null) {
+			return 0;
+		}
+		
+		int count=0;
+		int begin=0;
+		int length = string.length();
+		while(begin <= length) {
+			int end = string.indexOf(',', begin);
+			if(end < 0) {
+				end = length;
+			}
+			if(end > begin) {
+				++count;
+			}
+			begin = end + 1;
+		}
+		return count;
+	}
+	
+	/**
+	 * Like {@link Boolean#parseBoolean}, but on part of a string.
+	 */
+	static boolean parseBoolean(String string, int begin, int end) {
+		return end - begin == 4
+			&& string.regionMatches(true, begin, "true", 0, 4);
+	}
+	
+	/**
+	 * Like {@link Integer#parseInt}, but on part of a string and with a
+	 * 	range check for narrower types.
+	 */
+	static int parseInt(String string, int begin, int end, int min, int max) {
+		int value = Integer.parseInt(string, begin, end, 10);
+		if(value < min || value > max) {
+			throw new NumberFormatException("Value out of range. Value:\""
+					+ string.substring(begin, end) + "\"");
+		}
+		return value;
+	}
+}
@@ -0,0 +1,487 @@
+package util.properties;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * <p>
+ * An annotation processor that checks the use of {@link Property},
+ *  {@link PropertyGetter}, and {@link PropertySetter} at compile time, and
+ *  generates a reflection-free {@link PropertiesBinder} for every class that
+ *  uses them.
+ * </p>
+ *
+ * <p>
+ * Properties that {@link PropertiesHandler} would reject at runtime with a
+ *  {@link PropertyInaccessibleException} (a non-public field without a getter
+ *  or setter, a getter that takes arguments, and so on) are reported as
+ *  compile errors instead.
+ * </p>
+ *
+ * <p>
+ * The processor is registered in
+ *  <code>META-INF/services/javax.annotation.processing.Processor</code>, so
+ *  <code>javac</code> runs it automatically whenever this library is on the
+ *  classpath. Binders are not generated for local, anonymous, or private
+ *  classes; those keep using reflection at runtime.
+ * </p>
+ *
+ * @see PropertiesBinder
+ * @author Louis Acresti
+ */
+@SupportedAnnotationTypes({
+	"util.properties.Property",
+	"util.properties.PropertyGetter",
+	"util.properties.PropertySetter"
+})
+public class PropertiesProcessor extends AbstractProcessor {
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations,
+			RoundEnvironment roundEnv) {
+		Set<TypeElement> types = new LinkedHashSet<TypeElement>();
+
+		for(Element element : roundEnv.getElementsAnnotatedWith(Property.class)) {
+			types.add((TypeElement)element.getEnclosingElement());
+		}
+		for(Element element
+				: roundEnv.getElementsAnnotatedWith(PropertyGetter.class)) {
+			types.add((TypeElement)element.getEnclosingElement());
+		}
+		for(Element element
+				: roundEnv.getElementsAnnotatedWith(PropertySetter.class)) {
+			types.add((TypeElement)element.getEnclosingElement());
+		}
+
+		for(TypeElement type : types) {
+			TypeBinding binding = bind(type);
+			if(binding != null && isBinderAccessible(type)) {
+				generateBinder(type, binding);
+			}
+		}
+
+		// Other processors may want to see these annotations too.
+		return false;
+	}
+
+	/**
+	 * The compile-time equivalent of {@link PropertiesBinding}.
+	 */
+	private static final class TypeBinding {
+		final Set<String> propertyNames = new LinkedHashSet<String>();
+		final Map<String,VariableElement> fieldMap
+			= new LinkedHashMap<String,VariableElement>();
+		final Map<String,ExecutableElement> getterMap
+			= new LinkedHashMap<String,ExecutableElement>();
+		final Map<String,ExecutableElement> setterMap
+			= new LinkedHashMap<String,ExecutableElement>();
+		final Map<String,TypeMirror> propertyTypes
+			= new LinkedHashMap<String,TypeMirror>();
+	}
+
+	/**
+	 * Resolves the properties of a type following the same rules as
+	 * 	{@link PropertiesBinding}, reporting any problem as a compile error.
+	 * @return the binding, or null if there were errors
+	 */
+	private TypeBinding bind(TypeElement type) {
+		TypeBinding binding = new TypeBinding();
+		List<ExecutableElement> publicMethods = getPublicMethods(type);
+		boolean valid = true;
+
+		for(ExecutableElement method : publicMethods) {
+			PropertySetter somePropertySetter
+				= method.getAnnotation(PropertySetter.class);
+			if(somePropertySetter != null) {
+				String propName = somePropertySetter.name().equals("-guess-")
+					? guessNameFromPrefixAndName("set",
+							method.getSimpleName().toString())
+					: somePropertySetter.name();
+				binding.setterMap.put(propName, method);
+				binding.propertyNames.add(propName);
+			}
+
+			PropertyGetter somePropertyGetter
+				= method.getAnnotation(PropertyGetter.class);
+			if(somePropertyGetter != null) {
+				String propName = somePropertyGetter.name().equals("-guess-")
+					? guessNameFromPrefixAndName("get",
+							method.getSimpleName().toString())
+					: somePropertyGetter.name();
+				binding.getterMap.put(propName, method);
+				binding.propertyNames.add(propName);
+			}
+		}
+
+		for(Element member : type.getEnclosedElements()) {
+			Property someProperty = member.getAnnotation(Property.class);
+			if(member.getKind() != ElementKind.FIELD || someProperty == null) {
+				continue;
+			}
+
+			VariableElement field = (VariableElement)member;
+			boolean publicField = field.getModifiers().contains(Modifier.PUBLIC);
+			String propName = someProperty.name().equals("-inherit-")
+							 ? field.getSimpleName().toString()
+							 : someProperty.name();
+
+			binding.fieldMap.put(propName, field);
+			binding.propertyNames.add(propName);
+
+			if(binding.setterMap.get(propName) == null) {
+				String setterName = someProperty.setter().equals("-guess-")
+					? PropertiesHandler.getMethodNameFromPropertyName("set",
+							propName)
+					: someProperty.setter();
+				ExecutableElement setter
+					= resolveMethod(publicMethods, setterName);
+
+				if(setter == null && !publicField) {
+					error(field, "Could not resolve a setter for the property "
+							+ "named '" + propName + "'\n"
+							+ PropertyInaccessibleException
+								.helpMsg("set", propName));
+					valid = false;
+				} else if(setter == null
+						&& field.getModifiers().contains(Modifier.FINAL)) {
+					error(field, "The property named '" + propName + "' is a "
+							+ "final field without a setter, so it can never "
+							+ "be set.");
+					valid = false;
+				}
+				binding.setterMap.put(propName, setter);
+			}
+
+			if(binding.getterMap.get(propName) == null) {
+				String getterName = someProperty.getter().equals("-guess-")
+					? PropertiesHandler.getMethodNameFromPropertyName("get",
+							propName)
+					: someProperty.getter();
+				ExecutableElement getter
+					= resolveMethod(publicMethods, getterName);
+
+				if(getter == null && !publicField) {
+					error(field, "Could not resolve a getter for the property "
+							+ "named '" + propName + "'\n"
+							+ PropertyInaccessibleException
+								.helpMsg("get", propName));
+					valid = false;
+				}
+				binding.getterMap.put(propName, getter);
+			}
+		}
+
+		for(String propName : binding.propertyNames) {
+			ExecutableElement getter = binding.getterMap.get(propName);
+			ExecutableElement setter = binding.setterMap.get(propName);
+			VariableElement field = binding.fieldMap.get(propName);
+
+			if(setter != null && setter.getParameters().size() != 1) {
+				error(errorSite(type, setter), "The setter for the '"
+						+ propName + "' property with the name '"
+						+ setter.getSimpleName() + "' accepts an unexpected "
+						+ "number of parameters ("
+						+ setter.getParameters().size() + ").\n"
+						+ "You must specify a setter that accepts one (1) "
+						+ "parameter or use @Property on a public field.");
+				valid = false;
+			}
+
+			if(getter != null && getter.getParameters().size() != 0) {
+				error(errorSite(type, getter), "The getter for the '"
+						+ propName + "' property with the name '"
+						+ getter.getSimpleName() + "' accepts an unexpected "
+						+ "number of parameters ("
+						+ getter.getParameters().size() + ").\n"
+						+ "You must specify a getter that accepts zero (0) "
+						+ "parameters or use @Property on a public field.");
+				valid = false;
+			}
+
+			if(getter != null) {
+				binding.propertyTypes.put(propName, getter.getReturnType());
+			} else if(field != null) {
+				binding.propertyTypes.put(propName, field.asType());
+			} else {
+				error(errorSite(type, setter), "Unable to determine the type "
+						+ "of the property named '" + propName + "'.\n"
+						+ PropertyInaccessibleException.helpMsg("get",
+								propName));
+				valid = false;
+			}
+		}
+
+		return valid ? binding : null;
+	}
+
+	private void generateBinder(TypeElement type, TypeBinding binding) {
+		PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+		String packageName = pkg.getQualifiedName().toString();
+		String typeName = type.getQualifiedName().toString();
+		String binaryName = processingEnv.getElementUtils()
+			.getBinaryName(type).toString();
+		String binderName = binaryName.substring(
+				packageName.length() == 0 ? 0 : packageName.length() + 1)
+			+ PropertiesBinder.BINDER_SUFFIX;
+
+		List<String> names = new ArrayList<String>(binding.propertyNames);
+		StringBuilder src = new StringBuilder();
+
+		if(packageName.length() > 0) {
+			src.append("package ").append(packageName).append(";\n\n");
+		}
+		src.append("/** Generated by ")
+			.append(PropertiesProcessor.class.getName())
+			.append(" for {@link ").append(typeName).append("}. */\n");
+		src.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+		src.append("public final class ").append(binderName)
+			.append(" extends util.properties.PropertiesBinder {\n");
+
+		src.append("\tprivate static final String[] NAMES = {");
+		for(int i=0; i < names.size(); ++i) {
+			src.append(i == 0 ? "" : ", ")
+				.append('"').append(escape(names.get(i))).append('"');
+		}
+		src.append("};\n\n");
+
+		src.append("\tpublic ").append(binderName).append("() {\n\t}\n\n");
+
+		src.append("\t@Override\n")
+			.append("\tprotected String[] getPropertyNames() {\n")
+			.append("\t\treturn NAMES;\n\t}\n\n");
+
+		// get(...)
+		src.append("\t@Override\n")
+			.append("\tprotected Object get(Object target, int index)")
+			.append(" throws Exception {\n")
+			.append("\t\t").append(typeName).append(" t = (")
+			.append(typeName).append(")target;\n")
+			.append("\t\tswitch(index) {\n");
+		for(int i=0; i < names.size(); ++i) {
+			String propName = names.get(i);
+			ExecutableElement getter = binding.getterMap.get(propName);
+			VariableElement field = binding.fieldMap.get(propName);
+			if(getter != null) {
+				src.append("\t\tcase ").append(i).append(": return t.")
+					.append(getter.getSimpleName()).append("();\n");
+			} else if(field != null) {
+				src.append("\t\tcase ").append(i).append(": return t.")
+					.append(field.getSimpleName()).append(";\n");
+			}
+		}
+		src.append("\t\tdefault: throw new IllegalArgumentException(")
+			.append("\"Property \" + index + \" cannot be read\");\n")
+			.append("\t\t}\n\t}\n\n");
+
+		// set(...)
+		src.append("\t@Override\n")
+			.append("\tprotected void set(Object target, int index,")
+			.append(" Object value) throws Exception {\n")
+			.append("\t\t").append(typeName).append(" t = (")
+			.append(typeName).append(")target;\n")
+			.append("\t\tswitch(index) {\n");
+		for(int i=0; i < names.size(); ++i) {
+			String propName = names.get(i);
+			if(!binding.setterMap.containsKey(propName)) {
+				continue; // Read-only property.
+			}
+			ExecutableElement setter = binding.setterMap.get(propName);
+			VariableElement field = binding.fieldMap.get(propName);
+			if(setter != null) {
+				src.append("\t\tcase ").append(i).append(": t.")
+					.append(setter.getSimpleName()).append("((")
+					.append(castType(setter.getParameters().get(0).asType()))
+					.append(")value); return;\n");
+			} else if(field != null) {
+				src.append("\t\tcase ").append(i).append(": t.")
+					.append(field.getSimpleName()).append(" = (")
+					.append(castType(field.asType()))
+					.append(")value; return;\n");
+			}
+		}
+		src.append("\t\tdefault: throw new IllegalArgumentException(")
+			.append("\"Property \" + index + \" cannot be written\");\n")
+			.append("\t\t}\n\t}\n\n");
+
+		// parse(...)
+		src.append("\t@Override\n")
+			.append("\tprotected Object parse(int index, String value) {\n")
+			.append("\t\tswitch(index) {\n");
+		for(int i=0; i < names.size(); ++i) {
+			String parser = parserCall(binding.propertyTypes.get(names.get(i)));
+			if(parser != null) {
+				src.append("\t\tcase ").append(i).append(": return ")
+					.append(parser).append(";\n");
+			}
+		}
+		src.append("\t\tdefault: return NO_PARSER;\n")
+			.append("\t\t}\n\t}\n");
+
+		src.append("}\n");
+
+		String qualifiedBinderName = packageName.length() == 0
+			? binderName
+			: packageName + "." + binderName;
+		try {
+			JavaFileObject file = processingEnv.getFiler()
+				.createSourceFile(qualifiedBinderName, type);
+			Writer writer = file.openWriter();
+			try {
+				writer.write(src.toString());
+			} finally {
+				writer.close();
+			}
+		} catch (IOException e) {
+			error(type, "Could not generate " + qualifiedBinderName + ": "
+					+ e.getMessage());
+		}
+	}
+
+	/**
+	 * @return the type to cast an Object to before assigning it to a
+	 * 	variable of the given type
+	 */
+	private String castType(TypeMirror type) {
+		if(type.getKind().isPrimitive()) {
+			return processingEnv.getTypeUtils()
+				.boxedClass((PrimitiveType)type)
+				.getQualifiedName().toString();
+		}
+		return processingEnv.getTypeUtils().erasure(type).toString();
+	}
+
+	/**
+	 * @return a static call parsing <code>value</code> into the given type,
+	 * 	or null if it must be parsed at runtime
+	 */
+	private static String parserCall(TypeMirror type) {
+		String name;
+		if(type.getKind().isPrimitive()) {
+			name = type.getKind().name();
+		} else if(type.getKind() == TypeKind.DECLARED) {
+			name = type.toString();
+		} else {
+			return null;
+		}
+
+		if(name.equals("BOOLEAN") || name.equals("java.lang.Boolean")) {
+			return "Boolean.valueOf(Boolean.parseBoolean(value))";
+		} else if(name.equals("BYTE") || name.equals("java.lang.Byte")) {
+			return "Byte.valueOf(Byte.parseByte(value))";
+		} else if(name.equals("SHORT") || name.equals("java.lang.Short")) {
+			return "Short.valueOf(Short.parseShort(value))";
+		} else if(name.equals("INT") || name.equals("java.lang.Integer")) {
+			return "Integer.valueOf(Integer.parseInt(value))";
+		} else if(name.equals("LONG") || name.equals("java.lang.Long")) {
+			return "Long.valueOf(Long.parseLong(value))";
+		} else if(name.equals("FLOAT") || name.equals("java.lang.Float")) {
+			return "Float.valueOf(Float.parseFloat(value))";
+		} else if(name.equals("DOUBLE") || name.equals("java.lang.Double")) {
+			return "Double.valueOf(Double.parseDouble(value))";
+		} else if(name.equals("java.lang.String")) {
+			return "value";
+		}
+		return null;
+	}
+
+	/**
+	 * @return whether a binder placed in the same package can refer to the
+	 * 	given type by name
+	 */
+	private static boolean isBinderAccessible(TypeElement type) {
+		Element element = type;
+		while(element instanceof TypeElement) {
+			TypeElement someType = (TypeElement)element;
+			if(someType.getNestingKind() == NestingKind.LOCAL
+			|| someType.getNestingKind() == NestingKind.ANONYMOUS
+			|| someType.getModifiers().contains(Modifier.PRIVATE)) {
+				return false;
+			}
+			element = someType.getEnclosingElement();
+		}
+		return true;
+	}
+
+	private List<ExecutableElement> getPublicMethods(TypeElement type) {
+		List<ExecutableElement> methods = new ArrayList<ExecutableElement>();
+		for(Element member
+				: processingEnv.getElementUtils().getAllMembers(type)) {
+			if(member.getKind() == ElementKind.METHOD
+			&& member.getModifiers().contains(Modifier.PUBLIC)) {
+				methods.add((ExecutableElement)member);
+			}
+		}
+		return methods;
+	}
+
+	private static ExecutableElement resolveMethod(
+			List<ExecutableElement> methods, String methodName) {
+		for(ExecutableElement method : methods) {
+			if(method.getSimpleName().contentEquals(methodName)) {
+				return method;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Inherited methods can't carry an error; report those on the type.
+	 */
+	private static Element errorSite(TypeElement type, Element member) {
+		return (member != null && member.getEnclosingElement().equals(type))
+			? member
+			: type;
+	}
+
+	private void error(Element element, String msg) {
+		processingEnv.getMessager()
+			.printMessage(Diagnostic.Kind.ERROR, msg, element);
+	}
+
+	private static String guessNameFromPrefixAndName(String prefix,
+			String fullName) {
+		int l = prefix.length();
+		if (fullName.length() > l
+				&& fullName.startsWith(prefix)
+				&& Character.isUpperCase(fullName.charAt(l))) {
+			return fullName.substring(l, l+1).toLowerCase()
+					+ fullName.substring(l+1);
+		}
+		// "Malformed" name.
+		return fullName;
+	}
+
+	private static String escape(String string) {
+		return string.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+}
@@ -0,0 +1,340 @@
+package util.properties;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Tokenizes .properties text straight from a {@link ByteBuffer}, following
+ *  the same rules as {@link java.util.Properties#load(java.io.Reader)}:
+ *  comment lines, line continuations, <code>=</code>, <code>:</code> or
+ *  whitespace separators, and escape sequences (including
+ *  <code>\\uXXXX</code>).
+ *
+ * <p>
+ * ISO 8859-1 and UTF-8 are decoded in place, one character at a time; any
+ *  other charset is decoded up front. Each key is unescaped into a reused
+ *  buffer, so reading a line allocates nothing: callers look the key up with
+ *  {@link PropertiesBinding#slotIndexOf}, and only the values they ask for
+ *  are unescaped and turned into a <code>String</code>.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class PropertiesReader {
+	private static final int ISO_8859_1 = 0;
+	private static final int UTF_8 = 1;
+	private static final int DECODED = 2;
+
+	private final ByteBuffer bytes;
+	private final CharBuffer chars;
+	private final int encoding;
+
+	// The low surrogate of a decoded 4-byte UTF-8 sequence, or 0:
+	private char pendingLowSurrogate;
+
+	// The current logical line, with continuations joined:
+	private char[] line = new char[256];
+	private int lineLength;
+
+	private char[] key = new char[64];
+	private int keyLength;
+	private char[] value = new char[256];
+
+	// Values are only unescaped for keys that are asked for:
+	private int valueStart;
+
+	/**
+	 * @param buffer the text to read, from its position to its limit; the
+	 * 	position of the buffer itself is left alone
+	 * @param charset the encoding of the text
+	 */
+	PropertiesReader(ByteBuffer buffer, Charset charset) {
+		if(charset.equals(StandardCharsets.ISO_8859_1)) {
+			this.bytes = buffer.duplicate();
+			this.chars = null;
+			this.encoding = ISO_8859_1;
+		} else if(charset.equals(StandardCharsets.UTF_8)) {
+			this.bytes = buffer.duplicate();
+			this.chars = null;
+			this.encoding = UTF_8;
+		} else {
+			this.bytes = null;
+			this.chars = charset.decode(buffer.duplicate());
+			this.encoding = DECODED;
+		}
+	}
+
+	/**
+	 * Reads the next key/value pair.
+	 * @return false if the end of the text has been reached
+	 * @throws IllegalArgumentException if a <code>\\uXXXX</code> escape is
+	 * 	malformed
+	 */
+	boolean next() {
+		if(!readLine()) {
+			return false;
+		}
+
+		// Find where the key ends and the value starts:
+		int keyEnd = 0;
+		int valueStart = lineLength;
+		boolean hasSeparator = false;
+		boolean precedingBackslash = false;
+		while(keyEnd < lineLength) {
+			char c = line[keyEnd];
+			if((c == '=' || c == ':') && !precedingBackslash) {
+				valueStart = keyEnd + 1;
+				hasSeparator = true;
+				break;
+			} else if(isWhitespace(c) && !precedingBackslash) {
+				valueStart = keyEnd + 1;
+				break;
+			}
+			precedingBackslash = (c == '\\') && !precedingBackslash;
+			++keyEnd;
+		}
+		while(valueStart < lineLength) {
+			char c = line[valueStart];
+			if(!isWhitespace(c)) {
+				if(!hasSeparator && (c == '=' || c == ':')) {
+					hasSeparator = true;
+				} else {
+					break;
+				}
+			}
+			++valueStart;
+		}
+
+		// Unescaping never makes text longer:
+		if(key.length < keyEnd) {
+			key = new char[Math.max(keyEnd, key.length * 2)];
+		}
+		keyLength = unescape(0, keyEnd, key);
+		this.valueStart = valueStart;
+		return true;
+	}
+
+	/**
+	 * @return the buffer holding the current key; only the first
+	 * 	{@link #getKeyLength()} characters are part of it
+	 */
+	char[] getKey() {
+		return key;
+	}
+
+	int getKeyLength() {
+		return keyLength;
+	}
+
+	/**
+	 * @return the current value, as a new String
+	 */
+	String getValue() {
+		if(value.length < lineLength - valueStart) {
+			value = new char[Math.max(lineLength - valueStart,
+					value.length * 2)];
+		}
+		return new String(value, 0, unescape(valueStart, lineLength, value));
+	}
+
+	/**
+	 * Reads the next logical line into {@link #line}, skipping blank lines
+	 * 	and comments, joining continued lines, and dropping leading
+	 * 	whitespace.
+	 * @return false if there are no more lines
+	 */
+	private boolean readLine() {
+		lineLength = 0;
+		boolean skipWhitespace = true;
+		boolean isCommentLine = false;
+		boolean isNewLine = true;
+		boolean appendedLineBegin = false;
+		boolean precedingBackslash = false;
+		boolean skipLF = false;
+
+		while(true) {
+			if(!hasNextChar()) {
+				if(isCommentLine || lineLength == 0) {
+					return false;
+				}
+				if(precedingBackslash) {
+					--lineLength;
+				}
+				return true;
+			}
+			char c = nextChar();
+
+			if(skipLF) {
+				skipLF = false;
+				if(c == '\n') {
+					continue;
+				}
+			}
+			if(skipWhitespace) {
+				if(isWhitespace(c)) {
+					continue;
+				}
+				if(!appendedLineBegin && (c == '\r' || c == '\n')) {
+					continue;
+				}
+				skipWhitespace = false;
+				appendedLineBegin = false;
+			}
+			if(isNewLine) {
+				isNewLine = false;
+				if(c == '#' || c == '!') {
+					isCommentLine = true;
+					continue;
+				}
+			}
+
+			if(c != '\n' && c != '\r') {
+				if(isCommentLine) {
+					continue;
+				}
+				if(lineLength == line.length) {
+					line = Arrays.copyOf(line, line.length * 2);
+				}
+				line[lineLength++] = c;
+				precedingBackslash = (c == '\\') && !precedingBackslash;
+			} else if(isCommentLine || lineLength == 0) {
+				// End of a comment or blank line:
+				isCommentLine = false;
+				isNewLine = true;
+				skipWhitespace = true;
+				lineLength = 0;
+			} else if(precedingBackslash) {
+				// Continued on the next line:
+				--lineLength;
+				skipWhitespace = true;
+				appendedLineBegin = true;
+				precedingBackslash = false;
+				skipLF = (c == '\r');
+			} else {
+				// The '\n' of a "\r\n" is skipped as a blank line next time.
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Copies part of {@link #line}, resolving escape sequences.
+	 * @return the number of characters written to <code>out</code>
+	 */
+	private int unescape(int begin, int end, char[] out) {
+		int length = 0;
+		int i = begin;
+		while(i < end) {
+			char c = line[i++];
+			if(c == '\\' && i < end) {
+				c = line[i++];
+				if(c == 'u') {
+					if(i + 4 > end) {
+						throw new IllegalArgumentException(
+								"Malformed \\uxxxx encoding.");
+					}
+					int code = 0;
+					for(int j=0; j < 4; ++j) {
+						int digit = Character.digit(line[i++], 16);
+						if(digit < 0) {
+							throw new IllegalArgumentException(
+									"Malformed \\uxxxx encoding.");
+						}
+						code = (code << 4) | digit;
+					}
+					c = (char)code;
+				} else if(c == 't') {
+					c = '\t';
+				} else if(c == 'r') {
+					c = '\r';
+				} else if(c == 'n') {
+					c = '\n';
+				} else if(c == 'f') {
+					c = '\f';
+				}
+			} else if(c == '\\') {
+				// A lone trailing backslash is dropped.
+				break;
+			}
+			out[length++] = c;
+		}
+		return length;
+	}
+
+	private boolean hasNextChar() {
+		if(encoding == DECODED) {
+			return chars.hasRemaining();
+		}
+		return pendingLowSurrogate != 0 || bytes.hasRemaining();
+	}
+
+	private char nextChar() {
+		switch(encoding) {
+		case ISO_8859_1:
+			return (char)(bytes.get() & 0xFF);
+		case DECODED:
+			return chars.get();
+		default:
+			return nextUTF8Char();
+		}
+	}
+
+	private char nextUTF8Char() {
+		if(pendingLowSurrogate != 0) {
+			char c = pendingLowSurrogate;
+			pendingLowSurrogate = 0;
+			return c;
+		}
+
+		int b = bytes.get() & 0xFF;
+		if(b < 0x80) {
+			return (char)b;
+		}
+
+		int continuationBytes;
+		int codePoint;
+		int minimum;
+		if((b & 0xE0) == 0xC0) {
+			continuationBytes = 1;
+			codePoint = b & 0x1F;
+			minimum = 0x80;
+		} else if((b & 0xF0) == 0xE0) {
+			continuationBytes = 2;
+			codePoint = b & 0x0F;
+			minimum = 0x800;
+		} else if((b & 0xF8) == 0xF0) {
+			continuationBytes = 3;
+			codePoint = b & 0x07;
+			minimum = 0x10000;
+		} else {
+			return '\uFFFD';
+		}
+
+		for(int i=0; i < continuationBytes; ++i) {
+			if(!bytes.hasRemaining()
+			|| (bytes.get(bytes.position()) & 0xC0) != 0x80) {
+				// Truncated sequence; leave the next byte to be read anew.
+				return '\uFFFD';
+			}
+			codePoint = (codePoint << 6) | (bytes.get() & 0x3F);
+		}
+
+		if(codePoint < minimum || codePoint > Character.MAX_CODE_POINT
+		|| (codePoint >= Character.MIN_SURROGATE
+			&& codePoint <= Character.MAX_SURROGATE)) {
+			return '\uFFFD';
+		}
+		if(codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+			pendingLowSurrogate = Character.lowSurrogate(codePoint);
+			return Character.highSurrogate(codePoint);
+		}
+		return (char)codePoint;
+	}
+
+	private static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t' || c == '\f';
+	}
+}
@@ -0,0 +1,220 @@
+package util.properties;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Date;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * <p>
+ * An optional registry that exposes {@link PropertiesHandler}s as JMX
+ *  MBeans (see {@link PropertiesHandlerMXBean}), so that operators can see
+ *  from JConsole how often each object's properties were applied, how long
+ *  that took, which properties failed to parse, and what the current values
+ *  are.
+ * </p>
+ *
+ * <p>
+ * Each registered handler gets its own MBean, named
+ *  <code>util.properties:type=PropertiesHandler,class=&lt;class
+ *  name&gt;,id=&lt;n&gt;</code>, on the platform MBean server. An MBean
+ *  lives as long as its handler's object, whether or not the handler itself
+ *  is still referenced; the registry only holds the object weakly, and once
+ *  it is garbage collected its MBean is unregistered (the next time the
+ *  registry is used, or the next time any of its MBeans is read), so
+ *  registering a handler never keeps its object alive.
+ * </p>
+ *
+ * <p>
+ * Handlers only start keeping statistics once registered; unregistered
+ *  handlers pay nothing.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+public final class PropertiesRegistry {
+	static final String DOMAIN = "util.properties";
+
+	private static final AtomicLong nextId = new AtomicLong();
+	private static final ReferenceQueue<Object> collected
+		= new ReferenceQueue<Object>();
+
+	private PropertiesRegistry() {
+	}
+
+	/**
+	 * Exposes a handler as an MBean on the platform MBean server.
+	 * @param handler the handler to expose
+	 * @return the name of the handler's MBean
+	 * @throws JMException if the MBean cannot be registered
+	 */
+	public static ObjectName register(PropertiesHandler handler)
+		throws JMException {
+		expungeCollected();
+
+		ObjectName name = new ObjectName(DOMAIN + ":type=PropertiesHandler"
+				+ ",class=" + handler.getObject().getClass().getName()
+				+ ",id=" + nextId.incrementAndGet());
+		HandlerReference reference = new HandlerReference(handler, name);
+		getServer().registerMBean(new HandlerMXBean(reference), name);
+		return name;
+	}
+
+	/**
+	 * Removes a handler's MBean. Handlers that are garbage collected are
+	 * 	removed automatically.
+	 * @param name the name returned by {@link #register}
+	 * @throws JMException if the MBean cannot be unregistered
+	 */
+	public static void unregister(ObjectName name) throws JMException {
+		expungeCollected();
+		try {
+			getServer().unregisterMBean(name);
+		} catch (InstanceNotFoundException e) {
+			// Already gone with its handler.
+		}
+	}
+
+	private static MBeanServer getServer() {
+		return ManagementFactory.getPlatformMBeanServer();
+	}
+
+	private static void expungeCollected() {
+		HandlerReference reference;
+		while((reference = (HandlerReference)collected.poll()) != null) {
+			reference.unregister();
+		}
+	}
+
+	/**
+	 * Weakly refers to the object of a registered handler, and strongly to
+	 * 	what it takes to read it (none of which refers to the object).
+	 */
+	private static final class HandlerReference extends WeakReference<Object> {
+		final ObjectName name;
+		final HandlerStatistics statistics;
+		final PropertiesBinding binding;
+		final Object[] stripes;
+
+		HandlerReference(PropertiesHandler handler, ObjectName name) {
+			super(handler.getObject(), collected);
+			this.name = name;
+			this.statistics = handler.enableStatistics();
+			this.binding = handler.getBinding();
+			this.stripes = handler.getStripes();
+		}
+
+		void unregister() {
+			try {
+				getServer().unregisterMBean(name);
+			} catch (InstanceNotFoundException e) {
+				// Unregistered already.
+			} catch (JMException e) {
+				// Nothing else to be done; it holds nothing but counters.
+			}
+		}
+	}
+
+	private static final class HandlerMXBean
+		implements PropertiesHandlerMXBean {
+		private final HandlerReference reference;
+		private final String objectClassName;
+		private final int propertyCount;
+
+		HandlerMXBean(HandlerReference reference) {
+			this.reference = reference;
+			this.objectClassName = reference.get().getClass().getName();
+			this.propertyCount = reference.binding.getPropertyNames().size();
+		}
+
+		/**
+		 * Unregisters every MBean whose object was collected, this one
+		 * 	included.
+		 * @return the object of this MBean
+		 * @throws IllegalStateException if it was collected
+		 */
+		private Object getObject() {
+			expungeCollected();
+			Object object = reference.get();
+			if(object == null) {
+				reference.unregister();
+				throw new IllegalStateException(objectClassName
+						+ " has been garbage collected");
+			}
+			return object;
+		}
+
+		@Override
+		public String getObjectClassName() {
+			getObject();
+			return objectClassName;
+		}
+
+		@Override
+		public int getPropertyCount() {
+			getObject();
+			return propertyCount;
+		}
+
+		@Override
+		public long getApplyCount() {
+			getObject();
+			return reference.statistics.getApplyCount();
+		}
+
+		@Override
+		public Date getLastApplyTime() {
+			getObject();
+			long millis = reference.statistics.getLastApplyMillis();
+			return millis == 0 ? null : new Date(millis);
+		}
+
+		@Override
+		public long getTotalApplyTimeNanos() {
+			getObject();
+			return reference.statistics.getTotalApplyNanos();
+		}
+
+		@Override
+		public long getMaxApplyTimeNanos() {
+			getObject();
+			return reference.statistics.getMaxApplyNanos();
+		}
+
+		@Override
+		public Map<String,Long> getParseFailureCounts() {
+			getObject();
+			return reference.statistics.getParseFailures();
+		}
+
+		@Override
+		public Map<String,String> getCurrentValues() {
+			Object object = getObject();
+			// Read like a handler would, but without its listeners, or what
+			//  it tracks for extractChanges:
+			Properties extracted = new Properties();
+			try {
+				PropertiesHandler.writeObject(
+						PropertiesWriter.forProperties(extracted), "", object,
+						reference.binding, reference.stripes,
+						PropertiesHandler.NO_LISTENERS);
+			} catch (Exception e) {
+				throw new IllegalStateException(e.toString());
+			}
+			Map<String,String> values = new TreeMap<String,String>();
+			for(String name : extracted.stringPropertyNames()) {
+				values.put(name, extracted.getProperty(name));
+			}
+			return values;
+		}
+	}
+}
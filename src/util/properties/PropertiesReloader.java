@@ -0,0 +1,404 @@
+package util.properties;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * Keeps handlers up to date with their .properties files: a single thread
+ *  watches every bound file through a {@link WatchService} and, when one
+ *  changes, reads it once and applies it to each of its handlers with
+ *  {@link PropertiesHandler#applyChanges(Properties)}, so that only the
+ *  properties whose value changed are parsed and set, and a malformed file
+ *  leaves each object untouched. A {@link PropertiesSnapshot} may be bound
+ *  as well; it publishes a new snapshot on each reload instead.
+ * </p>
+ *
+ * <p>
+ * Editors and deployment tools tend to touch a file several times in a
+ *  row (truncate, write, rename...), so events are coalesced: files are
+ *  only reloaded once no event has come for the debounce delay, or once
+ *  events have kept coming for ten times as long. Each file is read once
+ *  per reload, however many handlers it is bound to.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * PropertiesReloader reloader = new PropertiesReloader();
+ * reloader.bind(Paths.get("conf/account.properties"), accountHandler);
+ * ...
+ * reloader.close();
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * Handlers are applied from the reloader's thread, while other threads may
+ *  be reading their objects. Failures (an unreadable file, a malformed
+ *  escape sequence, a missing or malformed value, a setter that throws) do
+ *  not stop the reloader; they are counted, and the last one is kept, along
+ *  with each handler's {@link PropertiesListener}s being told.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+public final class PropertiesReloader implements Closeable {
+	/**
+	 * The debounce delay of {@link #PropertiesReloader()}, in milliseconds.
+	 */
+	public static final long DEFAULT_DEBOUNCE_MILLIS = 100;
+
+	// Events keep coming for at most this many debounce delays before
+	//  their files are reloaded anyway.
+	private static final int MAX_DEBOUNCES = 10;
+
+	private final WatchService watcher;
+	private final long debounceNanos;
+	private final Thread thread;
+
+	// The handlers and snapshots bound to each file, by absolute path, and
+	//  the watch key of each directory holding such a file:
+	private final ConcurrentMap<Path,List<Object>> targets
+		= new ConcurrentHashMap<Path,List<Object>>();
+	private final ConcurrentMap<Path,WatchKey> directories
+		= new ConcurrentHashMap<Path,WatchKey>();
+
+	private final AtomicLong reloadCount = new AtomicLong();
+	private final AtomicLong failureCount = new AtomicLong();
+	private final LatencyHistogram reloadLatency = new LatencyHistogram();
+	private volatile Exception lastFailure;
+
+	// Held while a file is read and applied, by bind and by the watching
+	//  thread alike, so that what is applied last was read last:
+	private final Object applyLock = new Object();
+	private volatile boolean closed;
+
+	/**
+	 * Starts watching, with a debounce delay of
+	 * 	{@value #DEFAULT_DEBOUNCE_MILLIS}ms.
+	 * @throws IOException if the file system cannot be watched
+	 */
+	public PropertiesReloader() throws IOException {
+		this(DEFAULT_DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * Starts watching.
+	 * @param debounce how long to wait for the events of a file to stop
+	 * 	before reloading it
+	 * @param unit the unit of the debounce delay
+	 * @throws IOException if the file system cannot be watched
+	 */
+	public PropertiesReloader(long debounce, TimeUnit unit)
+		throws IOException {
+		if(debounce < 0) {
+			throw new IllegalArgumentException("Negative debounce delay: "
+					+ debounce);
+		}
+		this.debounceNanos = unit.toNanos(debounce);
+		this.watcher = FileSystems.getDefault().newWatchService();
+		this.thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				watch();
+			}
+		}, "PropertiesReloader");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Applies a file to a handler now, then again every time the file
+	 * 	changes, until {@link #unbind} or {@link #close} is called.
+	 * @param file the .properties file, in ISO 8859-1 like
+	 * 	{@link Properties#load(InputStream)} expects
+	 * @param handler the handler to apply the file to
+	 * @throws IOException if the file cannot be read or watched; the handler
+	 * 	is not bound then
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	the file; the handler is still bound
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the file; the handler is still bound
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	invoking a setter method; the handler is still bound
+	 */
+	public void bind(Path file, PropertiesHandler handler)
+		throws IOException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		synchronized(applyLock) {
+			handler.applyChanges(add(file, handler));
+		}
+	}
+
+	/**
+	 * Applies a file to a snapshot now, publishing a new snapshot, then again
+	 * 	every time the file changes, until {@link #unbind} or {@link #close}
+	 * 	is called.
+	 * @param file the .properties file, in ISO 8859-1 like
+	 * 	{@link Properties#load(InputStream)} expects
+	 * @param snapshot the snapshot to apply the file to
+	 * @throws IOException if the file cannot be read or watched; the snapshot
+	 * 	is not bound then
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	the file; the snapshot is still bound
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the file; the snapshot is still bound
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	creating the snapshot or invoking a setter method; the snapshot is
+	 * 	still bound
+	 */
+	public void bind(Path file, PropertiesSnapshot<?> snapshot)
+		throws IOException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		synchronized(applyLock) {
+			snapshot.apply(add(file, snapshot));
+		}
+	}
+
+	/**
+	 * @param file a file passed to {@link #bind}
+	 * @param handler a handler bound to the file
+	 * @return false if the handler was not bound to the file
+	 */
+	public boolean unbind(Path file, PropertiesHandler handler) {
+		return remove(file, handler);
+	}
+
+	/**
+	 * @param file a file passed to {@link #bind}
+	 * @param snapshot a snapshot bound to the file
+	 * @return false if the snapshot was not bound to the file
+	 */
+	public boolean unbind(Path file, PropertiesSnapshot<?> snapshot) {
+		return remove(file, snapshot);
+	}
+
+	// Watches the file for a handler or snapshot, and returns its current
+	//  properties:
+	private Properties add(Path file, Object target) throws IOException {
+		if(closed) {
+			throw new IllegalStateException("Closed");
+		}
+		file = file.toAbsolutePath().normalize();
+
+		// Watched before being read, so that no edit goes unseen:
+		Path directory = file.getParent();
+		if(!directories.containsKey(directory)) {
+			directories.put(directory, directory.register(watcher,
+					StandardWatchEventKinds.ENTRY_CREATE,
+					StandardWatchEventKinds.ENTRY_MODIFY));
+		}
+		Properties properties = load(file);
+
+		List<Object> bound = targets.get(file);
+		if(bound == null) {
+			bound = new CopyOnWriteArrayList<Object>();
+			List<Object> raced = targets.putIfAbsent(file, bound);
+			if(raced != null) {
+				bound = raced;
+			}
+		}
+		bound.add(target);
+		return properties;
+	}
+
+	private boolean remove(Path file, Object target) {
+		List<Object> bound = targets.get(file.toAbsolutePath().normalize());
+		return bound != null && bound.remove(target);
+	}
+
+	/**
+	 * @return the number of times a file was reloaded and applied to all of
+	 * 	its handlers and snapshots, whether or not that failed
+	 */
+	public long getReloadCount() {
+		return reloadCount.get();
+	}
+
+	/**
+	 * @return the number of times a file could not be read, or could not be
+	 * 	applied to one of its handlers or snapshots, plus the number of
+	 * 	directories that could no longer be watched (once deleted, say)
+	 */
+	public long getFailureCount() {
+		return failureCount.get();
+	}
+
+	/**
+	 * @return the most recent failure counted by {@link #getFailureCount},
+	 * 	or null if there was none
+	 */
+	public Exception getLastFailure() {
+		return lastFailure;
+	}
+
+	/**
+	 * @return how long each reload took, from reading its file to applying it
+	 * 	to the last of its handlers (not counting the debounce delay)
+	 */
+	public LatencyHistogram getReloadLatency() {
+		return reloadLatency;
+	}
+
+	/**
+	 * Stops watching, and waits for a reload in progress to end.
+	 * @throws IOException if the watch service cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		watcher.close();
+		if(Thread.currentThread() != thread) {
+			boolean interrupted = false;
+			while(thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			if(interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void watch() {
+		Set<Path> pending = new LinkedHashSet<Path>();
+		long firstEvent = 0;
+		try {
+			while(!closed) {
+				WatchKey key;
+				if(pending.isEmpty()) {
+					key = watcher.take();
+				} else {
+					long wait = Math.min(debounceNanos,
+							firstEvent + MAX_DEBOUNCES * debounceNanos
+								- System.nanoTime());
+					key = (wait > 0)
+						? watcher.poll(wait, TimeUnit.NANOSECONDS) : null;
+				}
+
+				if(key == null) {
+					// Quiet for long enough (or noisy for too long).
+					for(Path file : pending) {
+						reload(file);
+					}
+					pending.clear();
+					continue;
+				}
+
+				if(pending.isEmpty()) {
+					firstEvent = System.nanoTime();
+				}
+				Path directory = (Path)key.watchable();
+				for(WatchEvent<?> event : key.pollEvents()) {
+					if(event.kind() == StandardWatchEventKinds.OVERFLOW) {
+						// Events were lost; reload everything in the directory.
+						for(Path file : targets.keySet()) {
+							if(directory.equals(file.getParent())) {
+								pending.add(file);
+							}
+						}
+						continue;
+					}
+					Path file = directory.resolve((Path)event.context());
+					if(targets.containsKey(file)) {
+						pending.add(file);
+					}
+				}
+				if(!key.reset()) {
+					// The directory was deleted or unmounted; its files are
+					//  not reloaded until bound again.
+					directories.remove(directory, key);
+					failed(new IOException("No longer watching " + directory));
+				}
+			}
+		} catch (ClosedWatchServiceException e) {
+			// Closed.
+		} catch (InterruptedException e) {
+			// Nobody else interrupts this thread; stop.
+		}
+	}
+
+	private void reload(Path file) {
+		List<Object> bound = targets.get(file);
+		if(bound == null || bound.isEmpty()) {
+			return;
+		}
+		long start = System.nanoTime();
+		try {
+			synchronized(applyLock) {
+				applyTo(bound, load(file));
+			}
+		} catch (IOException e) {
+			// Most likely deleted, or being replaced; the next event will
+			//  tell.
+			failed(e);
+		} catch (RuntimeException e) {
+			// A malformed Unicode escape, most likely; nothing a single
+			//  file holds may stop the watching thread.
+			failed(e);
+		}
+		reloadLatency.record(System.nanoTime() - start);
+		reloadCount.incrementAndGet();
+	}
+
+	private void applyTo(List<Object> bound, Properties properties) {
+		for(Object target : bound) {
+			try {
+				if(target instanceof PropertiesSnapshot) {
+					((PropertiesSnapshot<?>)target).apply(properties);
+				} else {
+					((PropertiesHandler)target).applyChanges(properties);
+				}
+			} catch (PropertyMissingException e) {
+				failed(e);
+			} catch (PropertyParserException e) {
+				failed(e);
+			} catch (PropertyInvocationTargetException e) {
+				failed(e);
+			} catch (RuntimeException e) {
+				failed(e);
+			}
+		}
+	}
+
+	private void failed(Exception failure) {
+		lastFailure = failure;
+		failureCount.incrementAndGet();
+	}
+
+	private static Properties load(Path file) throws IOException {
+		Properties properties = new Properties();
+		InputStream in = Files.newInputStream(file);
+		try {
+			properties.load(in);
+		} finally {
+			in.close();
+		}
+		return properties;
+	}
+}
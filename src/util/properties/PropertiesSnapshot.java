@@ -0,0 +1,134 @@
+package util.properties;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * <p>
+ * Publishes configuration as a series of immutable snapshots, instead of
+ *  updating a single live object field by field: each time properties are
+ *  applied, a fresh instance of the annotated class is created and every
+ *  property is applied to it, on the applying thread; only once that
+ *  succeeded is it published, through a single atomic reference. Readers
+ *  call {@link #get()} and see either the previous snapshot or the new one
+ *  as a whole, never a mix of both, without taking any lock.
+ * </p>
+ *
+ * <p>
+ * Example:
+ * <pre>
+ * PropertiesSnapshot&lt;Account&gt; account
+ *     = new PropertiesSnapshot&lt;Account&gt;(Account.class);
+ * account.apply(loadedProperties);
+ * ...
+ * Account current = account.get(); {@literal // on any thread}
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * A snapshot must not be changed once published, since other threads may
+ *  be reading it; its setters may check each value and throw to reject the
+ *  whole snapshot. Nothing refers to a snapshot once the next one is
+ *  published, besides the readers still using it, so retired snapshots are
+ *  garbage collected like any other object. To reload a snapshot from a
+ *  file as it changes, bind it to a {@link PropertiesReloader}.
+ * </p>
+ *
+ * @param <T> the annotated class
+ * @see PropertiesHandler
+ * @author Louis Acresti
+ */
+public final class PropertiesSnapshot<T> {
+	private final Class<T> type;
+	private final NestedBinding factory;
+	private final AtomicReference<T> current = new AtomicReference<T>();
+
+	/**
+	 * @param type the annotated class; must be a concrete, static class
+	 * 	with a constructor that accepts zero (0) parameters
+	 * @throws PropertyInaccessibleException if the class cannot be created,
+	 * 	or any of its properties cannot be properly mapped to a field or
+	 * 	getters/setters
+	 */
+	public PropertiesSnapshot(Class<T> type)
+		throws PropertyInaccessibleException {
+		this.type = type;
+		this.factory = NestedBinding.forClass(null, type);
+		PropertiesBinding.forClass(type);
+	}
+
+	/**
+	 * @return the current snapshot, or null if none has been published yet
+	 */
+	public T get() {
+		return current.get();
+	}
+
+	/**
+	 * Builds a new snapshot from the given properties, then publishes it.
+	 * @param loadedProperties a pre-loaded properties object
+	 * @return the new snapshot
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	loadedProperties; nothing is published then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from loadedProperties; nothing is published then
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	creating the snapshot or invoking a setter method; nothing is
+	 * 	published then
+	 * @see PropertiesHandler#applyProperties(Properties)
+	 */
+	public synchronized T apply(Properties loadedProperties)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		T snapshot = newSnapshot();
+		handlerOf(snapshot).applyProperties(loadedProperties);
+		current.set(snapshot);
+		return snapshot;
+	}
+
+	/**
+	 * Builds a new snapshot from property values held in any {@link Map},
+	 * 	then publishes it.
+	 * @param properties the value of each property, by name
+	 * @return the new snapshot
+	 * @throws PropertyMissingException if a required property is not set in
+	 * 	the map; nothing is published then
+	 * @throws PropertyParserException if there are any problems parsing a
+	 * 	value from the map; nothing is published then
+	 * @throws PropertyInvocationTargetException if any exceptions occur while
+	 * 	creating the snapshot or invoking a setter method; nothing is
+	 * 	published then
+	 * @see PropertiesHandler#applyProperties(Map)
+	 */
+	public synchronized T apply(
+			Map<? extends CharSequence, ? extends CharSequence> properties)
+		throws PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		T snapshot = newSnapshot();
+		handlerOf(snapshot).applyProperties(properties);
+		current.set(snapshot);
+		return snapshot;
+	}
+
+	private T newSnapshot() throws PropertyInvocationTargetException {
+		try {
+			return type.cast(factory.newInstance());
+		} catch (InvocationTargetException e) {
+			throw new PropertyInvocationTargetException(null, "-NEW-", null,
+					e.getCause());
+		}
+	}
+
+	private static PropertiesHandler handlerOf(Object snapshot) {
+		try {
+			return new PropertiesHandler(snapshot);
+		} catch (PropertyInaccessibleException e) {
+			// The class was bound by our constructor.
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,423 @@
+package util.properties;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Collection;
+import java.util.Properties;
+
+/**
+ * Formats property values as .properties text, straight into a sink.
+ *
+ * <p>
+ * Array and collection elements are formatted one at a time into a fixed
+ *  buffer, which is flushed to the sink whenever it fills up, so writing a
+ *  value never builds an intermediate <code>String</code> of the whole value
+ *  (or a <code>Properties</code> of all of them). Keys and values are escaped
+ *  the same way {@link java.util.Properties#store} escapes them, so the
+ *  output can be read back by {@link java.util.Properties#load}.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+abstract class PropertiesWriter {
+	private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+	private static final String LINE_SEPARATOR = System.lineSeparator();
+
+	// Room for the longest escape sequence ("\\uXXXX").
+	private static final int MAX_ESCAPED_LENGTH = 6;
+
+	private final char[] buffer = new char[8192];
+	private int length;
+
+	private final boolean escape;
+	private final boolean escapeUnicode;
+	private boolean escapeSpace;
+	private boolean atStart;
+
+	// Reused to format one number at a time:
+	private final StringBuilder number = new StringBuilder(32);
+
+	/**
+	 * @param escape true to escape keys and values as
+	 * 	{@link java.util.Properties#store} does, false to write them verbatim
+	 * @param escapeUnicode true to also escape every character outside of
+	 * 	printable ASCII as <code>\\uXXXX</code>
+	 */
+	PropertiesWriter(boolean escape, boolean escapeUnicode) {
+		this.escape = escape;
+		this.escapeUnicode = escapeUnicode;
+	}
+
+	/**
+	 * Writes the content of the buffer to the sink.
+	 * @param chars the buffer
+	 * @param length the number of characters to write
+	 * @throws IOException if the sink cannot be written to
+	 */
+	abstract void write(char[] chars, int length) throws IOException;
+
+	/**
+	 * @param out the sink
+	 * @param escape true to escape keys and values, false to write them
+	 * 	verbatim (as they would be stored in a {@link java.util.Properties})
+	 * @return a writer that appends to the given sink
+	 */
+	static PropertiesWriter forAppendable(final Appendable out,
+			boolean escape) {
+		if(out instanceof StringBuilder) {
+			final StringBuilder builder = (StringBuilder)out;
+			return new PropertiesWriter(escape, false) {
+				@Override
+				void write(char[] chars, int length) {
+					builder.append(chars, 0, length);
+				}
+			};
+		}
+		return new PropertiesWriter(escape, false) {
+			@Override
+			void write(char[] chars, int length) throws IOException {
+				out.append(CharBuffer.wrap(chars, 0, length));
+			}
+		};
+	}
+
+	/**
+	 * @param out the sink
+	 * @return a writer that escapes keys and values and writes them to the
+	 * 	given sink, like {@link java.util.Properties#store(Writer, String)}
+	 */
+	static PropertiesWriter forWriter(final Writer out) {
+		return new PropertiesWriter(true, false) {
+			@Override
+			void write(char[] chars, int length) throws IOException {
+				out.write(chars, 0, length);
+			}
+		};
+	}
+
+	/**
+	 * @param out the sink, which must be in blocking mode
+	 * @return a writer that escapes keys and values and writes them to the
+	 * 	given sink as ISO 8859-1 bytes, like
+	 * 	{@link java.util.Properties#store(java.io.OutputStream, String)}
+	 */
+	static PropertiesWriter forChannel(final WritableByteChannel out) {
+		return new PropertiesWriter(true, true) {
+			private final ByteBuffer bytes = ByteBuffer.allocate(8192);
+
+			@Override
+			void write(char[] chars, int length) throws IOException {
+				// Everything outside of ASCII has been escaped by now.
+				bytes.clear();
+				for(int i=0; i < length; ++i) {
+					bytes.put((byte)chars[i]);
+				}
+				bytes.flip();
+				while(bytes.hasRemaining()) {
+					out.write(bytes);
+				}
+			}
+		};
+	}
+
+	/**
+	 * @param out the properties to set
+	 * @return a writer that formats each value verbatim, then sets it in the
+	 * 	given properties under its key, instead of writing a line
+	 */
+	static PropertiesWriter forProperties(final Properties out) {
+		final StringBuilder value = new StringBuilder();
+		return new PropertiesWriter(false, false) {
+			@Override
+			void write(char[] chars, int length) {
+				value.append(chars, 0, length);
+			}
+
+			@Override
+			void writeProperty(String prefix, String key, Object propertyValue)
+				throws IOException {
+				value.setLength(0);
+				writeValue(propertyValue);
+				flush();
+				out.setProperty(prefix.length() == 0 ? key : prefix + key,
+						value.toString());
+			}
+		};
+	}
+
+	/**
+	 * Writes a single <code>key=value</code> line.
+	 * @param key the name of the property
+	 * @param value the value of the property
+	 * @throws IOException if the sink cannot be written to
+	 */
+	void writeProperty(String key, Object value) throws IOException {
+		writeProperty("", key, value);
+	}
+
+	/**
+	 * Writes a single <code>prefixkey=value</code> line.
+	 * @param prefix prepended to the key, without concatenating them first
+	 * @param key the name of the property
+	 * @param value the value of the property
+	 * @throws IOException if the sink cannot be written to
+	 */
+	void writeProperty(String prefix, String key, Object value)
+		throws IOException {
+		escapeSpace = true;
+		putString(prefix);
+		putString(key);
+		escapeSpace = false;
+		putRaw('=');
+		atStart = true;
+		writeValue(value);
+		for(int i=0; i < LINE_SEPARATOR.length(); ++i) {
+			putRaw(LINE_SEPARATOR.charAt(i));
+		}
+	}
+
+	/**
+	 * Writes a value, separating the elements of arrays and collections with
+	 * 	commas.
+	 * @param value the value to write
+	 * @throws IOException if the sink cannot be written to
+	 */
+	void writeValue(Object value) throws IOException {
+		if(value instanceof Object[]) {
+			Object[] array = (Object[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				putElement(array[i]);
+			}
+		} else if(value instanceof boolean[]) {
+			boolean[] array = (boolean[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				putString(array[i] ? "true" : "false");
+			}
+		} else if(value instanceof byte[]) {
+			byte[] array = (byte[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof char[]) {
+			char[] array = (char[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				put(array[i]);
+			}
+		} else if(value instanceof short[]) {
+			short[] array = (short[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof int[]) {
+			int[] array = (int[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof long[]) {
+			long[] array = (long[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof float[]) {
+			float[] array = (float[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof double[]) {
+			double[] array = (double[])value;
+			for(int i=0; i < array.length; ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(array[i]));
+			}
+		} else if(value instanceof IntArrayList) {
+			IntArrayList list = (IntArrayList)value;
+			for(int i=0; i < list.size(); ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(list.get(i)));
+			}
+		} else if(value instanceof LongArrayList) {
+			LongArrayList list = (LongArrayList)value;
+			for(int i=0; i < list.size(); ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(list.get(i)));
+			}
+		} else if(value instanceof DoubleArrayList) {
+			DoubleArrayList list = (DoubleArrayList)value;
+			for(int i=0; i < list.size(); ++i) {
+				putSeparator(i);
+				number.setLength(0);
+				putNumber(number.append(list.get(i)));
+			}
+		} else if(value instanceof IntHashSet) {
+			IntHashSet set = (IntHashSet)value;
+			int i = 0;
+			if(set.containsZero()) {
+				put('0');
+				++i;
+			}
+			for(int element : set.table()) {
+				if(element != 0) {
+					putSeparator(i++);
+					number.setLength(0);
+					putNumber(number.append(element));
+				}
+			}
+		} else if(value instanceof LongHashSet) {
+			LongHashSet set = (LongHashSet)value;
+			int i = 0;
+			if(set.containsZero()) {
+				put('0');
+				++i;
+			}
+			for(long element : set.table()) {
+				if(element != 0) {
+					putSeparator(i++);
+					number.setLength(0);
+					putNumber(number.append(element));
+				}
+			}
+		} else if(value instanceof Collection) {
+			int i = 0;
+			for(Object element : (Collection<?>)value) {
+				putSeparator(i++);
+				putElement(element);
+			}
+		} else {
+			putString(value.toString());
+		}
+	}
+
+	/**
+	 * Writes whatever is left in the buffer to the sink.
+	 * @throws IOException if the sink cannot be written to
+	 */
+	void flush() throws IOException {
+		if(length > 0) {
+			write(buffer, length);
+			length = 0;
+		}
+	}
+
+	private void putSeparator(int index) throws IOException {
+		if(index > 0) {
+			put(',');
+		}
+	}
+
+	// Boxed numbers, booleans and characters are written the way their
+	//  primitive arrays are, without a String each:
+	private void putElement(Object element) throws IOException {
+		if(element instanceof Integer || element instanceof Long
+				|| element instanceof Short || element instanceof Byte) {
+			number.setLength(0);
+			putNumber(number.append(((Number)element).longValue()));
+		} else if(element instanceof Double) {
+			number.setLength(0);
+			putNumber(number.append(((Double)element).doubleValue()));
+		} else if(element instanceof Float) {
+			number.setLength(0);
+			putNumber(number.append(((Float)element).floatValue()));
+		} else if(element instanceof Boolean) {
+			putString(((Boolean)element).booleanValue() ? "true" : "false");
+		} else if(element instanceof Character) {
+			put(((Character)element).charValue());
+		} else {
+			putString(String.valueOf(element));
+		}
+	}
+
+	private void putNumber(StringBuilder digits) throws IOException {
+		for(int i=0; i < digits.length(); ++i) {
+			put(digits.charAt(i));
+		}
+	}
+
+	private void putString(String string) throws IOException {
+		for(int i=0; i < string.length(); ++i) {
+			put(string.charAt(i));
+		}
+	}
+
+	private void putRaw(char c) throws IOException {
+		if(length == buffer.length) {
+			flush();
+		}
+		buffer[length++] = c;
+	}
+
+	private void put(char c) throws IOException {
+		if(length + MAX_ESCAPED_LENGTH > buffer.length) {
+			flush();
+		}
+
+		boolean first = atStart;
+		atStart = false;
+		if(!escape) {
+			buffer[length++] = c;
+			return;
+		}
+
+		switch(c) {
+		case ' ':
+			if(first || escapeSpace) {
+				buffer[length++] = '\\';
+			}
+			buffer[length++] = ' ';
+			break;
+		case '\t':
+			buffer[length++] = '\\';
+			buffer[length++] = 't';
+			break;
+		case '\n':
+			buffer[length++] = '\\';
+			buffer[length++] = 'n';
+			break;
+		case '\r':
+			buffer[length++] = '\\';
+			buffer[length++] = 'r';
+			break;
+		case '\f':
+			buffer[length++] = '\\';
+			buffer[length++] = 'f';
+			break;
+		case '\\':
+		case '=':
+		case ':':
+		case '#':
+		case '!':
+			buffer[length++] = '\\';
+			buffer[length++] = c;
+			break;
+		default:
+			if(escapeUnicode && (c < 0x0020 || c > 0x007e)) {
+				buffer[length++] = '\\';
+				buffer[length++] = 'u';
+				buffer[length++] = HEX_DIGITS[(c >> 12) & 0xF];
+				buffer[length++] = HEX_DIGITS[(c >> 8) & 0xF];
+				buffer[length++] = HEX_DIGITS[(c >> 4) & 0xF];
+				buffer[length++] = HEX_DIGITS[c & 0xF];
+			} else {
+				buffer[length++] = c;
+			}
+		}
+	}
+}
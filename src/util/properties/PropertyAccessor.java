@@ -0,0 +1,334 @@
+package util.properties;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads or writes a single property of an object, either through its field
+ *  or through its getter/setter method.
+ *
+ * <p>
+ * When a {@link PropertiesBinder} was generated for the class at compile
+ *  time, accessors simply delegate to it. Otherwise, they
+ *  are compiled once per property into {@link MethodHandle}s whose
+ *  types are erased to <code>(Object)Object</code> and
+ *  <code>(Object,Object)void</code>, so every call is a direct
+ *  <code>invokeExact</code> instead of a reflective, access-checked
+ *  <code>Field.get/set</code> or <code>Method.invoke</code>; the handles
+ *  of static members take the target too, and ignore it. Members that
+ *  cannot be unreflected from this package (for example, public members of
+ *  a non-public class in another package) fall back to plain reflection.
+ * </p>
+ *
+ * <p>
+ * Setting the system property <code>{@value #REFLECTION_PROPERTY}</code> to
+ *  <code>true</code> makes the bindings created from then on use plain
+ *  reflection throughout, as they did before handles; the benchmarks
+ *  compare both that way.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+abstract class PropertyAccessor {
+
+	static final String REFLECTION_PROPERTY = "util.properties.reflection";
+
+	private static final MethodType GETTER_TYPE
+		= MethodType.methodType(Object.class, Object.class);
+	private static final MethodType SETTER_TYPE
+		= MethodType.methodType(void.class, Object.class, Object.class);
+
+	/**
+	 * @param target the object to read from
+	 * @return the current value of the property
+	 * @throws InvocationTargetException if the getter method throws
+	 */
+	abstract Object get(Object target) throws InvocationTargetException;
+
+	/**
+	 * @param target the object to write to
+	 * @param value the already-parsed value of the property
+	 * @throws InvocationTargetException if the setter method throws
+	 */
+	abstract void set(Object target, Object value)
+		throws InvocationTargetException;
+
+	static PropertyAccessor forGetter(Method getter) {
+		if(Boolean.getBoolean(REFLECTION_PROPERTY)) {
+			return new ReflectiveAccessor(null, getter, null);
+		}
+		try {
+			MethodHandle handle = MethodHandles.lookup().unreflect(getter);
+			return new MethodHandleAccessor(targetTypeOf(getter),
+					erase(handle, getter, GETTER_TYPE), null, null);
+		} catch (IllegalAccessException e) {
+			return new ReflectiveAccessor(null, getter, null);
+		}
+	}
+
+	static PropertyAccessor forSetter(Method setter) {
+		if(Boolean.getBoolean(REFLECTION_PROPERTY)) {
+			return new ReflectiveAccessor(null, null, setter);
+		}
+		try {
+			MethodHandle handle = MethodHandles.lookup().unreflect(setter);
+			return new MethodHandleAccessor(targetTypeOf(setter), null,
+					erase(handle, setter, SETTER_TYPE),
+					setter.getParameterTypes()[0]);
+		} catch (IllegalAccessException e) {
+			return new ReflectiveAccessor(null, null, setter);
+		}
+	}
+
+	static PropertyAccessor forFieldGetter(Field field) {
+		if(Boolean.getBoolean(REFLECTION_PROPERTY)) {
+			return new ReflectiveAccessor(field, null, null);
+		}
+		try {
+			MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+			return new FieldAccessor(erase(handle, field, GETTER_TYPE), null);
+		} catch (IllegalAccessException e) {
+			return new ReflectiveAccessor(field, null, null);
+		}
+	}
+
+	static PropertyAccessor forFieldSetter(Field field) {
+		if(Boolean.getBoolean(REFLECTION_PROPERTY)) {
+			return new ReflectiveAccessor(field, null, null);
+		}
+		try {
+			MethodHandle handle = MethodHandles.lookup().unreflectSetter(field);
+			return new FieldAccessor(null, erase(handle, field, SETTER_TYPE));
+		} catch (IllegalAccessException e) {
+			return new ReflectiveAccessor(field, null, null);
+		}
+	}
+
+	/**
+	 * @param handle the handle of a member, as unreflected
+	 * @param member the member
+	 * @param type the erased type to adapt the handle to
+	 * @return the handle, taking the target first even if the member is
+	 * 	static
+	 */
+	private static MethodHandle erase(MethodHandle handle, Member member,
+			MethodType type) {
+		if(Modifier.isStatic(member.getModifiers())) {
+			handle = MethodHandles.dropArguments(handle, 0, Object.class);
+		}
+		return handle.asType(type);
+	}
+
+	/**
+	 * @return the class targets of a method must be instances of, or null
+	 * 	if the method is static and any target will do
+	 */
+	private static Class<?> targetTypeOf(Method method) {
+		return Modifier.isStatic(method.getModifiers())
+			? null : method.getDeclaringClass();
+	}
+
+	/**
+	 * @param binder the compile-time generated binder of the property's class
+	 * @param index the index of the property in the binder
+	 * @param viaMethod whether the binder calls a getter/setter method (as
+	 * 	opposed to accessing the field directly) for this property
+	 */
+	static PropertyAccessor forBinder(PropertiesBinder binder, int index,
+			boolean viaMethod) {
+		return new BinderAccessor(binder, index, viaMethod);
+	}
+
+	private static final class BinderAccessor extends PropertyAccessor {
+		private final PropertiesBinder binder;
+		private final int index;
+		private final boolean viaMethod;
+
+		BinderAccessor(PropertiesBinder binder, int index, boolean viaMethod) {
+			this.binder = binder;
+			this.index = index;
+			this.viaMethod = viaMethod;
+		}
+
+		@Override
+		Object get(Object target) throws InvocationTargetException {
+			try {
+				return binder.get(target, index);
+			} catch (Exception e) {
+				throw failure(e);
+			}
+		}
+
+		@Override
+		void set(Object target, Object value)
+			throws InvocationTargetException {
+			try {
+				binder.set(target, index, value);
+			} catch (Exception e) {
+				throw failure(e);
+			}
+		}
+
+		private InvocationTargetException failure(Exception e) {
+			if(!viaMethod && e instanceof RuntimeException) {
+				// Direct field access; treat it like Field.get/set would.
+				throw (RuntimeException)e;
+			}
+			return new InvocationTargetException(e);
+		}
+	}
+
+	/**
+	 * Invokes getter/setter methods; exceptions they throw are user code
+	 *  failing, and are reported as an {@link InvocationTargetException}
+	 *  just like {@link Method#invoke} would. Arguments are checked first,
+	 *  so that a target or value of the wrong type (or null for a primitive)
+	 *  is an {@link IllegalArgumentException} instead, as with
+	 *  {@link Method#invoke}; errors are thrown as they are.
+	 */
+	private static final class MethodHandleAccessor extends PropertyAccessor {
+		// Null for static methods:
+		private final Class<?> targetType;
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+		// The setter's parameter type, boxed:
+		private final Class<?> valueType;
+		private final boolean primitive;
+
+		MethodHandleAccessor(Class<?> targetType, MethodHandle getter,
+				MethodHandle setter, Class<?> valueType) {
+			this.targetType = targetType;
+			this.getter = getter;
+			this.setter = setter;
+			this.valueType = (valueType == null) ? null
+				: MethodType.methodType(valueType).wrap().returnType();
+			this.primitive = (valueType != null) && valueType.isPrimitive();
+		}
+
+		@Override
+		Object get(Object target) throws InvocationTargetException {
+			checkTarget(target);
+			try {
+				return (Object)getter.invokeExact(target);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		@Override
+		void set(Object target, Object value)
+			throws InvocationTargetException {
+			checkTarget(target);
+			if(value == null ? primitive : !valueType.isInstance(value)) {
+				throw new IllegalArgumentException("Cannot pass "
+						+ (value == null ? "null" : value.getClass().getName())
+						+ " to a setter accepting " + valueType.getName());
+			}
+			try {
+				setter.invokeExact(target, value);
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				throw new InvocationTargetException(t);
+			}
+		}
+
+		private void checkTarget(Object target) {
+			if(targetType != null && !targetType.isInstance(target)) {
+				throw new IllegalArgumentException("Not an instance of "
+						+ targetType.getName() + ": " + target);
+			}
+		}
+	}
+
+	/**
+	 * Reads/writes fields directly; no user code runs, so failures (such as
+	 *  a value of the wrong type) surface as runtime exceptions, as they
+	 *  would with {@link Field#set}.
+	 */
+	private static final class FieldAccessor extends PropertyAccessor {
+		private final MethodHandle getter;
+		private final MethodHandle setter;
+
+		FieldAccessor(MethodHandle getter, MethodHandle setter) {
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		@Override
+		Object get(Object target) {
+			try {
+				return (Object)getter.invokeExact(target);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				// Should not happen; field access throws nothing checked.
+				throw new IllegalStateException(t);
+			}
+		}
+
+		@Override
+		void set(Object target, Object value) {
+			try {
+				setter.invokeExact(target, value);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Error e) {
+				throw e;
+			} catch (Throwable t) {
+				// Should not happen; field access throws nothing checked.
+				throw new IllegalStateException(t);
+			}
+		}
+	}
+
+	private static final class ReflectiveAccessor extends PropertyAccessor {
+		private final Field field;
+		private final Method getter;
+		private final Method setter;
+
+		ReflectiveAccessor(Field field, Method getter, Method setter) {
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		@Override
+		Object get(Object target) throws InvocationTargetException {
+			try {
+				return (getter != null)
+					? getter.invoke(target)
+					: field.get(target);
+			} catch (IllegalAccessException e) {
+				// Should not happen; we check for this in the binding
+				e.printStackTrace();
+			}
+			return null;
+		}
+
+		@Override
+		void set(Object target, Object value)
+			throws InvocationTargetException {
+			try {
+				if(setter != null) {
+					setter.invoke(target, value);
+				} else {
+					field.set(target, value);
+				}
+			} catch (IllegalAccessException e) {
+				// Should not happen; we check for this in the binding
+				e.printStackTrace();
+			}
+		}
+	}
+}
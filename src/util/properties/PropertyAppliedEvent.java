@@ -0,0 +1,82 @@
+package util.properties;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.EventType;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for applying a single property, split into parsing
+ *  its value and calling its setter (or setting its field).
+ *
+ * <p>
+ * There is one of these per property per apply, so it is disabled by
+ *  default; enable <code>util.properties.PropertyApplied</code> in the
+ *  recording's settings to get it.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+@Name("util.properties.PropertyApplied")
+@Label("Property Applied")
+@Description("Parsing and setting a single property")
+@Category("Property Annotations")
+@Enabled(false)
+@StackTrace(false)
+final class PropertyAppliedEvent extends jdk.jfr.Event {
+	@Label("Object Class")
+	Class<?> objectClass;
+
+	@Label("Name")
+	String name;
+
+	@Label("Type")
+	String type;
+
+	@Label("Value Length")
+	@Description("Length of the raw value, in characters")
+	int valueLength;
+
+	@Label("Default")
+	@Description("Whether the property's default value was used")
+	boolean isDefault;
+
+	@Label("Parse Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long parseTime;
+
+	@Label("Set Time")
+	@Timespan(Timespan.NANOSECONDS)
+	long setTime;
+
+	/**
+	 * Checks whether a recording wants this event before creating it, so
+	 * 	that nothing is allocated while Flight Recorder is off.
+	 * @return a started event, or null if this event is not being recorded
+	 */
+	static PropertyAppliedEvent beginIfRecorded() {
+		if(!isRecorded()) {
+			return null;
+		}
+		PropertyAppliedEvent event = new PropertyAppliedEvent();
+		event.begin();
+		return event;
+	}
+
+	/**
+	 * @return true if a recording wants this event
+	 */
+	static boolean isRecorded() {
+		return FlightRecorder.isInitialized() && Type.TYPE.isEnabled();
+	}
+
+	// Registers the event with Flight Recorder once it is running.
+	private static final class Type {
+		static final EventType TYPE = EventType.getEventType(PropertyAppliedEvent.class);
+	}
+}
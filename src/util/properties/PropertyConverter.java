@@ -0,0 +1,59 @@
+package util.properties;
+
+/**
+ * Turns the string value of a property into an object of the property's
+ *  type.
+ *
+ * <p>
+ * Converters are resolved once per property, when its
+ *  {@link PropertiesBinding} is built (see
+ *  {@link PropertiesParser#converterFor}), so applying a value is a single
+ *  call on a converter that only knows how to produce one type.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+abstract class PropertyConverter {
+
+	/**
+	 * @param string the string to convert
+	 * @return the converted value
+	 * @throws RuntimeException (typically a {@link NumberFormatException} or
+	 * 	{@link ClassCastException}) if the string cannot be converted
+	 */
+	abstract Object convert(String string);
+
+	/**
+	 * Converts part of a string, such as one element of a comma-separated
+	 * 	list. Converters that can parse in place override this to avoid
+	 * 	creating a substring.
+	 * @param string the string containing the value
+	 * @param begin the index of the first character of the value
+	 * @param end the index after the last character of the value
+	 * @return the converted value
+	 * @throws RuntimeException if the value cannot be converted
+	 */
+	Object convert(String string, int begin, int end) {
+		return convert(string.substring(begin, end));
+	}
+
+	/**
+	 * @return true if the values returned by {@link #convert} are immutable,
+	 * 	so that a single converted value may safely be shared (for example, a
+	 * 	parsed default value)
+	 */
+	boolean isImmutable() {
+		return false;
+	}
+
+	/**
+	 * @param value a value returned by {@link #convert}
+	 * @param string the string it was converted from
+	 * @return a value equal to the given one that shares nothing mutable
+	 * 	with it; by default, the value itself if values are immutable, or
+	 * 	the string converted again
+	 */
+	Object copy(Object value, String string) {
+		return isImmutable() ? value : convert(string);
+	}
+}
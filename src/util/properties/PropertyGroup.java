@@ -0,0 +1,237 @@
+package util.properties;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * The raw values of one object's properties, by slot index, along with
+ *  those of its nested objects.
+ *
+ * <p>
+ * Keys are sorted into groups in a single pass over the source, each key
+ *  being matched against the property names of its group's binding: a key
+ *  naming a property is kept as that property's value, while a key such as
+ *  <code>db.primary.host</code> (or <code>shards.7.weight</code>, for a
+ *  <code>List</code> of nested objects) is passed on, without its prefix,
+ *  to the group of the nested property it starts with. A nested group only
+ *  exists if at least one key belongs to it; keys that match no property,
+ *  or whose index has a leading zero (<code>shards.07.weight</code>), are
+ *  dropped.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class PropertyGroup {
+	// Indexes past this many digits are not bound, rather than overflowing.
+	private static final int MAX_INDEX_DIGITS = 9;
+
+	private final PropertiesBinding binding;
+	private final String[] values;
+
+	// By slot index, created on demand: a PropertyGroup for each nested
+	//  property, or a SortedMap<Integer,PropertyGroup> for a List of them.
+	private Object[] children;
+
+	PropertyGroup(PropertiesBinding binding) {
+		this.binding = binding;
+		this.values = new String[binding.getSlots().length];
+	}
+
+	/**
+	 * Groups some properties by their names, so that flat and nested keys
+	 * 	are both found in the defaults of the properties; those cannot be
+	 * 	walked but through a copy of the names.
+	 * @param binding the binding of the object the properties are for
+	 * @param properties the properties (including their defaults) to group
+	 * @return the grouped properties
+	 */
+	static PropertyGroup of(PropertiesBinding binding, Properties properties) {
+		PropertyGroup group = new PropertyGroup(binding);
+		for(String key : properties.stringPropertyNames()) {
+			group.put(key, properties.getProperty(key));
+		}
+		return group;
+	}
+
+	/**
+	 * @param key the key of a property, or of a property of a nested object
+	 * @param value the raw value for the key; replaces any previous value
+	 * @return true if the key was kept, false if it matches no property
+	 */
+	boolean put(CharSequence key, String value) {
+		return put(key, 0, value);
+	}
+
+	private boolean put(CharSequence key, int begin, String value) {
+		int index = binding.slotIndexOf(key, begin);
+		if(index >= 0 && !binding.getSlots()[index].isNested()) {
+			values[index] = value;
+			return true;
+		}
+
+		index = binding.nestedSlotIndexOf(key, begin);
+		if(index < 0) {
+			return false;
+		}
+		PropertySlot slot = binding.getSlots()[index];
+		int rest = begin + slot.getName().length() + 1;
+		if(!slot.isIndexed()) {
+			PropertyGroup child = (PropertyGroup)child(index);
+			boolean created = (child == null);
+			if(created) {
+				child = new PropertyGroup(slot.getNested().getBinding());
+			}
+			if(!child.put(key, rest, value)) {
+				return false;
+			}
+			if(created) {
+				children[index] = child;
+			}
+			return true;
+		}
+
+		// An index, then a dot; "07" is not taken for 7, so that no two keys
+		//  name the same element:
+		if(rest + 1 < key.length() && key.charAt(rest) == '0'
+		&& key.charAt(rest + 1) != '.') {
+			return false;
+		}
+		int end = rest;
+		int elementIndex = 0;
+		while(end < key.length() && end - rest < MAX_INDEX_DIGITS
+		&& key.charAt(end) >= '0' && key.charAt(end) <= '9') {
+			elementIndex = elementIndex * 10 + (key.charAt(end) - '0');
+			++end;
+		}
+		if(end == rest || end + 1 >= key.length() || key.charAt(end) != '.') {
+			return false;
+		}
+
+		@SuppressWarnings("unchecked")
+		SortedMap<Integer,PropertyGroup> elements
+			= (SortedMap<Integer,PropertyGroup>)child(index);
+		PropertyGroup element = (elements == null)
+			? null : elements.get(elementIndex);
+		boolean created = (element == null);
+		if(created) {
+			element = new PropertyGroup(slot.getNested().getBinding());
+		}
+		if(!element.put(key, end + 1, value)) {
+			return false;
+		}
+		if(created) {
+			if(elements == null) {
+				elements = new TreeMap<Integer,PropertyGroup>();
+				children[index] = elements;
+			}
+			elements.put(elementIndex, element);
+		}
+		return true;
+	}
+
+	private Object child(int index) {
+		if(children == null) {
+			children = new Object[values.length];
+		}
+		return children[index];
+	}
+
+	/**
+	 * @return the raw value of each property, by slot index, or null where
+	 * 	there is none; shared, not copied
+	 */
+	String[] getValues() {
+		return values;
+	}
+
+	/**
+	 * @param index the slot index of a property
+	 * @return the raw value of the property, or null if there is none
+	 */
+	String getValue(int index) {
+		return values[index];
+	}
+
+	/**
+	 * @param index the slot index of a nested property
+	 * @return the group of the nested object, or null if no key belongs to
+	 * 	it
+	 */
+	PropertyGroup getChild(int index) {
+		return children == null ? null : (PropertyGroup)children[index];
+	}
+
+	/**
+	 * @param index the slot index of a <code>List</code> of nested objects
+	 * @return the group of each element, by index, or null if no key
+	 * 	belongs to any
+	 */
+	@SuppressWarnings("unchecked")
+	SortedMap<Integer,PropertyGroup> getElements(int index) {
+		return children == null
+			? null : (SortedMap<Integer,PropertyGroup>)children[index];
+	}
+
+	/**
+	 * @param index the slot index of a nested property
+	 * @return true if any key belongs to the nested object (or, for a
+	 * 	<code>List</code>, to any element)
+	 */
+	boolean hasChild(int index) {
+		return children != null && children[index] != null;
+	}
+
+	/**
+	 * @param index the slot index of a nested property
+	 * @return the keys of the nested property (a group, or a map of them),
+	 * 	to be compared with {@link Object#equals} only, or null if there
+	 * 	are none
+	 */
+	Object getNestedKeys(int index) {
+		return children == null ? null : children[index];
+	}
+
+	/**
+	 * @return true if the other group is for the same binding and holds the
+	 * 	same values, all the way down
+	 */
+	@Override
+	public boolean equals(Object other) {
+		if(!(other instanceof PropertyGroup)) {
+			return false;
+		}
+		PropertyGroup group = (PropertyGroup)other;
+		if(binding != group.binding || !Arrays.equals(values, group.values)) {
+			return false;
+		}
+		for(int i=0; i < values.length; ++i) {
+			Object child = getNestedKeys(i);
+			Object otherChild = group.getNestedKeys(i);
+			if(child == null ? otherChild != null : !child.equals(otherChild)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(values);
+	}
+
+	/**
+	 * Puts every entry of a map whose key and value are not null.
+	 * @param properties the entries to group
+	 */
+	void putAll(Map<? extends CharSequence, ? extends CharSequence> properties) {
+		for(Map.Entry<? extends CharSequence, ? extends CharSequence> entry
+				: properties.entrySet()) {
+			if(entry.getKey() != null && entry.getValue() != null) {
+				put(entry.getKey(), entry.getValue().toString());
+			}
+		}
+	}
+}
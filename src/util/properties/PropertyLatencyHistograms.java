@@ -0,0 +1,131 @@
+package util.properties;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>
+ * A {@link PropertiesListener} that keeps a {@link LatencyHistogram} of
+ *  parse, setter and getter times, and a failure count, for every property
+ *  it hears about. It is meant to stay attached in production: recording
+ *  takes no locks and, past the first call for each property, allocates
+ *  nothing.
+ * </p>
+ *
+ * <p>
+ * Example, to find out which setters make reloads slow:
+ * <pre>
+ * PropertyLatencyHistograms histograms = new PropertyLatencyHistograms();
+ * propHandler.addListener(histograms);
+ * ...
+ * for(String name : histograms.getPropertyNames()) {
+ *     System.out.println(name + ": " + histograms.getSetterTimes(name));
+ * }
+ * </pre>
+ * </p>
+ *
+ * <p>
+ * One instance may listen to several handlers; properties of the same name
+ *  then share their histograms.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+public final class PropertyLatencyHistograms implements PropertiesListener {
+	private static final class PropertyHistograms {
+		final LatencyHistogram parseTimes = new LatencyHistogram();
+		final LatencyHistogram setterTimes = new LatencyHistogram();
+		final LatencyHistogram getterTimes = new LatencyHistogram();
+		final AtomicLong failures = new AtomicLong();
+	}
+
+	private final ConcurrentHashMap<String,PropertyHistograms> properties
+		= new ConcurrentHashMap<String,PropertyHistograms>();
+
+	@Override
+	public void parseStarted(String propertyName) {
+		// Durations are recorded when parsing ends.
+	}
+
+	@Override
+	public void parseEnded(String propertyName, long nanos) {
+		histogramsOf(propertyName).parseTimes.record(nanos);
+	}
+
+	@Override
+	public void setterInvoked(String propertyName, long nanos) {
+		histogramsOf(propertyName).setterTimes.record(nanos);
+	}
+
+	@Override
+	public void getterInvoked(String propertyName, long nanos) {
+		histogramsOf(propertyName).getterTimes.record(nanos);
+	}
+
+	@Override
+	public void failed(String propertyName, Exception failure) {
+		histogramsOf(propertyName).failures.incrementAndGet();
+	}
+
+	/**
+	 * @return the names of every property heard about so far, sorted
+	 */
+	public Set<String> getPropertyNames() {
+		return Collections.unmodifiableSet(
+				new TreeSet<String>(properties.keySet()));
+	}
+
+	/**
+	 * @param propertyName the name of a property
+	 * @return how long its values took to parse, or null if it was never
+	 * 	heard about
+	 */
+	public LatencyHistogram getParseTimes(String propertyName) {
+		PropertyHistograms histograms = properties.get(propertyName);
+		return histograms == null ? null : histograms.parseTimes;
+	}
+
+	/**
+	 * @param propertyName the name of a property
+	 * @return how long its setter (or field writes) took, or null if it was
+	 * 	never heard about
+	 */
+	public LatencyHistogram getSetterTimes(String propertyName) {
+		PropertyHistograms histograms = properties.get(propertyName);
+		return histograms == null ? null : histograms.setterTimes;
+	}
+
+	/**
+	 * @param propertyName the name of a property
+	 * @return how long its getter (or field reads) took, or null if it was
+	 * 	never heard about
+	 */
+	public LatencyHistogram getGetterTimes(String propertyName) {
+		PropertyHistograms histograms = properties.get(propertyName);
+		return histograms == null ? null : histograms.getterTimes;
+	}
+
+	/**
+	 * @param propertyName the name of a property
+	 * @return how many times a handler failed because of it
+	 */
+	public long getFailureCount(String propertyName) {
+		PropertyHistograms histograms = properties.get(propertyName);
+		return histograms == null ? 0 : histograms.failures.get();
+	}
+
+	private PropertyHistograms histogramsOf(String propertyName) {
+		PropertyHistograms histograms = properties.get(propertyName);
+		if(histograms == null) {
+			PropertyHistograms newHistograms = new PropertyHistograms();
+			histograms = properties.putIfAbsent(propertyName, newHistograms);
+			if(histograms == null) {
+				histograms = newHistograms;
+			}
+		}
+		return histograms;
+	}
+}
@@ -0,0 +1,176 @@
+package util.properties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A read-only trie over the property names of a {@link PropertiesBinding},
+ *  mapping a name, given as raw characters, to its slot index.
+ *
+ * <p>
+ * Looking a key up takes one step per character and stops at the first
+ *  character that no property name continues with, so most keys that are
+ *  not properties of the class (typically the vast majority of a shared
+ *  configuration file) are rejected after a character or two, and no key
+ *  ever has to be turned into a <code>String</code> first.
+ * </p>
+ *
+ * <p>
+ * The trie is stored as flat arrays: node <code>n</code> owns the edges
+ *  <code>[firstEdge[n], firstEdge[n + 1])</code>, sorted by label, and edge
+ *  <code>e</code> leads to node <code>targets[e]</code> on the character
+ *  <code>labels[e]</code>.
+ * </p>
+ *
+ * @author Louis Acresti
+ */
+final class PropertyNameTrie {
+	private final int[] firstEdge;
+	private final char[] labels;
+	private final int[] targets;
+
+	// The index of the slot whose name ends at each node, or -1:
+	private final int[] slotIndexes;
+
+	/**
+	 * @param slots the slots to index by name
+	 */
+	PropertyNameTrie(PropertySlot[] slots) {
+		PropertySlot[] sorted = slots.clone();
+		Arrays.sort(sorted, new Comparator<PropertySlot>() {
+			@Override
+			public int compare(PropertySlot a, PropertySlot b) {
+				return a.getName().compareTo(b.getName());
+			}
+		});
+
+		// Nodes are numbered breadth-first, so that every node's edges are
+		//  added right after those of the node before it. Each node covers
+		//  the range of sorted names {from, to} sharing its prefix of length
+		//  depth.
+		List<int[]> nodes = new ArrayList<int[]>();
+		List<Integer> firstEdge = new ArrayList<Integer>();
+		List<Integer> slotIndexes = new ArrayList<Integer>();
+		List<Integer> targets = new ArrayList<Integer>();
+		StringBuilder labels = new StringBuilder();
+
+		nodes.add(new int[] { 0, sorted.length, 0 });
+		for(int node=0; node < nodes.size(); ++node) {
+			int from = nodes.get(node)[0];
+			int to = nodes.get(node)[1];
+			int depth = nodes.get(node)[2];
+
+			int slotIndex = -1;
+			if(from < to && sorted[from].getName().length() == depth) {
+				// Shorter names sort first.
+				slotIndex = sorted[from].getIndex();
+				++from;
+			}
+			slotIndexes.add(slotIndex);
+			firstEdge.add(labels.length());
+
+			while(from < to) {
+				char label = sorted[from].getName().charAt(depth);
+				int end = from + 1;
+				while(end < to && sorted[end].getName().charAt(depth) == label) {
+					++end;
+				}
+				labels.append(label);
+				targets.add(nodes.size());
+				nodes.add(new int[] { from, end, depth + 1 });
+				from = end;
+			}
+		}
+		firstEdge.add(labels.length());
+
+		this.firstEdge = toArray(firstEdge);
+		this.slotIndexes = toArray(slotIndexes);
+		this.targets = toArray(targets);
+		this.labels = labels.toString().toCharArray();
+	}
+
+	/**
+	 * @param chars a buffer holding the name of a property
+	 * @param length the length of the name
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int indexOf(char[] chars, int length) {
+		int node = 0;
+		for(int i=0; i < length && node >= 0; ++i) {
+			node = child(node, chars[i]);
+		}
+		return node < 0 ? -1 : slotIndexes[node];
+	}
+
+	/**
+	 * @param name the name of a property
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int indexOf(CharSequence name) {
+		return indexOf(name, 0);
+	}
+
+	/**
+	 * @param key a string ending with the name of a property
+	 * @param begin the index of the first character of the name
+	 * @return the index of the slot with the given name, or -1 if there is no
+	 * 	such property
+	 */
+	int indexOf(CharSequence key, int begin) {
+		int node = 0;
+		for(int i=begin; i < key.length() && node >= 0; ++i) {
+			node = child(node, key.charAt(i));
+		}
+		return node < 0 ? -1 : slotIndexes[node];
+	}
+
+	/**
+	 * @param key a string starting with the name of a nested property, then
+	 * 	a dot
+	 * @param begin the index of the first character of the name
+	 * @param slots the slots this trie was built from
+	 * @return the index of the longest such nested property, or -1 if there
+	 * 	is none
+	 */
+	int prefixIndexOf(CharSequence key, int begin, PropertySlot[] slots) {
+		int found = -1;
+		int node = 0;
+		for(int i=begin; i < key.length() - 1 && node >= 0; ++i) {
+			node = child(node, key.charAt(i));
+			if(node >= 0 && key.charAt(i + 1) == '.' && slotIndexes[node] >= 0
+			&& slots[slotIndexes[node]].isNested()) {
+				found = slotIndexes[node];
+			}
+		}
+		return found;
+	}
+
+	private int child(int node, char c) {
+		int low = firstEdge[node];
+		int high = firstEdge[node + 1] - 1;
+		while(low <= high) {
+			int middle = (low + high) >>> 1;
+			char label = labels[middle];
+			if(label < c) {
+				low = middle + 1;
+			} else if(label > c) {
+				high = middle - 1;
+			} else {
+				return targets[middle];
+			}
+		}
+		return -1;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		int[] array = new int[list.size()];
+		for(int i=0; i < array.length; ++i) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+}
@@ -0,0 +1,167 @@
+package util.properties;
+
+import java.lang.reflect.Type;
+
+/**
+ * Everything a {@link PropertiesBinding} knows about one property: its name,
+ *  type, default value, and the compiled accessors and converter used to
+ *  read, write, and parse it (or, for a nested property, the
+ *  {@link NestedBinding} of its objects).
+ *
+ * @author Louis Acresti
+ */
+final class PropertySlot {
+	private final int index;
+	private final String name;
+	private final Type type;
+	private final String defaultValue;
+	private final PropertyAccessor reader;
+	private final PropertyAccessor writer;
+	private final PropertyConverter converter;
+	private final NestedBinding nested;
+	private final boolean indexed;
+	private final boolean defaultParsed;
+	private final Object parsedDefault;
+
+	PropertySlot(int index, String name, Type type, String defaultValue,
+			PropertyAccessor reader, PropertyAccessor writer,
+			PropertyConverter converter) {
+		this(index, name, type, defaultValue, reader, writer, converter, null,
+				false);
+	}
+
+	/**
+	 * @param nested the binding of the nested objects, or null if this is
+	 * 	not a nested property
+	 * @param indexed true if this property is a <code>List</code> of nested
+	 * 	objects, rather than a single one
+	 */
+	PropertySlot(int index, String name, Type type, String defaultValue,
+			PropertyAccessor reader, PropertyAccessor writer,
+			PropertyConverter converter, NestedBinding nested,
+			boolean indexed) {
+		this.index = index;
+		this.name = name;
+		this.type = type;
+		this.defaultValue = defaultValue;
+		this.reader = reader;
+		this.writer = writer;
+		this.converter = converter;
+		this.nested = nested;
+		this.indexed = indexed;
+
+		// Immutable defaults only need to be parsed once. A default that
+		//  fails to parse is left to fail (and be reported) when applied.
+		Object parsedDefault = null;
+		boolean defaultParsed = false;
+		if(defaultValue != null && converter.isImmutable()) {
+			try {
+				parsedDefault = converter.convert(defaultValue);
+				defaultParsed = true;
+			} catch (RuntimeException e) {
+				defaultParsed = false;
+			}
+		}
+		this.parsedDefault = parsedDefault;
+		this.defaultParsed = defaultParsed;
+	}
+
+	/**
+	 * @return the position of this slot in {@link PropertiesBinding#getSlots()}
+	 */
+	int getIndex() {
+		return index;
+	}
+
+	String getName() {
+		return name;
+	}
+
+	Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the unparsed default value, or null if the property is required
+	 */
+	String getDefaultValue() {
+		return defaultValue;
+	}
+
+	/**
+	 * @return the getter/field accessor, or null if the property cannot be read
+	 */
+	PropertyAccessor getReader() {
+		return reader;
+	}
+
+	/**
+	 * @return the setter/field accessor, or null if the property cannot be
+	 * 	written
+	 */
+	PropertyAccessor getWriter() {
+		return writer;
+	}
+
+	/**
+	 * @return true if this property is bound from the keys prefixed with
+	 * 	its name, rather than parsed from a single value
+	 */
+	boolean isNested() {
+		return nested != null;
+	}
+
+	/**
+	 * @return true if this property is a <code>List</code> of nested
+	 * 	objects, each bound from the keys prefixed with its name and index
+	 */
+	boolean isIndexed() {
+		return indexed;
+	}
+
+	/**
+	 * @return the binding of the nested objects, or null if this is not a
+	 * 	nested property
+	 */
+	NestedBinding getNested() {
+		return nested;
+	}
+
+	/**
+	 * @return true if parsed values of this property can be shared, because
+	 * 	they cannot be changed
+	 */
+	boolean isImmutable() {
+		return converter.isImmutable();
+	}
+
+	/**
+	 * @param valueString the string to parse
+	 * @return the value of this property parsed from the given string
+	 * @throws RuntimeException if the string cannot be parsed
+	 */
+	Object parse(String valueString) {
+		return converter.convert(valueString);
+	}
+
+	/**
+	 * @param value a value of this property, as returned by {@link #parse}
+	 * 	or {@link #parseDefault}
+	 * @param valueString the string it was parsed from, or null for the
+	 * 	default value
+	 * @return a value equal to the given one that shares nothing mutable
+	 * 	with it (which may be the value itself, if it is immutable)
+	 */
+	Object copy(Object value, String valueString) {
+		return converter.copy(value,
+				valueString != null ? valueString : defaultValue);
+	}
+
+	/**
+	 * @return the parsed default value of this property
+	 * @throws RuntimeException if the default value cannot be parsed
+	 */
+	Object parseDefault() {
+		return defaultParsed ? parsedDefault : converter.convert(defaultValue);
+	}
+}
@@ -0,0 +1,136 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Guards the allocation rate of {@link PropertiesHandler#applyProperties} on
+ *  a warm handler: each case binds a single property and has a fixed budget
+ *  of bytes per call, which only covers the value itself (a box, an array,
+ *  a collection and its elements). A stray <code>substring</code>, boxing
+ *  or temporary array in the apply path makes these tests fail.
+ *
+ * <p>
+ * Budgets assume a 64-bit JVM with compressed oops (the default below a
+ *  32GB heap), where an <code>Integer</code> takes 16 bytes, a
+ *  <code>Long</code> 24, and an array 16 plus its elements.
+ * </p>
+ *
+ * @author lacresti
+ *
+ */
+public class AllocationTest {
+	private static final int WARMUP_CALLS = 20000;
+	private static final int MEASURED_CALLS = 10000;
+
+	// Tolerance for the whole measurement (not per call), for the odd
+	//  allocation made by the JVM itself.
+	private static final long NOISE_BYTES = 4096;
+
+	private static com.sun.management.ThreadMXBean threadBean;
+
+	@BeforeClass
+	public static void setUpThreadBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+		threadBean = (com.sun.management.ThreadMXBean)bean;
+		assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+		threadBean.setThreadAllocatedMemoryEnabled(true);
+	}
+
+	public static class IntHolder { @Property public int value; }
+	public static class LongHolder { @Property public long value; }
+	public static class DoubleHolder { @Property public double value; }
+	public static class BooleanHolder { @Property public boolean value; }
+	public static class CachedIntegerHolder { @Property public Integer value; }
+	public static class StringHolder { @Property public String value; }
+	public static class IntArrayHolder { @Property public int[] value; }
+	public static class IntegerArrayHolder { @Property public Integer[] value; }
+	public static class StringArrayHolder { @Property public String[] value; }
+	public static class IntegerListHolder {
+		@Property public List<Integer> value;
+	}
+	public static class StringSetHolder { @Property public Set<String> value; }
+	public static class IntArrayListHolder {
+		@Property public IntArrayList value;
+	}
+	public static class LongHashSetHolder {
+		@Property public LongHashSet value;
+	}
+
+	static String tenInts = "1,2,3,4,5,6,7,8,9,10";
+	static String tenStrings = "a,b,c,d,e,f,g,h,i,j";
+
+	/**
+	 * Fails if applying <code>value</code> to a fresh <code>holder</code>
+	 * 	allocates more than <code>budget</code> bytes per call, once warm.
+	 */
+	private static void assertAllocationBudget(Object holder, String value,
+			long budget) throws Exception {
+		PropertiesHandler handler = new PropertiesHandler(holder);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("value", value);
+
+		for(int i=0; i < WARMUP_CALLS; ++i) {
+			handler.applyProperties(loadedProperties);
+		}
+
+		long threadId = Thread.currentThread().getId();
+		long before = threadBean.getThreadAllocatedBytes(threadId);
+		for(int i=0; i < MEASURED_CALLS; ++i) {
+			handler.applyProperties(loadedProperties);
+		}
+		long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+		assertTrue(holder.getClass().getSimpleName() + " allocated "
+				+ (allocated / (double)MEASURED_CALLS)
+				+ " bytes per call; budget is " + budget,
+				allocated <= budget * MEASURED_CALLS + NOISE_BYTES);
+	}
+
+	@Test
+	public void testScalars() throws Exception {
+		assertAllocationBudget(new IntHolder(), "1234567", 16); // Integer
+		assertAllocationBudget(new LongHolder(), "28540939849", 24); // Long
+		assertAllocationBudget(new BooleanHolder(), "true", 0);
+		assertAllocationBudget(new CachedIntegerHolder(), "42", 0);
+		// Double, plus the JDK's own parsing buffer:
+		assertAllocationBudget(new DoubleHolder(), "3.25", 80);
+	}
+
+	@Test
+	public void testStrings() throws Exception {
+		assertAllocationBudget(new StringHolder(), "Douglas Adams", 0);
+	}
+
+	@Test
+	public void testArrays() throws Exception {
+		// The arrays themselves (16 + 10 * 4 bytes):
+		assertAllocationBudget(new IntArrayHolder(), tenInts, 56);
+		assertAllocationBudget(new IntegerArrayHolder(), tenInts, 56);
+		// ...plus a String (and its bytes) per element:
+		assertAllocationBudget(new StringArrayHolder(), tenStrings,
+				56 + 10 * 48);
+	}
+
+	@Test
+	public void testCollections() throws Exception {
+		// ArrayList and its Object[10]:
+		assertAllocationBudget(new IntegerListHolder(), tenInts, 24 + 56);
+		// IntArrayList and its int[10]:
+		assertAllocationBudget(new IntArrayListHolder(), tenInts, 24 + 56);
+		// LongHashSet and its long[16]:
+		assertAllocationBudget(new LongHashSetHolder(), tenInts, 32 + 144);
+		// HashSet, HashMap, table, then a node and a String per element:
+		assertAllocationBudget(new StringSetHolder(), tenStrings, 944);
+	}
+}
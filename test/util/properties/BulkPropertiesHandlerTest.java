@@ -0,0 +1,260 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class BulkPropertiesHandlerTest {
+	public static class TenantConfig {
+		@Property
+		public int quota;
+
+		@Property(defaultValue="anonymous")
+		public String owner;
+
+		@Property(defaultValue="")
+		public int[] shards;
+
+		@Property(defaultValue="")
+		public List<String> regions;
+	}
+
+	public static class ShardConfig {
+		@Property
+		public int quota;
+
+		@Property(defaultValue="false")
+		public boolean readOnly;
+
+		private String host;
+
+		@PropertySetter(defaultValue="localhost")
+		public void setHost(String newHost) {
+			if(newHost.isEmpty()) {
+				throw new IllegalArgumentException("Empty host");
+			}
+			host = newHost;
+		}
+
+		@PropertyGetter
+		public String getHost() {
+			return host;
+		}
+	}
+
+	private static List<Object> population(int count) {
+		List<Object> objects = new ArrayList<Object>();
+		for(int i=0; i < count; ++i) {
+			objects.add(i % 3 == 0 ? new ShardConfig() : new TenantConfig());
+		}
+		return objects;
+	}
+
+	@Test
+	public void testApplySharedProperties()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		List<Object> objects = population(5000);
+		BulkPropertiesHandler bulk = new BulkPropertiesHandler(objects);
+		assertEquals(5000, bulk.size());
+
+		Properties shared = new Properties();
+		shared.setProperty("quota", "10");
+		shared.setProperty("shards", "1,2,3");
+		shared.setProperty("regions", "eu,us");
+		shared.setProperty("readOnly", "true");
+		bulk.applyProperties(shared);
+
+		TenantConfig first = (TenantConfig)objects.get(1);
+		TenantConfig second = (TenantConfig)objects.get(4999);
+		assertEquals(10, first.quota);
+		assertEquals("anonymous", first.owner);
+		assertArrayEquals(new int[] {1,2,3}, second.shards);
+		assertEquals(Arrays.asList("eu", "us"), second.regions);
+		// Mutable values are not shared:
+		assertNotSame(first.shards, second.shards);
+		assertNotSame(first.regions, second.regions);
+
+		ShardConfig shard = (ShardConfig)objects.get(4998 - 4998 % 3);
+		assertEquals(10, shard.quota);
+		assertTrue(shard.readOnly);
+		assertEquals("localhost", shard.getHost());
+
+		// Nothing is changed unless every value parses:
+		shared.setProperty("quota", "11");
+		shared.setProperty("shards", "1,two");
+		try {
+			bulk.applyProperties(shared);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			assertEquals("shards", e.getPropertyName());
+		}
+		assertEquals(10, first.quota);
+		assertEquals(10, shard.quota);
+
+		shared.remove("shards");
+		shared.remove("quota");
+		try {
+			bulk.applyProperties(shared);
+			fail("PropertyMissingException not thrown");
+		} catch (PropertyMissingException e) {
+			assertEquals("quota", e.getPropertyName());
+		}
+		assertEquals(10, first.quota);
+	}
+
+	@Test
+	public void testApplyPerObjectProperties()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		List<Object> objects = population(3000);
+		// Runs every chunk on the calling thread:
+		BulkPropertiesHandler bulk = new BulkPropertiesHandler(objects,
+				new Executor() {
+					@Override
+					public void execute(Runnable command) {
+						command.run();
+					}
+				});
+
+		List<Properties> perObject = new ArrayList<Properties>();
+		for(int i=0; i < objects.size(); ++i) {
+			Properties properties = new Properties();
+			properties.setProperty("quota", Integer.toString(i));
+			properties.setProperty("owner", "tenant" + i);
+			perObject.add(properties);
+		}
+		bulk.applyProperties(perObject);
+		assertEquals(2999, ((TenantConfig)objects.get(2999)).quota);
+		assertEquals("tenant2999", ((TenantConfig)objects.get(2999)).owner);
+		assertEquals(1500, ((ShardConfig)objects.get(1500)).quota);
+
+		// A malformed value only leaves its own object untouched:
+		perObject.get(1).setProperty("quota", "lots");
+		perObject.get(1).setProperty("owner", "changed");
+		perObject.get(2).setProperty("quota", "42");
+		try {
+			bulk.applyProperties(perObject);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			assertEquals("quota", e.getPropertyName());
+		}
+		assertEquals("tenant1", ((TenantConfig)objects.get(1)).owner);
+		assertEquals(42, ((TenantConfig)objects.get(2)).quota);
+
+		// So does a failing setter:
+		perObject.get(1).setProperty("quota", "1");
+		perObject.get(3).setProperty("host", "");
+		perObject.get(2999).setProperty("quota", "7");
+		try {
+			bulk.applyProperties(perObject);
+			fail("PropertyInvocationTargetException not thrown");
+		} catch (PropertyInvocationTargetException e) {
+			assertEquals("host", e.getPropertyName());
+		}
+		assertEquals(7, ((TenantConfig)objects.get(2999)).quota);
+
+		try {
+			bulk.applyProperties(perObject.subList(0, 10));
+			fail("IllegalArgumentException not thrown");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	@Test
+	public void testRejectedChunks()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		List<Object> objects = population(3000);
+		// Runs the first chunk late, on its own thread, and rejects the rest:
+		BulkPropertiesHandler bulk = new BulkPropertiesHandler(objects,
+				new Executor() {
+					private boolean accepted;
+					
+					@Override
+					public void execute(final Runnable command) {
+						if(accepted) {
+							throw new RejectedExecutionException("Full");
+						}
+						accepted = true;
+						new Thread(new Runnable() {
+							@Override
+							public void run() {
+								try {
+									Thread.sleep(200);
+								} catch (InterruptedException e) {
+									// Run it now, then.
+								}
+								command.run();
+							}
+						}).start();
+					}
+				});
+
+		Properties shared = new Properties();
+		shared.setProperty("quota", "10");
+		try {
+			bulk.applyProperties(shared);
+			fail("RejectedExecutionException not thrown");
+		} catch (RejectedExecutionException e) {
+			// Expected
+		}
+		// The accepted chunk is done by then, and the others never ran:
+		assertEquals(10, ((TenantConfig)objects.get(1022)).quota);
+		assertEquals(0, ((TenantConfig)objects.get(1024)).quota);
+	}
+
+	@Test
+	public void testExtractPrefixedProperties()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		List<Object> objects = population(2500);
+		BulkPropertiesHandler bulk = new BulkPropertiesHandler(objects);
+		Properties shared = new Properties();
+		shared.setProperty("quota", "10");
+		shared.setProperty("owner", "a b=c");
+		shared.setProperty("regions", "eu,us");
+		bulk.applyProperties(shared);
+
+		List<String> prefixes = new ArrayList<String>();
+		for(int i=0; i < objects.size(); ++i) {
+			prefixes.add("tenant" + i + ".");
+		}
+		Properties extracted = bulk.extractProperties(prefixes);
+		assertEquals("10", extracted.getProperty("tenant2499.quota"));
+		assertEquals("a b=c", extracted.getProperty("tenant1.owner"));
+		assertEquals("eu,us", extracted.getProperty("tenant2.regions"));
+		assertEquals("localhost", extracted.getProperty("tenant0.host"));
+		assertNull(extracted.getProperty("tenant0.owner"));
+
+		StringBuilder text = new StringBuilder();
+		bulk.extractProperties(prefixes, text);
+		assertTrue(text.indexOf("tenant0.quota=10") == 0);
+		Properties reloaded = new Properties();
+		reloaded.load(new StringReader(text.toString()));
+		assertEquals(extracted, reloaded);
+	}
+}
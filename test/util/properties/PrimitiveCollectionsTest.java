@@ -0,0 +1,120 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class PrimitiveCollectionsTest {
+
+	@Test
+	public void testIntArrayList() {
+		IntArrayList list = new IntArrayList(0);
+		for(int i=0; i < 100; ++i) {
+			list.add(i * 3);
+		}
+
+		assertEquals(100, list.size());
+		assertEquals(42, list.get(14));
+		assertEquals(42, list.set(14, -1));
+		assertEquals(-1, list.get(14));
+		assertTrue(list.contains(297));
+		assertFalse(list.contains(298));
+		assertEquals(new IntArrayList(list.toArray()), list);
+		assertEquals(new IntArrayList(list.toArray()).hashCode(),
+				list.hashCode());
+
+		list.clear();
+		assertTrue(list.isEmpty());
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testIntArrayListBounds() {
+		IntArrayList list = new IntArrayList();
+		list.add(1);
+		list.get(1);
+	}
+
+	@Test
+	public void testDoubleArrayListToString() {
+		DoubleArrayList list = new DoubleArrayList(new double[] {0.5, -2});
+		assertEquals("0.5,-2.0", list.toString());
+		assertEquals("", new LongArrayList().toString());
+	}
+
+	@Test
+	public void testLongHashSetAgainstHashSet() {
+		Random random = new Random(42);
+		LongHashSet set = new LongHashSet();
+		Set<Long> expected = new HashSet<Long>();
+
+		for(int i=0; i < 100000; ++i) {
+			// A small range forces lots of collisions and removals.
+			long value = random.nextInt(5000) - 100;
+			if(random.nextInt(3) == 0) {
+				assertEquals(expected.remove(value), set.remove(value));
+			} else {
+				assertEquals(expected.add(value), set.add(value));
+			}
+		}
+
+		assertEquals(expected.size(), set.size());
+		for(long value=-100; value < 4900; ++value) {
+			assertEquals(expected.contains(value), set.contains(value));
+		}
+		assertEquals(expected.hashCode(), set.hashCode());
+
+		long[] elements = set.toArray();
+		Arrays.sort(elements);
+		assertEquals(expected.size(), elements.length);
+		for(long value : elements) {
+			assertTrue(expected.contains(value));
+		}
+	}
+
+	@Test
+	public void testIntHashSetZeroAndEquality() {
+		IntHashSet set = new IntHashSet(0);
+		assertTrue(set.add(0));
+		assertFalse(set.add(0));
+		assertTrue(set.add(7));
+		assertEquals("0,7", set.toString());
+
+		IntHashSet other = new IntHashSet(100);
+		other.add(7);
+		other.add(0);
+		assertEquals(set, other);
+
+		assertTrue(set.remove(0));
+		assertFalse(set.contains(0));
+		assertEquals(1, set.size());
+	}
+
+	@Test(timeout=10000)
+	public void testHashSetsRejectOversizedTables() {
+		// Past 3 << 28 elements, the table would need 1 << 31 slots:
+		int[] sizes = { (3 << 28) + 1, Integer.MAX_VALUE };
+		for(int size : sizes) {
+			try {
+				new IntHashSet(size);
+				fail("IllegalArgumentException not thrown for " + size);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+			try {
+				new LongHashSet(size);
+				fail("IllegalArgumentException not thrown for " + size);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+}
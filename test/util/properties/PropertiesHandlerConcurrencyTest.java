@@ -0,0 +1,208 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * Applies and extracts the same handler from several threads at once.
+ *
+ * @author lacresti
+ *
+ */
+public class PropertiesHandlerConcurrencyTest {
+	private static final int APPLIES = 1000;
+	private static final String[] NAMES = {
+		"a", "b", "c", "d", "e", "f", "g", "h", "pair", "otherPair"
+	};
+
+	// Every value is a generation number; each pair is only consistent
+	//  once its setter has returned.
+	public static class Counters {
+		@Property public long a;
+		@Property public long b;
+		@Property public long c;
+		@Property public long d;
+		@Property public long e;
+		@Property public long f;
+		@Property public long g;
+		@Property public long h;
+
+		private long left;
+		private long right;
+		private long otherLeft;
+		private long otherRight;
+
+		@PropertySetter(name="pair")
+		public void setPair(String pair) {
+			left = Long.parseLong(pair.substring(0, pair.indexOf(':')));
+			Thread.yield();
+			right = Long.parseLong(pair.substring(pair.indexOf(':') + 1));
+		}
+
+		@PropertyGetter(name="pair")
+		public String getPair() {
+			return left + ":" + right;
+		}
+
+		@PropertySetter(name="otherPair")
+		public void setOtherPair(String pair) {
+			otherLeft = Long.parseLong(pair.substring(0, pair.indexOf(':')));
+			Thread.yield();
+			otherRight = Long.parseLong(pair.substring(pair.indexOf(':') + 1));
+		}
+
+		@PropertyGetter(name="otherPair")
+		public String getOtherPair() {
+			return otherLeft + ":" + otherRight;
+		}
+	}
+
+	private static Map<String,String> generation(long generation) {
+		Map<String,String> values = new HashMap<String,String>();
+		for(String name : NAMES) {
+			values.put(name, name.endsWith("air")
+					? generation + ":" + generation
+					: Long.toString(generation));
+		}
+		return values;
+	}
+
+	private static long generationOf(Properties extracted, String name) {
+		String value = extracted.getProperty(name);
+		int colon = value.indexOf(':');
+		if(colon < 0) {
+			return Long.parseLong(value);
+		}
+		long left = Long.parseLong(value.substring(0, colon));
+		long right = Long.parseLong(value.substring(colon + 1));
+		if(left != right) {
+			throw new AssertionError(name + " extracted halfway set: "
+					+ value);
+		}
+		return left;
+	}
+
+	@Test
+	public void testExtractWhileApplying() throws Exception {
+		final Counters counters = new Counters();
+		final PropertiesHandler handler = new PropertiesHandler(counters);
+		handler.applyProperties(generation(0));
+
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<Throwable> failure
+			= new AtomicReference<Throwable>();
+		List<Thread> readers = new ArrayList<Thread>();
+		for(int r=0; r < 2; ++r) {
+			readers.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					long[] seen = new long[NAMES.length];
+					try {
+						while(!done.get()) {
+							Properties extracted = handler.extractProperties();
+							for(int i=0; i < NAMES.length; ++i) {
+								long generation
+									= generationOf(extracted, NAMES[i]);
+								// Applies are never seen undone:
+								assertTrue(NAMES[i] + " went back",
+										generation >= seen[i]);
+								seen[i] = generation;
+							}
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			}));
+		}
+		for(Thread reader : readers) {
+			reader.start();
+		}
+
+		Properties loadedProperties = new Properties();
+		for(int i=1; i <= APPLIES; ++i) {
+			loadedProperties.putAll(generation(i));
+			switch(i % 3) {
+			case 0:
+				handler.applyProperties(loadedProperties);
+				break;
+			case 1:
+				handler.applyChanges(loadedProperties);
+				break;
+			default:
+				handler.applyPropertiesInParallel(loadedProperties);
+			}
+		}
+		done.set(true);
+		for(Thread reader : readers) {
+			reader.join();
+		}
+		if(failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+
+		Properties extracted = handler.extractProperties();
+		for(String name : NAMES) {
+			assertEquals(APPLIES, generationOf(extracted, name));
+		}
+	}
+
+	@Test
+	public void testConcurrentApplies() throws Exception {
+		final Counters counters = new Counters();
+		final PropertiesHandler handler = new PropertiesHandler(counters);
+		final AtomicReference<Throwable> failure
+			= new AtomicReference<Throwable>();
+		List<Thread> appliers = new ArrayList<Thread>();
+		for(int t=0; t < 2; ++t) {
+			// Each thread applies its own generations, odd or even:
+			final int parity = t;
+			appliers.add(new Thread(new Runnable() {
+				@Override
+				public void run() {
+					try {
+						for(int i=0; i < APPLIES; ++i) {
+							Map<String,String> values
+								= generation(2 * i + parity);
+							if(i % 2 == 0) {
+								handler.applyProperties(values);
+							} else {
+								handler.applyChanges(values);
+							}
+						}
+					} catch (Throwable e) {
+						failure.compareAndSet(null, e);
+					}
+				}
+			}));
+		}
+		for(Thread applier : appliers) {
+			applier.start();
+		}
+		for(Thread applier : appliers) {
+			applier.join();
+		}
+		if(failure.get() != null) {
+			throw new AssertionError(failure.get());
+		}
+
+		// Applies never interleave, so the last one wins as a whole:
+		Properties extracted = handler.extractProperties();
+		long last = generationOf(extracted, "a");
+		assertTrue(last == 2 * APPLIES - 2 || last == 2 * APPLIES - 1);
+		for(String name : NAMES) {
+			assertEquals(last, generationOf(extracted, name));
+		}
+		// ...and what applyChanges remembers matches it:
+		assertTrue(handler.applyChanges(generation(last)).isEmpty());
+	}
+}
@@ -1,555 +1,1796 @@
-package util.properties;
-
-import static org.junit.Assert.*;
-
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
-import java.io.InputStream;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-import java.lang.reflect.Field;
-
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Properties;
-import java.util.Set;
-
-import org.junit.Test;
-
-import util.properties.PropertiesHandler;
-import util.properties.Property;
-import util.properties.PropertyGetter;
-import util.properties.PropertyInaccessibleException;
-import util.properties.PropertyMissingException;
-import util.properties.PropertyParserException;
-
-
-/**
- * @author lacresti
- *
- */
-
-class TestPropertiesHolder {
-	@Property(defaultValue="16")
-	public byte testByte;
-	
-	@Property(defaultValue="3500")
-	public Short testShort;
-	
-	@Property(defaultValue="28540939849")
-	public Long testLong;
-	
-	@Property
-	public String requiredString;
-	
-	@Property
-	public String testString;
-
-	@Property
-	private int testInt;
-	
-	@PropertyGetter(name="testInt")
-	public int myGetTestInt() {
-		return testInt;
-	}
-	
-	public void setTestInt(int value) {
-		testInt = value;
-	}
-
-	@Property(setter="mySetTestDouble")
-	private double testDouble;
-	
-	public void mySetTestDouble(double value) {
-		testDouble = value;
-	}
-	
-	public double getTestDouble() {
-		return testDouble;
-	}
-	
-	@Property(defaultValue="")
-	public Integer[] numbers;
-	
-	@Property
-	private Set<String> emails;
-	
-	public Set<String> getEmails() {
-		return emails;
-	}
-	
-	public void setEmails(Set<String> newEmails) {
-		emails = newEmails;
-	}
-	
-	TestPropertiesHolder() {
-	}
-	
-	static Set<String> expectedPropertyNames = new HashSet<String>();
-	static Map<String,Method> expectedGetters = new HashMap<String,Method>();
-	static Map<String,Method> expectedSetters = new HashMap<String,Method>();
-	static Map<String,Field> expectedFields = new HashMap<String,Field>();
-	static Map<String,String> expectedDefaults = new HashMap<String,String>();
-	static {
-		try {
-			// PROPERTIES:
-			expectedPropertyNames.add("testByte");
-			expectedPropertyNames.add("testShort");
-			expectedPropertyNames.add("testLong");
-			expectedPropertyNames.add("testString");
-			expectedPropertyNames.add("requiredString");
-			expectedPropertyNames.add("testInt");
-			expectedPropertyNames.add("testDouble");
-			expectedPropertyNames.add("emails");
-			expectedPropertyNames.add("numbers");
-			
-			// GETTERS:
-			expectedGetters.put("testByte",null);
-			expectedGetters.put("testShort",null);
-			expectedGetters.put("testLong",null);
-			expectedGetters.put("testString",null);
-			expectedGetters.put("requiredString",null);
-			expectedGetters.put("numbers", null);
-			expectedGetters.put("emails",
-					TestPropertiesHolder.class.getMethod("getEmails"));
-			expectedGetters.put("testInt",
-					TestPropertiesHolder.class.getMethod("myGetTestInt"));
-			expectedGetters.put("testDouble",
-					TestPropertiesHolder.class.getMethod("getTestDouble"));
-			
-			// SETTERS:
-			expectedSetters.put("testByte",null);
-			expectedSetters.put("testShort",null);
-			expectedSetters.put("testLong",null);
-			expectedSetters.put("testString",null);
-			expectedSetters.put("requiredString",null);
-			expectedSetters.put("numbers", null);
-			expectedSetters.put("emails", TestPropertiesHolder.class.getMethod(
-					"setEmails", Set.class));
-			expectedSetters.put("testInt", TestPropertiesHolder.class
-					.getMethod("setTestInt", int.class));
-			expectedSetters.put("testDouble", TestPropertiesHolder.class
-					.getMethod("mySetTestDouble", double.class));
-			
-			// FIELDS:
-			expectedFields.put("testByte",
-					TestPropertiesHolder.class.getDeclaredField("testByte"));
-			expectedFields.put("testShort",
-					TestPropertiesHolder.class.getDeclaredField("testShort"));
-			expectedFields.put("testLong",
-					TestPropertiesHolder.class.getDeclaredField("testLong"));
-			expectedFields.put("testString",
-					TestPropertiesHolder.class.getDeclaredField("testString"));
-			expectedFields.put("requiredString", TestPropertiesHolder.class
-					.getDeclaredField("requiredString"));
-			expectedFields.put("testInt",
-					TestPropertiesHolder.class.getDeclaredField("testInt"));
-			expectedFields.put("testDouble",
-					TestPropertiesHolder.class.getDeclaredField("testDouble"));
-			expectedFields.put("numbers",
-					TestPropertiesHolder.class.getDeclaredField("numbers"));
-			expectedFields.put("emails",
-					TestPropertiesHolder.class.getDeclaredField("emails"));
-			
-			// DEFAULTS:
-			expectedDefaults.put("testByte", "16");
-			expectedDefaults.put("testShort", "3500");
-			expectedDefaults.put("testLong", "28540939849");
-			expectedDefaults.put("numbers", "");
-			
-		} catch (NoSuchMethodException e) {
-			// Should only happen if changes were made to TestPropertiesHolder
-			e.printStackTrace();
-		} catch (NoSuchFieldException e) {
-			// Should only happen if changes were made to TestPropertiesHolder
-			e.printStackTrace();
-		}
-	}
-}
-
-public class PropertiesHandlerTest {
-	static String testProperties1
-		= "testString = This is a test\n"
-		+ "testInt = 42\n"
-		+ "emails = test@test.com,dude@test.com,fake@blah.org\n"
-		+ "testDouble = 432.234\n"
-		+ "requiredString = This string is *required*\n";
-	
-	static String testProperties2
-		= "testString = This is a test\n"
-		+ "testInt = 42\n"
-		+ "emails = test@test.com,dude@test.com,fake@blah.org\n"
-		+ "testDouble = 432.234\n"
-		// Remove the definition of the required string: (commented for clarity) // <-- Meta-comment // <-- Meta-meta-comment
-		+ "#requiredString = This string is *required*\n";
-	
-
-	/**
-	 * Test method for
-	 * {@link PropertiesHandler#PropertiesHandler(java.lang.Object)}.
-	 * 
-	 * @throws NoSuchMethodException
-	 * @throws PropertyInaccessibleException
-	 * @throws InvocationTargetException
-	 * @throws PropertyMissingException
-	 */
-	@Test
-	public void testPropertiesHandler() 
-		throws NoSuchMethodException, 
-			   PropertyInaccessibleException,
-			   PropertyMissingException {
-		TestPropertiesHolder testObj = new TestPropertiesHolder();
-		PropertiesHandler testHandler = new PropertiesHandler(testObj);
-
-		assertEquals(TestPropertiesHolder.expectedGetters,
-				testHandler.getGetterMap());
-		assertEquals(TestPropertiesHolder.expectedSetters,
-				testHandler.getSetterMap());
-		assertEquals(TestPropertiesHolder.expectedFields,
-				testHandler.getFieldMap());
-		assertEquals(TestPropertiesHolder.expectedDefaults,
-				testHandler.getDefaults());
-		assertEquals(TestPropertiesHolder.expectedPropertyNames,
-				testHandler.getPropertyNames());
-	}
-	
-	@Test
-	public void testExceptionThrowingForNoSetterDefined() {
-		// Test for invalid annotation use:
-		class NoSetterDefined {
-			@Property
-			private int testInt;
-			
-			@SuppressWarnings("unused")
-			public int getTestInt() {
-				return testInt;
-			}
-		}
-		
-		NoSetterDefined invalidObj = new NoSetterDefined();
-		Boolean setterNotDefinedWasThrown = false;
-		try {
-			new PropertiesHandler(invalidObj);
-		} catch (PropertyInaccessibleException e) {
-			setterNotDefinedWasThrown = true;
-			System.out
-				.println("PropertyInaccessibleException *correctly* thrown:");
-			System.out.println(e.getMessage());
-		}
-		assertTrue(setterNotDefinedWasThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForNoGetterDefined() {
-		// Test for invalid annotation use:
-		class NoGetterDefined {
-			@SuppressWarnings("unused")
-			@Property
-			private int testInt;
-	
-			@SuppressWarnings("unused")
-			public void setTestInt(int value) {
-				testInt = value;
-			}
-		}
-		
-		NoGetterDefined invalidObj2 = new NoGetterDefined();
-		Boolean getterNotDefinedWasThrown = false;
-		try {
-			new PropertiesHandler(invalidObj2);
-		} catch(PropertyInaccessibleException e) {
-			getterNotDefinedWasThrown = true;
-			System.out
-				.println("PropertyInaccessibleException *correctly* thrown:");
-			System.out.println(e.getMessage());
-		}
-		assertTrue(getterNotDefinedWasThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForPrivateAccess() {
-		class PrivateAccessTest {
-			@Property
-			private int testInt;
-			
-			@SuppressWarnings("unused")
-			private int getTestInt() {
-				return testInt;
-			}
-			
-			@SuppressWarnings("unused")
-			private void setTestInt(int value) {
-				testInt = value;
-			}
-		}
-		
-		PrivateAccessTest invalidObj3 = new PrivateAccessTest();
-		Boolean inaccessiblePropertyThrown = false;
-		try {
-			new PropertiesHandler(invalidObj3);
-		} catch (PropertyInaccessibleException e) {
-			inaccessiblePropertyThrown = true;
-			System.out
-				.println("PropertyInaccessibleException *correctly* thrown:");
-			System.out.println(e.getMessage());
-		}
-		assertTrue(inaccessiblePropertyThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForBadGetter() {
-		class BadGetterTest {
-			@Property
-			private int testInt;
-			
-			@SuppressWarnings("unused")
-			public int getTestInt(int superfluousInt) {
-				return testInt;
-			}
-			
-			@SuppressWarnings("unused")
-			public void setTestInt(int value) {
-				testInt = value;
-			}
-		}
-		
-		BadGetterTest invalidObj = new BadGetterTest();
-		Boolean inaccessiblePropertyThrown = false;
-		try {
-			new PropertiesHandler(invalidObj);
-		} catch (PropertyInaccessibleException e) {
-			inaccessiblePropertyThrown = true;
-			System.out
-				.println("PropertyInaccessibleException *correctly* thrown:");
-			System.out.println(e.getMessage());
-		}
-		assertTrue(inaccessiblePropertyThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForBadSetter() {
-		class BadSetterTest {
-			@Property
-			private int testInt;
-			
-			@SuppressWarnings("unused")
-			public int getTestInt() {
-				return testInt;
-			}
-			
-			@SuppressWarnings("unused")
-			public void setTestInt(int value, int superfluousInt) {
-				testInt = value;
-			}
-		}
-		
-		BadSetterTest invalidObj = new BadSetterTest();
-		Boolean inaccessiblePropertyThrown = false;
-		try {
-			new PropertiesHandler(invalidObj);
-		} catch (PropertyInaccessibleException e) {
-			inaccessiblePropertyThrown = true;
-			System.out
-				.println("PropertyInaccessibleException *correctly* thrown:");
-			System.out.println(e.getMessage());
-		}
-		assertTrue(inaccessiblePropertyThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForParsingFailure() 
-		throws PropertyInaccessibleException, 
-			   IOException,
-			   PropertyMissingException,
-			   InvocationTargetException,
-			   SecurityException,
-			   NoSuchFieldException {
-		
-		@SuppressWarnings("unused")
-		class ParserFailTest {
-			@Property
-			public int testInt;
-			
-			@Property
-			public Set<Double> testDoubleSet;
-		}
-		
-		ParserFailTest testObj = new ParserFailTest();
-		PropertiesHandler testHandler = new PropertiesHandler(testObj);
-		InputStream propertiesStream = new ByteArrayInputStream(
-			("testInt=asd\n"
-			+"testDoubleSet=12,13.4,17.232").getBytes());
-
-		Properties loadedProperties = new Properties();
-		loadedProperties.load(propertiesStream);
-		Boolean exceptionThrown = false;
-		try{
-			testHandler.applyProperties(loadedProperties);
-		} catch (PropertyParserException e) {
-			exceptionThrown = true;
-			assertEquals("testInt", e.getPropertyName());
-			assertEquals("asd", e.getPropertyValueString());
-			assertEquals(int.class, e.getPropertyType());
-		}
-		
-		assertTrue(exceptionThrown);
-		
-		propertiesStream = new ByteArrayInputStream(
-				("testInt=42\n"
-				+"testDoubleSet=12,13.4,17.232,asd").getBytes());
-
-		loadedProperties = new Properties();
-		loadedProperties.load(propertiesStream);
-		exceptionThrown = false;
-		
-		try{
-			testHandler.applyProperties(loadedProperties);
-		} catch (PropertyParserException e) {
-			exceptionThrown = true;
-			assertEquals("testDoubleSet", e.getPropertyName());
-			assertEquals("12,13.4,17.232,asd", e.getPropertyValueString());
-			assertEquals(ParserFailTest.class
-						.getField("testDoubleSet").getGenericType(),
-							e.getPropertyType());
-		}
-		
-		assertTrue(exceptionThrown);
-	}
-	
-	@Test
-	public void testExceptionThrowingForPropertyMissing()
-		throws PropertyInaccessibleException,
-			   IOException,
-			   PropertyParserException,
-			   InvocationTargetException {
-		
-		@SuppressWarnings("unused")
-		class PropertyMissingTest {
-			@Property
-			public int testInt;
-		}
-		
-		PropertyMissingTest testObj = new PropertyMissingTest();
-		PropertiesHandler testHandler = new PropertiesHandler(testObj);
-		InputStream propertiesStream 
-			= new ByteArrayInputStream(("").getBytes());
-
-		Properties loadedProperties = new Properties();
-		loadedProperties.load(propertiesStream);
-		Boolean exceptionThrown = false;
-		try{
-			testHandler.applyProperties(loadedProperties);
-		} catch (PropertyMissingException e) {
-			exceptionThrown = true;
-			assertEquals("testInt", e.getPropertyName());
-		}
-		
-		assertTrue(exceptionThrown);
-	}
-
-	/**
-	 * Test method for
-	 * {@link PropertiesHandler#extractProperties(java.lang.String)}.
-	 * 
-	 * @throws IOException
-	 * @throws InvocationTargetException
-	 * @throws PropertyInaccessibleException
-	 */
-	@Test
-	public void testExtractProperties()
-		throws IOException,
-			   PropertyInaccessibleException, 
-			   InvocationTargetException {
-		TestPropertiesHolder testObj = new TestPropertiesHolder();
-		PropertiesHandler testHandler = new PropertiesHandler(testObj);
-		Properties output = new Properties();
-
-		testObj.setTestInt(240);
-		testObj.testString = "Store me, please. kthx bye.";
-		testObj.mySetTestDouble(123.321);
-		String[] emailsArray={"someEmail@blah.org","someother_Email@blah.org"};
-		Set<String> emails = new HashSet<String>();
-		for(String email : emailsArray) {
-			emails.add(email);
-		}
-		testObj.setEmails(emails);
-		testObj.numbers = new Integer[3];
-		testObj.numbers[0] = 3;
-		testObj.numbers[1] = 2;
-		testObj.numbers[2] = 1;
-		
-		output = testHandler.extractProperties();
-				
-		System.out.println("testStoreProperties output:");
-		System.out.println(output);
-		
-		// Non-set variables that are not required should not be saved:
-		assertFalse(output.toString().contains("testShort="));
-		assertFalse(output.toString().contains("testLong="));
-
-		// Everything else should be:
-		assertEquals(output.getProperty("testString"), testObj.testString);
-		assertEquals(output.getProperty("testDouble"),
-				"" + testObj.getTestDouble());
-		assertEquals(output.getProperty("testInt"), "" 
-				+ testObj.myGetTestInt());
-		assertEquals(output.getProperty("testByte"), "" + testObj.testByte);
-		assertTrue(output.getProperty("emails").contains("someEmail@blah.org"));
-		assertTrue(output.getProperty("emails").contains(
-				"someother_Email@blah.org"));
-	}
-
-	/**
-	 * Test method for
-	 * {@link PropertiesHandler#applyProperties(java.lang.String)}.
-	 * 
-	 * @throws IOException
-	 * @throws InvocationTargetException
-	 * @throws PropertyInaccessibleException
-	 * @throws PropertyMissingException
-	 * @throws PropertyParserException
-	 */
-	@Test
-	public void testApplyProperties()
-		throws IOException,
-			   PropertyInaccessibleException,
-			   InvocationTargetException,
-			   PropertyMissingException,
-			   PropertyParserException {
-		TestPropertiesHolder testObj = new TestPropertiesHolder();
-		PropertiesHandler testHandler = new PropertiesHandler(testObj);
-		InputStream propertiesStream = new ByteArrayInputStream(
-												testProperties1.getBytes() );
-
-		Properties loadedProperties = new Properties();
-		loadedProperties.load(propertiesStream);
-		
-		testHandler.applyProperties(loadedProperties);
-		assertEquals("This is a test", testObj.testString);
-		assertEquals(42, testObj.myGetTestInt());
-		assertEquals(432.234, testObj.getTestDouble(), 0.0000001);
-
-		Set<String> expectedEmails = new HashSet<String>();
-		expectedEmails.addAll(
-				Arrays.asList("test@test.com","dude@test.com","fake@blah.org"));
-		assertEquals(testObj.getEmails(), expectedEmails);
-		
-		Boolean propMissingThrown = false;
-		
-		propertiesStream = new ByteArrayInputStream(
-				testProperties2.getBytes() );
-		try {
-			loadedProperties = new Properties();
-			loadedProperties.load(propertiesStream);
-			testHandler.applyProperties(loadedProperties);
-		} catch (PropertyMissingException e) {
-			// This *should* happen:
-			propMissingThrown = true; 
-		}
-		
-		assertTrue(propMissingThrown);
-	}
-
-}
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Field;
+import java.math.BigDecimal;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.JMException;
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.Test;
+
+import util.properties.PropertiesHandler;
+import util.properties.Property;
+import util.properties.PropertyGetter;
+import util.properties.PropertyInaccessibleException;
+import util.properties.PropertyInvocationTargetException;
+import util.properties.PropertyMissingException;
+import util.properties.PropertyParserException;
+
+
+/**
+ * @author lacresti
+ *
+ */
+
+class TestPropertiesHolder {
+	@Property(defaultValue="16")
+	public byte testByte;
+	
+	@Property(defaultValue="3500")
+	public Short testShort;
+	
+	@Property(defaultValue="28540939849")
+	public Long testLong;
+	
+	@Property
+	public String requiredString;
+	
+	@Property
+	public String testString;
+
+	@Property
+	private int testInt;
+	
+	@PropertyGetter(name="testInt")
+	public int myGetTestInt() {
+		return testInt;
+	}
+	
+	public void setTestInt(int value) {
+		testInt = value;
+	}
+
+	@Property(setter="mySetTestDouble")
+	private double testDouble;
+	
+	public void mySetTestDouble(double value) {
+		testDouble = value;
+	}
+	
+	public double getTestDouble() {
+		return testDouble;
+	}
+	
+	@Property(defaultValue="")
+	public Integer[] numbers;
+	
+	@Property
+	private Set<String> emails;
+	
+	public Set<String> getEmails() {
+		return emails;
+	}
+	
+	public void setEmails(Set<String> newEmails) {
+		emails = newEmails;
+	}
+	
+	TestPropertiesHolder() {
+	}
+	
+	static Set<String> expectedPropertyNames = new HashSet<String>();
+	static Map<String,Method> expectedGetters = new HashMap<String,Method>();
+	static Map<String,Method> expectedSetters = new HashMap<String,Method>();
+	static Map<String,Field> expectedFields = new HashMap<String,Field>();
+	static Map<String,String> expectedDefaults = new HashMap<String,String>();
+	static {
+		try {
+			// PROPERTIES:
+			expectedPropertyNames.add("testByte");
+			expectedPropertyNames.add("testShort");
+			expectedPropertyNames.add("testLong");
+			expectedPropertyNames.add("testString");
+			expectedPropertyNames.add("requiredString");
+			expectedPropertyNames.add("testInt");
+			expectedPropertyNames.add("testDouble");
+			expectedPropertyNames.add("emails");
+			expectedPropertyNames.add("numbers");
+			
+			// GETTERS:
+			expectedGetters.put("testByte",null);
+			expectedGetters.put("testShort",null);
+			expectedGetters.put("testLong",null);
+			expectedGetters.put("testString",null);
+			expectedGetters.put("requiredString",null);
+			expectedGetters.put("numbers", null);
+			expectedGetters.put("emails",
+					TestPropertiesHolder.class.getMethod("getEmails"));
+			expectedGetters.put("testInt",
+					TestPropertiesHolder.class.getMethod("myGetTestInt"));
+			expectedGetters.put("testDouble",
+					TestPropertiesHolder.class.getMethod("getTestDouble"));
+			
+			// SETTERS:
+			expectedSetters.put("testByte",null);
+			expectedSetters.put("testShort",null);
+			expectedSetters.put("testLong",null);
+			expectedSetters.put("testString",null);
+			expectedSetters.put("requiredString",null);
+			expectedSetters.put("numbers", null);
+			expectedSetters.put("emails", TestPropertiesHolder.class.getMethod(
+					"setEmails", Set.class));
+			expectedSetters.put("testInt", TestPropertiesHolder.class
+					.getMethod("setTestInt", int.class));
+			expectedSetters.put("testDouble", TestPropertiesHolder.class
+					.getMethod("mySetTestDouble", double.class));
+			
+			// FIELDS:
+			expectedFields.put("testByte",
+					TestPropertiesHolder.class.getDeclaredField("testByte"));
+			expectedFields.put("testShort",
+					TestPropertiesHolder.class.getDeclaredField("testShort"));
+			expectedFields.put("testLong",
+					TestPropertiesHolder.class.getDeclaredField("testLong"));
+			expectedFields.put("testString",
+					TestPropertiesHolder.class.getDeclaredField("testString"));
+			expectedFields.put("requiredString", TestPropertiesHolder.class
+					.getDeclaredField("requiredString"));
+			expectedFields.put("testInt",
+					TestPropertiesHolder.class.getDeclaredField("testInt"));
+			expectedFields.put("testDouble",
+					TestPropertiesHolder.class.getDeclaredField("testDouble"));
+			expectedFields.put("numbers",
+					TestPropertiesHolder.class.getDeclaredField("numbers"));
+			expectedFields.put("emails",
+					TestPropertiesHolder.class.getDeclaredField("emails"));
+			
+			// DEFAULTS:
+			expectedDefaults.put("testByte", "16");
+			expectedDefaults.put("testShort", "3500");
+			expectedDefaults.put("testLong", "28540939849");
+			expectedDefaults.put("numbers", "");
+			
+		} catch (NoSuchMethodException e) {
+			// Should only happen if changes were made to TestPropertiesHolder
+			e.printStackTrace();
+		} catch (NoSuchFieldException e) {
+			// Should only happen if changes were made to TestPropertiesHolder
+			e.printStackTrace();
+		}
+	}
+}
+
+public class PropertiesHandlerTest {
+	static String testProperties1
+		= "testString = This is a test\n"
+		+ "testInt = 42\n"
+		+ "emails = test@test.com,dude@test.com,fake@blah.org\n"
+		+ "testDouble = 432.234\n"
+		+ "requiredString = This string is *required*\n";
+	
+	static String testProperties2
+		= "testString = This is a test\n"
+		+ "testInt = 42\n"
+		+ "emails = test@test.com,dude@test.com,fake@blah.org\n"
+		+ "testDouble = 432.234\n"
+		// Remove the definition of the required string: (commented for clarity) // <-- Meta-comment // <-- Meta-meta-comment
+		+ "#requiredString = This string is *required*\n";
+	
+
+	/**
+	 * Test method for
+	 * {@link PropertiesHandler#PropertiesHandler(java.lang.Object)}.
+	 * 
+	 * @throws NoSuchMethodException
+	 * @throws PropertyInaccessibleException
+	 * @throws InvocationTargetException
+	 * @throws PropertyMissingException
+	 */
+	@Test
+	public void testPropertiesHandler() 
+		throws NoSuchMethodException, 
+			   PropertyInaccessibleException,
+			   PropertyMissingException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+
+		assertEquals(TestPropertiesHolder.expectedGetters,
+				testHandler.getGetterMap());
+		assertEquals(TestPropertiesHolder.expectedSetters,
+				testHandler.getSetterMap());
+		assertEquals(TestPropertiesHolder.expectedFields,
+				testHandler.getFieldMap());
+		assertEquals(TestPropertiesHolder.expectedDefaults,
+				testHandler.getDefaults());
+		assertEquals(TestPropertiesHolder.expectedPropertyNames,
+				testHandler.getPropertyNames());
+	}
+	
+	@Test
+	public void testSlotIndexOf() throws PropertyInaccessibleException {
+		PropertiesBinding binding
+			= PropertiesBinding.forClass(TestPropertiesHolder.class);
+		
+		for(PropertySlot slot : binding.getSlots()) {
+			char[] name = (slot.getName() + "garbage").toCharArray();
+			assertEquals(slot.getIndex(),
+					binding.slotIndexOf(name, slot.getName().length()));
+			assertEquals(slot.getIndex(), binding.slotIndexOf(
+					new StringBuilder(slot.getName())));
+		}
+		
+		// Prefixes and extensions of property names are not property names:
+		assertEquals(-1, binding.slotIndexOf(""));
+		assertEquals(-1, binding.slotIndexOf("test"));
+		assertEquals(-1, binding.slotIndexOf("testStrin"));
+		assertEquals(-1, binding.slotIndexOf("testStrings"));
+		assertEquals(-1, binding.slotIndexOf("unrelated.key"));
+	}
+	
+	@Test
+	public void testBindingIsSharedPerClass()
+		throws PropertyInaccessibleException {
+		PropertiesHandler firstHandler
+			= new PropertiesHandler(new TestPropertiesHolder());
+		PropertiesHandler secondHandler
+			= new PropertiesHandler(new TestPropertiesHolder());
+		
+		assertSame(firstHandler.getSetterMap(), secondHandler.getSetterMap());
+		assertSame(firstHandler.getPropertyNames(),
+				secondHandler.getPropertyNames());
+	}
+	
+	@Test
+	public void testBindingFailureIsThrownForEveryHandler() {
+		class NoSetterDefined {
+			@SuppressWarnings("unused")
+			@Property
+			private int testInt;
+		}
+		
+		int timesThrown = 0;
+		for(int i=0; i < 2; ++i) {
+			try {
+				new PropertiesHandler(new NoSetterDefined());
+			} catch (PropertyInaccessibleException e) {
+				assertEquals("testInt", e.getPropertyName());
+				++timesThrown;
+			}
+		}
+		assertEquals(2, timesThrown);
+	}
+	
+	@Test
+	public void testImmutableDefaultsAreParsedOnce()
+		throws PropertyInaccessibleException {
+		PropertiesBinding binding
+			= PropertiesBinding.forClass(TestPropertiesHolder.class);
+		
+		for(PropertySlot slot : binding.getSlots()) {
+			if(slot.getName().equals("testLong")) {
+				assertEquals(28540939849L, slot.parseDefault());
+				assertSame(slot.parseDefault(), slot.parseDefault());
+			} else if(slot.getName().equals("numbers")) {
+				// Arrays are mutable; every object gets its own.
+				assertNotSame(slot.parseDefault(), slot.parseDefault());
+			}
+		}
+	}
+	
+	@Test
+	public void testExceptionThrowingForNoSetterDefined() {
+		// Test for invalid annotation use:
+		class NoSetterDefined {
+			@Property
+			private int testInt;
+			
+			@SuppressWarnings("unused")
+			public int getTestInt() {
+				return testInt;
+			}
+		}
+		
+		NoSetterDefined invalidObj = new NoSetterDefined();
+		Boolean setterNotDefinedWasThrown = false;
+		try {
+			new PropertiesHandler(invalidObj);
+		} catch (PropertyInaccessibleException e) {
+			setterNotDefinedWasThrown = true;
+			System.out
+				.println("PropertyInaccessibleException *correctly* thrown:");
+			System.out.println(e.getMessage());
+		}
+		assertTrue(setterNotDefinedWasThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForNoGetterDefined() {
+		// Test for invalid annotation use:
+		class NoGetterDefined {
+			@SuppressWarnings("unused")
+			@Property
+			private int testInt;
+	
+			@SuppressWarnings("unused")
+			public void setTestInt(int value) {
+				testInt = value;
+			}
+		}
+		
+		NoGetterDefined invalidObj2 = new NoGetterDefined();
+		Boolean getterNotDefinedWasThrown = false;
+		try {
+			new PropertiesHandler(invalidObj2);
+		} catch(PropertyInaccessibleException e) {
+			getterNotDefinedWasThrown = true;
+			System.out
+				.println("PropertyInaccessibleException *correctly* thrown:");
+			System.out.println(e.getMessage());
+		}
+		assertTrue(getterNotDefinedWasThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForPrivateAccess() {
+		class PrivateAccessTest {
+			@Property
+			private int testInt;
+			
+			@SuppressWarnings("unused")
+			private int getTestInt() {
+				return testInt;
+			}
+			
+			@SuppressWarnings("unused")
+			private void setTestInt(int value) {
+				testInt = value;
+			}
+		}
+		
+		PrivateAccessTest invalidObj3 = new PrivateAccessTest();
+		Boolean inaccessiblePropertyThrown = false;
+		try {
+			new PropertiesHandler(invalidObj3);
+		} catch (PropertyInaccessibleException e) {
+			inaccessiblePropertyThrown = true;
+			System.out
+				.println("PropertyInaccessibleException *correctly* thrown:");
+			System.out.println(e.getMessage());
+		}
+		assertTrue(inaccessiblePropertyThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForBadGetter() {
+		class BadGetterTest {
+			@Property
+			private int testInt;
+			
+			@SuppressWarnings("unused")
+			public int getTestInt(int superfluousInt) {
+				return testInt;
+			}
+			
+			@SuppressWarnings("unused")
+			public void setTestInt(int value) {
+				testInt = value;
+			}
+		}
+		
+		BadGetterTest invalidObj = new BadGetterTest();
+		Boolean inaccessiblePropertyThrown = false;
+		try {
+			new PropertiesHandler(invalidObj);
+		} catch (PropertyInaccessibleException e) {
+			inaccessiblePropertyThrown = true;
+			System.out
+				.println("PropertyInaccessibleException *correctly* thrown:");
+			System.out.println(e.getMessage());
+		}
+		assertTrue(inaccessiblePropertyThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForBadSetter() {
+		class BadSetterTest {
+			@Property
+			private int testInt;
+			
+			@SuppressWarnings("unused")
+			public int getTestInt() {
+				return testInt;
+			}
+			
+			@SuppressWarnings("unused")
+			public void setTestInt(int value, int superfluousInt) {
+				testInt = value;
+			}
+		}
+		
+		BadSetterTest invalidObj = new BadSetterTest();
+		Boolean inaccessiblePropertyThrown = false;
+		try {
+			new PropertiesHandler(invalidObj);
+		} catch (PropertyInaccessibleException e) {
+			inaccessiblePropertyThrown = true;
+			System.out
+				.println("PropertyInaccessibleException *correctly* thrown:");
+			System.out.println(e.getMessage());
+		}
+		assertTrue(inaccessiblePropertyThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForParsingFailure() 
+		throws PropertyInaccessibleException, 
+			   IOException,
+			   PropertyMissingException,
+			   InvocationTargetException,
+			   SecurityException,
+			   NoSuchFieldException {
+		
+		@SuppressWarnings("unused")
+		class ParserFailTest {
+			@Property
+			public int testInt;
+			
+			@Property
+			public Set<Double> testDoubleSet;
+		}
+		
+		ParserFailTest testObj = new ParserFailTest();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		InputStream propertiesStream = new ByteArrayInputStream(
+			("testInt=asd\n"
+			+"testDoubleSet=12,13.4,17.232").getBytes());
+
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(propertiesStream);
+		Boolean exceptionThrown = false;
+		try{
+			testHandler.applyProperties(loadedProperties);
+		} catch (PropertyParserException e) {
+			exceptionThrown = true;
+			assertEquals("testInt", e.getPropertyName());
+			assertEquals("asd", e.getPropertyValueString());
+			assertEquals(int.class, e.getPropertyType());
+		}
+		
+		assertTrue(exceptionThrown);
+		
+		propertiesStream = new ByteArrayInputStream(
+				("testInt=42\n"
+				+"testDoubleSet=12,13.4,17.232,asd").getBytes());
+
+		loadedProperties = new Properties();
+		loadedProperties.load(propertiesStream);
+		exceptionThrown = false;
+		
+		try{
+			testHandler.applyProperties(loadedProperties);
+		} catch (PropertyParserException e) {
+			exceptionThrown = true;
+			assertEquals("testDoubleSet", e.getPropertyName());
+			assertEquals("12,13.4,17.232,asd", e.getPropertyValueString());
+			assertEquals(ParserFailTest.class
+						.getField("testDoubleSet").getGenericType(),
+							e.getPropertyType());
+		}
+		
+		assertTrue(exceptionThrown);
+	}
+	
+	@Test
+	public void testExceptionThrowingForSetterFailure()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException {
+		
+		@SuppressWarnings("unused")
+		class SetterFailTest {
+			@Property
+			private int testInt;
+			
+			public int getTestInt() {
+				return testInt;
+			}
+			
+			public void setTestInt(int value) {
+				throw new IllegalStateException("rejected " + value);
+			}
+		}
+		
+		PropertiesHandler testHandler
+			= new PropertiesHandler(new SetterFailTest());
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("testInt", "42");
+		
+		Boolean exceptionThrown = false;
+		try {
+			testHandler.applyProperties(loadedProperties);
+		} catch (PropertyInvocationTargetException e) {
+			exceptionThrown = true;
+			assertEquals("testInt", e.getPropertyName());
+			assertEquals("42", e.getPropertyValueString());
+			assertEquals(42, e.getPropertyValue());
+			assertTrue(e.getCause() instanceof IllegalStateException);
+		}
+		
+		assertTrue(exceptionThrown);
+	}
+	
+	@Test
+	public void testAccessorFailures() throws Exception {
+		
+		class Overflowing {
+			int value;
+			
+			public int getValue() {
+				throw new StackOverflowError();
+			}
+			
+			public void setValue(int value) {
+				this.value = value;
+			}
+		}
+		
+		PropertyAccessor getter = PropertyAccessor.forGetter(
+				Overflowing.class.getMethod("getValue"));
+		PropertyAccessor setter = PropertyAccessor.forSetter(
+				Overflowing.class.getMethod("setValue", int.class));
+		Overflowing target = new Overflowing();
+		setter.set(target, 42);
+		assertEquals(42, target.value);
+		
+		// Errors are not the getter failing, but the JVM:
+		try {
+			getter.get(target);
+			fail("StackOverflowError not thrown");
+		} catch (StackOverflowError e) {
+			// Expected
+		}
+		
+		// Neither are arguments of the wrong type:
+		Object[] wrongValues = { null, 42L, "42" };
+		for(Object wrongValue : wrongValues) {
+			try {
+				setter.set(target, wrongValue);
+				fail("IllegalArgumentException not thrown for " + wrongValue);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		try {
+			setter.set("not an Overflowing", 42);
+			fail("IllegalArgumentException not thrown");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+		assertEquals(42, target.value);
+	}
+	
+	public static class StaticHolder {
+		@Property
+		public static int port;
+		
+		private static String name;
+		
+		@PropertySetter(name="name")
+		public static void setName(String newName) {
+			name = newName;
+		}
+		
+		@PropertyGetter(name="name")
+		public static String getName() {
+			return name;
+		}
+	}
+	
+	@Test
+	public void testStaticProperties()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		PropertiesHandler testHandler
+			= new PropertiesHandler(new StaticHolder());
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("port", "5");
+		loadedProperties.setProperty("name", "n");
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(5, StaticHolder.port);
+		assertEquals("n", StaticHolder.getName());
+		assertEquals(loadedProperties, testHandler.extractProperties());
+	}
+	
+	@Test
+	public void testReflectiveAccessors()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		
+		class ReflectedHolder {
+			@Property
+			public int port;
+			
+			private String name;
+			
+			@PropertySetter(name="name")
+			public void setName(String newName) {
+				name = newName;
+			}
+			
+			@PropertyGetter(name="name")
+			public String getName() {
+				return name;
+			}
+		}
+		
+		System.setProperty(PropertyAccessor.REFLECTION_PROPERTY, "true");
+		PropertiesBinding binding;
+		try {
+			binding = PropertiesBinding.forClass(ReflectedHolder.class);
+		} finally {
+			System.clearProperty(PropertyAccessor.REFLECTION_PROPERTY);
+		}
+		for(PropertySlot slot : binding.getSlots()) {
+			assertEquals("ReflectiveAccessor",
+					slot.getReader().getClass().getSimpleName());
+			assertEquals("ReflectiveAccessor",
+					slot.getWriter().getClass().getSimpleName());
+		}
+		
+		ReflectedHolder testObj = new ReflectedHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("port", "5");
+		loadedProperties.setProperty("name", "n");
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(5, testObj.port);
+		assertEquals("n", testObj.getName());
+		assertEquals(loadedProperties, testHandler.extractProperties());
+	}
+	
+	@Test
+	public void testExceptionThrowingForPropertyMissing()
+		throws PropertyInaccessibleException,
+			   IOException,
+			   PropertyParserException,
+			   InvocationTargetException {
+		
+		@SuppressWarnings("unused")
+		class PropertyMissingTest {
+			@Property
+			public int testInt;
+		}
+		
+		PropertyMissingTest testObj = new PropertyMissingTest();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		InputStream propertiesStream 
+			= new ByteArrayInputStream(("").getBytes());
+
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(propertiesStream);
+		Boolean exceptionThrown = false;
+		try{
+			testHandler.applyProperties(loadedProperties);
+		} catch (PropertyMissingException e) {
+			exceptionThrown = true;
+			assertEquals("testInt", e.getPropertyName());
+		}
+		
+		assertTrue(exceptionThrown);
+	}
+
+	@Test
+	public void testPrimitiveArrayRoundTrip()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   InvocationTargetException,
+			   PropertyMissingException,
+			   PropertyParserException {
+		
+		class PrimitiveArrayHolder {
+			@Property
+			public int[] buckets;
+			
+			@Property
+			public double[] weights;
+			
+			@Property(defaultValue="x,y")
+			public char[] flags;
+		}
+		
+		PrimitiveArrayHolder testObj = new PrimitiveArrayHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("buckets", "1,10,100,1000");
+		loadedProperties.setProperty("weights", "0.5,0.25");
+		
+		testHandler.applyProperties(loadedProperties);
+		assertArrayEquals(new int[] {1,10,100,1000}, testObj.buckets);
+		assertArrayEquals(new double[] {0.5,0.25}, testObj.weights, 0.);
+		assertArrayEquals(new char[] {'x','y'}, testObj.flags);
+		
+		Properties output = testHandler.extractProperties();
+		assertEquals("1,10,100,1000", output.getProperty("buckets"));
+		assertEquals("0.5,0.25", output.getProperty("weights"));
+		assertEquals("x,y", output.getProperty("flags"));
+	}
+	
+	@Test
+	public void testPrimitiveCollectionRoundTrip()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   InvocationTargetException,
+			   PropertyMissingException,
+			   PropertyParserException {
+		
+		class PrimitiveCollectionHolder {
+			@Property
+			public LongHashSet allowedIds;
+			
+			@Property(defaultValue="")
+			public IntArrayList ports;
+		}
+		
+		PrimitiveCollectionHolder testObj = new PrimitiveCollectionHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("allowedIds", "28540939849,7,7,0");
+		
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(3, testObj.allowedIds.size());
+		assertTrue(testObj.allowedIds.contains(28540939849L));
+		assertTrue(testObj.ports.isEmpty());
+		
+		testObj.ports.add(8080);
+		testObj.ports.add(8443);
+		Properties output = testHandler.extractProperties();
+		assertEquals("8080,8443", output.getProperty("ports"));
+		
+		testHandler.applyProperties(output);
+		assertEquals(3, testObj.allowedIds.size());
+		assertEquals(8443, testObj.ports.get(1));
+	}
+	
+	/**
+	 * Test method for
+	 * {@link PropertiesHandler#extractProperties(java.lang.String)}.
+	 * 
+	 * @throws IOException
+	 * @throws InvocationTargetException
+	 * @throws PropertyInaccessibleException
+	 */
+	@Test
+	public void testExtractProperties()
+		throws IOException,
+			   PropertyInaccessibleException, 
+			   InvocationTargetException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties output = new Properties();
+
+		testObj.setTestInt(240);
+		testObj.testString = "Store me, please. kthx bye.";
+		testObj.mySetTestDouble(123.321);
+		String[] emailsArray={"someEmail@blah.org","someother_Email@blah.org"};
+		Set<String> emails = new HashSet<String>();
+		for(String email : emailsArray) {
+			emails.add(email);
+		}
+		testObj.setEmails(emails);
+		testObj.numbers = new Integer[3];
+		testObj.numbers[0] = 3;
+		testObj.numbers[1] = 2;
+		testObj.numbers[2] = 1;
+		
+		output = testHandler.extractProperties();
+				
+		System.out.println("testStoreProperties output:");
+		System.out.println(output);
+		
+		// Non-set variables that are not required should not be saved:
+		assertFalse(output.toString().contains("testShort="));
+		assertFalse(output.toString().contains("testLong="));
+
+		// Everything else should be:
+		assertEquals(output.getProperty("testString"), testObj.testString);
+		assertEquals(output.getProperty("testDouble"),
+				"" + testObj.getTestDouble());
+		assertEquals(output.getProperty("testInt"), "" 
+				+ testObj.myGetTestInt());
+		assertEquals(output.getProperty("testByte"), "" + testObj.testByte);
+		assertTrue(output.getProperty("emails").contains("someEmail@blah.org"));
+		assertTrue(output.getProperty("emails").contains(
+				"someother_Email@blah.org"));
+	}
+
+	@Test
+	public void testStreamingExtraction()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyInvocationTargetException {
+		class StreamedPropertiesHolder {
+			@Property
+			public String testString;
+			
+			@Property
+			public Integer[] numbers;
+			
+			@Property
+			public List<Integer> numberList;
+			
+			@Property
+			public LongHashSet ids;
+			
+			@Property
+			public char[] separators;
+		}
+		
+		StreamedPropertiesHolder testObj = new StreamedPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		
+		testObj.ids = new LongHashSet();
+		testObj.ids.add(0);
+		testObj.ids.add(28540939849L);
+		testObj.separators = new char[] { ':', '=', ' ' };
+		testObj.testString = " Leading space, key=value: #!\\ caf\u00e9\n\t";
+		testObj.numbers = new Integer[] { 3, 2, 1 };
+		testObj.numberList = new ArrayList<Integer>();
+		for(int i=0; i < 200000; ++i) {
+			testObj.numberList.add(i);
+		}
+		Properties expected = testHandler.extractProperties();
+		
+		StringWriter writer = new StringWriter();
+		testHandler.extractProperties(writer);
+		Properties fromWriter = new Properties();
+		fromWriter.load(new StringReader(writer.toString()));
+		assertEquals(expected, fromWriter);
+		
+		StringBuilder builder = new StringBuilder();
+		testHandler.extractProperties(builder);
+		assertEquals(writer.toString(), builder.toString());
+		
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		testHandler.extractProperties(Channels.newChannel(bytes));
+		for(byte b : bytes.toByteArray()) {
+			assertTrue(b > 0); // Plain ASCII only.
+		}
+		Properties fromChannel = new Properties();
+		fromChannel.load(new ByteArrayInputStream(bytes.toByteArray()));
+		assertEquals(expected, fromChannel);
+		
+		assertEquals(testObj.testString, fromChannel.getProperty("testString"));
+		assertTrue(fromChannel.getProperty("numberList").endsWith(",199999"));
+	}
+	
+	@Test
+	public void testBoxedElementFormatting() throws IOException {
+		Object[] elements = {
+			1, -2L, (short)3, (byte)-4, Long.MIN_VALUE, 2.5, -0.0, Double.NaN,
+			1e-7, 1.1f, Float.POSITIVE_INFINITY, true, false, 'x', null,
+			new BigDecimal("1.50"), "text"
+		};
+		StringBuilder expected = new StringBuilder();
+		for(int i=0; i < elements.length; ++i) {
+			expected.append(i > 0 ? "," : "").append(elements[i]);
+		}
+		
+		StringBuilder formatted = new StringBuilder();
+		PropertiesWriter writer = PropertiesWriter.forAppendable(formatted, false);
+		writer.writeValue(elements);
+		writer.flush();
+		assertEquals(expected.toString(), formatted.toString());
+		
+		formatted.setLength(0);
+		writer.writeValue(Arrays.asList(elements));
+		writer.flush();
+		assertEquals(expected.toString(), formatted.toString());
+	}
+	
+	@Test
+	public void testFlightRecorderEvents()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		Path dump = Files.createTempFile("events", ".jfr");
+		Recording recording = new Recording();
+		recording.enable("util.properties.HandlerCreated");
+		recording.enable("util.properties.ApplyProperties");
+		recording.enable("util.properties.ExtractProperties");
+		recording.enable("util.properties.PropertyApplied");
+		recording.start();
+		
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(new StringReader(testProperties1));
+		testHandler.applyProperties(loadedProperties);
+		testHandler.extractProperties(new StringWriter());
+		
+		recording.stop();
+		recording.dump(dump);
+		recording.close();
+		
+		Map<String,RecordedEvent> events = new HashMap<String,RecordedEvent>();
+		Set<String> appliedProperties = new HashSet<String>();
+		try {
+			for(RecordedEvent event : RecordingFile.readAllEvents(dump)) {
+				String eventName = event.getEventType().getName();
+				events.put(eventName, event);
+				if(eventName.equals("util.properties.PropertyApplied")) {
+					appliedProperties.add(event.getString("name"));
+				}
+			}
+		} finally {
+			Files.delete(dump);
+		}
+		
+		RecordedEvent created = events.get("util.properties.HandlerCreated");
+		assertEquals(TestPropertiesHolder.class.getName(),
+				created.getClass("objectClass").getName());
+		assertEquals(9, created.getInt("propertyCount"));
+		
+		RecordedEvent applied = events.get("util.properties.ApplyProperties");
+		assertEquals("Properties", applied.getString("source"));
+		assertEquals(5, applied.getInt("keysApplied"));
+		assertEquals(4, applied.getInt("defaultsApplied"));
+		
+		RecordedEvent extracted 
+			= events.get("util.properties.ExtractProperties");
+		assertEquals("Writer", extracted.getString("destination"));
+		
+		assertTrue(appliedProperties.contains("testInt"));
+		assertTrue(appliedProperties.contains("testByte"));
+	}
+	
+	@Test
+	public void testRegistry()
+		throws IOException,
+			   InterruptedException,
+			   JMException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		ObjectName name = PropertiesRegistry.register(testHandler);
+		PropertiesHandlerMXBean bean = JMX.newMXBeanProxy(server, name,
+				PropertiesHandlerMXBean.class);
+		
+		assertEquals(TestPropertiesHolder.class.getName(),
+				bean.getObjectClassName());
+		assertEquals(9, bean.getPropertyCount());
+		assertEquals(0, bean.getApplyCount());
+		assertNull(bean.getLastApplyTime());
+		
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(new StringReader(testProperties1));
+		testHandler.applyProperties(loadedProperties);
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(2, bean.getApplyCount());
+		assertNotNull(bean.getLastApplyTime());
+		assertTrue(bean.getMaxApplyTimeNanos() > 0);
+		assertTrue(bean.getTotalApplyTimeNanos()
+				>= bean.getMaxApplyTimeNanos());
+		assertEquals("42", bean.getCurrentValues().get("testInt"));
+		
+		// Reading the MBean is not a checkpoint:
+		testHandler.extractChanges();
+		testObj.testString = "Read by JConsole";
+		assertEquals("Read by JConsole",
+				bean.getCurrentValues().get("testString"));
+		assertEquals("Read by JConsole",
+				testHandler.extractChanges().getProperty("testString"));
+		
+		loadedProperties.setProperty("testInt", "forty-two");
+		try {
+			testHandler.applyProperties(loadedProperties);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			// Expected
+		}
+		assertEquals(Long.valueOf(1),
+				bean.getParseFailureCounts().get("testInt"));
+		assertEquals(2, bean.getApplyCount());
+		
+		PropertiesRegistry.unregister(name);
+		assertFalse(server.isRegistered(name));
+		
+		// MBeans live as long as their object, not their handler:
+		TestPropertiesHolder kept = new TestPropertiesHolder();
+		name = PropertiesRegistry.register(new PropertiesHandler(kept));
+		bean = JMX.newMXBeanProxy(server, name, PropertiesHandlerMXBean.class);
+		for(int i=0; i < 5; ++i) {
+			System.gc();
+			Thread.sleep(10);
+			PropertiesRegistry.unregister(PropertiesRegistry.register(testHandler));
+		}
+		assertTrue(server.isRegistered(name));
+		kept.testString = "Still here";
+		assertEquals("Still here", bean.getCurrentValues().get("testString"));
+		
+		// ...and do not keep it alive; reading any MBean unregisters
+		//  those whose object was collected:
+		WeakReference<TestPropertiesHolder> collected
+			= new WeakReference<TestPropertiesHolder>(kept);
+		kept = null;
+		PropertiesHandlerMXBean other = JMX.newMXBeanProxy(server,
+				PropertiesRegistry.register(testHandler),
+				PropertiesHandlerMXBean.class);
+		for(int i=0; i < 100 && server.isRegistered(name); ++i) {
+			System.gc();
+			Thread.sleep(10);
+			other.getApplyCount();
+		}
+		assertNull(collected.get());
+		assertFalse(server.isRegistered(name));
+	}
+	
+	@Test
+	public void testListeners()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		final List<String> calls = new ArrayList<String>();
+		PropertiesListener recorder = new PropertiesListener() {
+			public void parseStarted(String propertyName) {
+				calls.add("parseStarted " + propertyName);
+			}
+			public void parseEnded(String propertyName, long nanos) {
+				assertTrue(nanos >= 0);
+				calls.add("parseEnded " + propertyName);
+			}
+			public void setterInvoked(String propertyName, long nanos) {
+				assertTrue(nanos >= 0);
+				calls.add("setterInvoked " + propertyName);
+			}
+			public void getterInvoked(String propertyName, long nanos) {
+				assertTrue(nanos >= 0);
+				calls.add("getterInvoked " + propertyName);
+			}
+			public void failed(String propertyName, Exception failure) {
+				calls.add("failed " + propertyName + " "
+						+ failure.getClass().getSimpleName());
+			}
+		};
+		PropertyLatencyHistograms histograms = new PropertyLatencyHistograms();
+		testHandler.addListener(recorder);
+		testHandler.addListener(histograms);
+		
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(new StringReader(testProperties1));
+		testHandler.applyProperties(loadedProperties);
+		int i = calls.indexOf("parseStarted testDouble");
+		assertEquals(Arrays.asList("parseStarted testDouble", 
+				"parseEnded testDouble", "setterInvoked testDouble"),
+				calls.subList(i, i + 3));
+		assertEquals(27, calls.size());
+		
+		testHandler.extractProperties();
+		assertTrue(calls.contains("getterInvoked emails"));
+		
+		loadedProperties.setProperty("testInt", "forty-two");
+		try {
+			testHandler.applyProperties(loadedProperties);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			// Expected
+		}
+		assertEquals("failed testInt PropertyParserException",
+				calls.get(calls.size() - 1));
+		
+		assertTrue(histograms.getPropertyNames().containsAll(
+				TestPropertiesHolder.expectedPropertyNames));
+		assertEquals(1, histograms.getSetterTimes("testDouble").getCount());
+		assertEquals(1, histograms.getGetterTimes("testDouble").getCount());
+		assertEquals(1, histograms.getFailureCount("testInt"));
+		assertEquals(0, histograms.getFailureCount("testDouble"));
+		assertNull(histograms.getParseTimes("unknown"));
+		
+		assertTrue(testHandler.removeListener(recorder));
+		assertFalse(testHandler.removeListener(recorder));
+		calls.clear();
+		testHandler.extractProperties();
+		assertTrue(calls.isEmpty());
+		assertEquals(2, histograms.getGetterTimes("testDouble").getCount());
+	}
+	
+	@Test
+	public void testLatencyHistogram() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getPercentileNanos(99));
+		for(int i=0; i < 98; ++i) {
+			histogram.record(100); // Bucket 7: 64 to 127
+		}
+		histogram.record(5000); // Bucket 13: 4096 to 8191
+		histogram.record(1000000);
+		
+		assertEquals(100, histogram.getCount());
+		assertEquals(98 * 100 + 5000 + 1000000, histogram.getTotalNanos());
+		assertEquals(1000000, histogram.getMaxNanos());
+		assertEquals(98, histogram.getBucketCount(7));
+		assertEquals(127, histogram.getPercentileNanos(50));
+		assertEquals(127, histogram.getPercentileNanos(98));
+		assertEquals(8191, histogram.getPercentileNanos(99));
+		assertEquals(1000000, histogram.getPercentileNanos(100));
+		
+		histogram.record(0);
+		histogram.record(-1);
+		assertEquals(2, histogram.getBucketCount(0));
+		assertEquals(0, histogram.getPercentileNanos(0));
+	}
+	
+	@Test
+	public void testApplyPropertiesInParallel()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		
+		class ParallelHolder {
+			final List<String> setterCalls = new ArrayList<String>();
+			
+			@Property
+			private List<Integer> zeta;
+			
+			@Property
+			private int[] alpha;
+			
+			@Property(defaultValue="0")
+			private long mu;
+			
+			public List<Integer> getZeta() { return zeta; }
+			public int[] getAlpha() { return alpha; }
+			public long getMu() { return mu; }
+			
+			public void setZeta(List<Integer> value) {
+				setterCalls.add("zeta");
+				zeta = value;
+			}
+			public void setAlpha(int[] value) {
+				setterCalls.add("alpha");
+				alpha = value;
+			}
+			public void setMu(long value) {
+				setterCalls.add("mu");
+				mu = value;
+			}
+		}
+		
+		StringBuilder manyNumbers = new StringBuilder("0");
+		for(int i=1; i < 100000; ++i) {
+			manyNumbers.append(',').append(i);
+		}
+		ParallelHolder testObj = new ParallelHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("zeta", manyNumbers.toString());
+		loadedProperties.setProperty("alpha", manyNumbers.toString());
+		
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			testHandler.applyPropertiesInParallel(loadedProperties, pool);
+			
+			assertEquals(100000, testObj.zeta.size());
+			assertEquals(Integer.valueOf(99999), testObj.zeta.get(99999));
+			assertEquals(99999, testObj.alpha[99999]);
+			assertEquals(0, testObj.mu);
+			// Declaration order:
+			assertEquals(Arrays.asList("zeta", "alpha", "mu"), 
+					testObj.setterCalls);
+			
+			// A malformed value leaves the object untouched:
+			testObj.setterCalls.clear();
+			loadedProperties.setProperty("zeta", "1,2,3");
+			loadedProperties.setProperty("mu", "forty-two");
+			try {
+				testHandler.applyPropertiesInParallel(loadedProperties, pool);
+				fail("PropertyParserException not thrown");
+			} catch (PropertyParserException e) {
+				assertEquals("mu", e.getPropertyName());
+			}
+			assertTrue(testObj.setterCalls.isEmpty());
+			assertEquals(100000, testObj.zeta.size());
+			
+			loadedProperties.setProperty("mu", "42");
+			testHandler.applyPropertiesInParallel(loadedProperties);
+			assertEquals(Arrays.asList(1, 2, 3), testObj.zeta);
+			assertEquals(42, testObj.mu);
+		} finally {
+			pool.shutdown();
+		}
+	}
+	
+	public static class Endpoint {
+		@Property
+		public String host;
+		
+		@Property(defaultValue="5432")
+		public int port;
+	}
+	
+	public static class Shard {
+		@Property(defaultValue="1")
+		public int weight;
+		
+		@Property(defaultValue="")
+		public int[] ranges;
+		
+		// Nests itself:
+		@Property
+		public List<Shard> replicas;
+	}
+	
+	public static class Node {
+		@Property(defaultValue="0")
+		public int id;
+		
+		@Property
+		public Node child;
+	}
+	
+	public static class Topology {
+		@Property
+		public String name;
+		
+		private Endpoint primary;
+		
+		@Property
+		public List<Shard> shards;
+		
+		@PropertySetter
+		public void setPrimary(Endpoint newPrimary) {
+			if(newPrimary.host.isEmpty()) {
+				throw new IllegalArgumentException("Empty host");
+			}
+			primary = newPrimary;
+		}
+		
+		@PropertyGetter
+		public Endpoint getPrimary() {
+			return primary;
+		}
+	}
+	
+	@Test
+	public void testNestedProperties()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		Topology testObj = new Topology();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("name", "main");
+		loadedProperties.setProperty("primary.host", "db1");
+		loadedProperties.setProperty("shards.0.weight", "3");
+		loadedProperties.setProperty("shards.1.ranges", "1,2");
+		loadedProperties.setProperty("shards.1.replicas.0.weight", "4");
+		loadedProperties.setProperty("shards.2.weight", "5");
+		loadedProperties.setProperty("shards.2.unknown", "ignored");
+		loadedProperties.setProperty("shards.x.weight", "ignored");
+		loadedProperties.setProperty("shards.01.weight", "ignored");
+		loadedProperties.setProperty("shards.00.weight", "ignored");
+		loadedProperties.setProperty("primary.unknown", "ignored");
+		testHandler.applyProperties(loadedProperties);
+		
+		assertEquals("main", testObj.name);
+		assertEquals("db1", testObj.getPrimary().host);
+		assertEquals(5432, testObj.getPrimary().port);
+		assertEquals(3, testObj.shards.size());
+		assertEquals(3, testObj.shards.get(0).weight);
+		assertTrue(testObj.shards.get(0).replicas.isEmpty());
+		assertEquals(1, testObj.shards.get(1).weight);
+		assertArrayEquals(new int[] {1,2}, testObj.shards.get(1).ranges);
+		assertEquals(4, testObj.shards.get(1).replicas.get(0).weight);
+		assertEquals(5, testObj.shards.get(2).weight);
+		
+		// Extracted keys read back into an equal graph:
+		Properties extracted = testHandler.extractProperties();
+		assertEquals("db1", extracted.getProperty("primary.host"));
+		assertEquals("4", extracted.getProperty("shards.1.replicas.0.weight"));
+		assertEquals("", extracted.getProperty("shards.0.ranges"));
+		StringBuilder text = new StringBuilder();
+		testHandler.extractProperties(text);
+		Topology copy = new Topology();
+		new PropertiesHandler(copy).applyProperties(ByteBuffer.wrap(
+				text.toString().getBytes(StandardCharsets.ISO_8859_1)),
+				StandardCharsets.ISO_8859_1);
+		assertEquals(extracted, new PropertiesHandler(copy).extractProperties());
+		
+		Map<String,String> map = new HashMap<String,String>();
+		for(String name : extracted.stringPropertyNames()) {
+			map.put(name, extracted.getProperty(name));
+		}
+		map.put("shards.0.weight", "6");
+		new PropertiesHandler(copy).applyProperties(map);
+		assertEquals(6, copy.shards.get(0).weight);
+		
+		// Nested values are reported by their full name:
+		loadedProperties.setProperty("shards.2.weight", "heavy");
+		try {
+			testHandler.applyProperties(loadedProperties);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			assertEquals("shards.2.weight", e.getPropertyName());
+		}
+		loadedProperties.setProperty("shards.2.weight", "5");
+		
+		// Indexes may not skip any element:
+		loadedProperties.setProperty("shards.4.weight", "7");
+		try {
+			testHandler.applyProperties(loadedProperties);
+			fail("PropertyMissingException not thrown");
+		} catch (PropertyMissingException e) {
+			assertEquals("shards.3", e.getPropertyName());
+		}
+		loadedProperties.remove("shards.4.weight");
+		
+		// Nested objects are built before being set, all at once:
+		loadedProperties.setProperty("primary.host", "");
+		try {
+			testHandler.applyPropertiesInParallel(loadedProperties);
+			fail("PropertyInvocationTargetException not thrown");
+		} catch (PropertyInvocationTargetException e) {
+			assertEquals("primary", e.getPropertyName());
+		}
+		loadedProperties.remove("primary.host");
+		loadedProperties.setProperty("primary.port", "5433");
+		try {
+			testHandler.applyPropertiesInParallel(loadedProperties);
+			fail("PropertyMissingException not thrown");
+		} catch (PropertyMissingException e) {
+			assertEquals("primary.host", e.getPropertyName());
+		}
+		assertEquals("db1", testObj.getPrimary().host);
+		loadedProperties.setProperty("primary.host", "db2");
+		testHandler.applyPropertiesInParallel(loadedProperties);
+		assertEquals("db2", testObj.getPrimary().host);
+		assertEquals(5, testObj.shards.get(2).weight);
+		
+		// Flat and nested keys are both looked up in the defaults:
+		Properties overrides = new Properties(loadedProperties);
+		overrides.setProperty("primary.host", "db3");
+		Topology overridden = new Topology();
+		PropertiesHandler overriddenHandler = new PropertiesHandler(overridden);
+		overriddenHandler.applyChanges(overrides);
+		assertEquals("main", overridden.name);
+		assertEquals("db3", overridden.getPrimary().host);
+		assertEquals(5433, overridden.getPrimary().port);
+		assertEquals(5, overridden.shards.get(2).weight);
+		overrides.setProperty("primary.port", "5434");
+		assertEquals(Collections.singleton("primary"),
+				overriddenHandler.applyChanges(overrides));
+		assertEquals(5434, overridden.getPrimary().port);
+	}
+	
+	@Test
+	public void testSelfNestingProperties()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		Node testObj = new Node();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		
+		// Nested properties without keys are not built:
+		testHandler.applyProperties(new Properties());
+		assertEquals(0, testObj.id);
+		assertNull(testObj.child);
+		
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("child.child.id", "2");
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(0, testObj.child.id);
+		assertEquals(2, testObj.child.child.id);
+		assertNull(testObj.child.child.child);
+		
+		Properties extracted = testHandler.extractProperties();
+		assertEquals(3, extracted.size());
+		assertEquals("2", extracted.getProperty("child.child.id"));
+		
+		// ...and are set to null once their keys are gone:
+		testHandler.applyChanges(loadedProperties);
+		assertEquals(Collections.singleton("child"),
+				testHandler.applyChanges(new Properties()));
+		assertNull(testObj.child);
+	}
+	
+	@Test
+	public void testApplyChanges()
+		throws PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		
+		class ChangingHolder {
+			final List<String> setterCalls = new ArrayList<String>();
+			
+			@Property
+			private int alpha;
+			
+			@Property(defaultValue="b")
+			private String beta;
+			
+			public int getAlpha() { return alpha; }
+			public String getBeta() { return beta; }
+			
+			public void setAlpha(int value) {
+				setterCalls.add("alpha");
+				alpha = value;
+			}
+			public void setBeta(String value) {
+				setterCalls.add("beta");
+				beta = value;
+			}
+		}
+		
+		ChangingHolder testObj = new ChangingHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("alpha", "1");
+		
+		// Nothing is remembered yet:
+		assertEquals(new HashSet<String>(Arrays.asList("alpha", "beta")),
+				testHandler.applyChanges(loadedProperties));
+		assertTrue(testHandler.applyChanges(loadedProperties).isEmpty());
+		assertEquals(Arrays.asList("alpha", "beta"), testObj.setterCalls);
+		
+		testObj.setterCalls.clear();
+		loadedProperties.setProperty("beta", "b");
+		assertEquals(Collections.singleton("beta"),
+				testHandler.applyChanges(loadedProperties));
+		loadedProperties.setProperty("alpha", "2");
+		testHandler.applyProperties(loadedProperties);
+		assertEquals(Arrays.asList("beta", "alpha", "beta"),
+				testObj.setterCalls);
+		
+		// Other ways of applying keep the memory up to date:
+		testObj.setterCalls.clear();
+		Map<String,String> map = new HashMap<String,String>();
+		map.put("alpha", "2");
+		map.put("beta", "b");
+		assertTrue(testHandler.applyChanges(map).isEmpty());
+		
+		// A malformed change leaves the object untouched:
+		map.put("alpha", "3");
+		map.put("beta", "c");
+		testHandler.applyChanges(map);
+		map.put("alpha", "three");
+		map.put("beta", "d");
+		try {
+			testHandler.applyChanges(map);
+			fail("PropertyParserException not thrown");
+		} catch (PropertyParserException e) {
+			assertEquals("alpha", e.getPropertyName());
+		}
+		assertEquals("c", testObj.beta);
+		map.put("alpha", "3");
+		assertEquals(Collections.singleton("beta"),
+				testHandler.applyChanges(map));
+		assertEquals(Arrays.asList("alpha", "beta", "beta"),
+				testObj.setterCalls);
+		
+		// A nested property changes if any of its keys does:
+		Topology topology = new Topology();
+		PropertiesHandler topologyHandler = new PropertiesHandler(topology);
+		loadedProperties = new Properties();
+		loadedProperties.setProperty("name", "main");
+		loadedProperties.setProperty("primary.host", "db1");
+		loadedProperties.setProperty("shards.0.weight", "3");
+		topologyHandler.applyChanges(loadedProperties);
+		Endpoint primary = topology.getPrimary();
+		loadedProperties.setProperty("shards.1.weight", "4");
+		assertEquals(Collections.singleton("shards"),
+				topologyHandler.applyChanges(loadedProperties));
+		assertSame(primary, topology.getPrimary());
+		assertEquals(4, topology.shards.get(1).weight);
+	}
+	
+	@Test
+	public void testExtractChanges()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		
+		class CheckpointHolder {
+			@Property
+			public int count;
+			
+			@Property(defaultValue="a b")
+			public String label;
+			
+			@Property(defaultValue="1,2,3")
+			public int[] ranges;
+			
+			@Property(defaultValue="x,y")
+			public List<String> tags;
+		}
+		
+		CheckpointHolder testObj = new CheckpointHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("count", "1");
+		testHandler.applyProperties(loadedProperties);
+		
+		// Nothing has been extracted yet:
+		Properties changes = testHandler.extractChanges();
+		assertEquals(testHandler.extractProperties(), changes);
+		assertEquals("1,2,3", changes.getProperty("ranges"));
+		assertTrue(testHandler.extractChanges().isEmpty());
+		
+		// Replaced, by the handler or not:
+		testObj.count = 2;
+		testObj.tags = new ArrayList<String>(Arrays.asList("x", "z"));
+		changes = testHandler.extractChanges();
+		assertEquals(2, changes.size());
+		assertEquals("2", changes.getProperty("count"));
+		assertEquals("x,z", changes.getProperty("tags"));
+		
+		// Changed in place:
+		testObj.ranges[1] = 5;
+		testObj.tags.add("w");
+		changes = testHandler.extractChanges();
+		assertEquals(2, changes.size());
+		assertEquals("1,5,3", changes.getProperty("ranges"));
+		assertEquals("x,z,w", changes.getProperty("tags"));
+		
+		// Changed in place to contents with the same hash code:
+		int[] ranges = testObj.ranges;
+		testObj.ranges = new int[] { 0, 31 };
+		testHandler.extractChanges();
+		testObj.ranges[0] = 1;
+		testObj.ranges[1] = 0;
+		assertEquals(Arrays.hashCode(new int[] { 0, 31 }),
+				Arrays.hashCode(testObj.ranges));
+		assertEquals("1,0", testHandler.extractProperties()
+				.getProperty("ranges"));
+		assertEquals("1,0", testHandler.extractChanges()
+				.getProperty("ranges"));
+		testObj.ranges = ranges;
+		testHandler.extractChanges();
+		
+		// Replaced by an equal value, but for the tags:
+		loadedProperties.setProperty("count", "2");
+		loadedProperties.setProperty("ranges", "1,5,3");
+		testHandler.applyProperties(loadedProperties);
+		changes = testHandler.extractChanges();
+		assertEquals(1, changes.size());
+		assertEquals("x,y", changes.getProperty("tags"));
+		
+		// Other ways of extracting reuse what was formatted, but do not
+		//  count as reporting changes:
+		testObj.label = "b=c";
+		StringBuilder output = new StringBuilder();
+		testHandler.extractProperties(output);
+		assertEquals("count=2" + System.lineSeparator()
+				+ "label=b\\=c" + System.lineSeparator()
+				+ "ranges=1,5,3" + System.lineSeparator()
+				+ "tags=x,y" + System.lineSeparator(), output.toString());
+		testObj.count = 42;
+		assertEquals("42", testHandler.extractProperties().getProperty("count"));
+		changes = testHandler.extractChanges();
+		assertEquals(2, changes.size());
+		assertEquals("b=c", changes.getProperty("label"));
+		assertEquals("42", changes.getProperty("count"));
+		assertTrue(testHandler.extractChanges().isEmpty());
+		
+		// Nested properties are compared key by key:
+		Topology topology = new Topology();
+		PropertiesHandler topologyHandler = new PropertiesHandler(topology);
+		loadedProperties = new Properties();
+		loadedProperties.setProperty("name", "main");
+		loadedProperties.setProperty("primary.host", "db1");
+		loadedProperties.setProperty("shards.0.weight", "3");
+		topologyHandler.applyChanges(loadedProperties);
+		assertEquals(topologyHandler.extractProperties(),
+				topologyHandler.extractChanges());
+		loadedProperties.setProperty("shards.1.weight", "4");
+		topologyHandler.applyChanges(loadedProperties);
+		changes = topologyHandler.extractChanges();
+		assertNull(changes.getProperty("primary.host"));
+		assertNull(changes.getProperty("shards.0.weight"));
+		assertEquals("4", changes.getProperty("shards.1.weight"));
+		// ...even when changed in place:
+		topology.getPrimary().port = 5433;
+		changes = topologyHandler.extractChanges();
+		assertEquals(1, changes.size());
+		assertEquals("5433", changes.getProperty("primary.port"));
+	}
+	
+	@Test
+	public void testApplyPropertiesFromMap()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(new StringReader(testProperties1));
+		
+		// Fewer entries than properties; the map is walked:
+		Map<String,String> small = new HashMap<String,String>();
+		for(String name : loadedProperties.stringPropertyNames()) {
+			small.put(name, loadedProperties.getProperty(name));
+		}
+		small.put("testInt", "43");
+		testHandler.applyProperties(small);
+		assertEquals(43, testObj.myGetTestInt());
+		assertEquals("This string is *required*", testObj.requiredString);
+		assertEquals(16, testObj.testByte); // Default
+		
+		// Mostly unrelated keys; the properties are looked up by name:
+		Map<String,String> large = new HashMap<String,String>(small);
+		for(int i=0; i < 1000; ++i) {
+			large.put("unrelated.key" + i, "value" + i);
+		}
+		large.put("testInt", "44");
+		large.put("testByte", null);
+		testHandler.applyProperties(large);
+		assertEquals(44, testObj.myGetTestInt());
+		assertEquals(16, testObj.testByte);
+		
+		// Keys without a content-based equals() are always walked:
+		Map<StringBuilder,StringBuilder> builders
+			= new HashMap<StringBuilder,StringBuilder>();
+		large.remove("testInt");
+		for(Map.Entry<String,String> entry : large.entrySet()) {
+			builders.put(new StringBuilder(entry.getKey()),
+					entry.getValue() == null
+						? null : new StringBuilder(entry.getValue()));
+		}
+		builders.put(new StringBuilder("testInt"), new StringBuilder("45"));
+		testHandler.applyProperties(builders);
+		assertEquals(45, testObj.myGetTestInt());
+		
+		small.remove("requiredString");
+		try {
+			testHandler.applyProperties(small);
+			fail("PropertyMissingException not thrown");
+		} catch (PropertyMissingException e) {
+			// Expected
+		}
+	}
+	
+	@Test
+	public void testApplyPropertiesFromFile()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		Path file = Files.createTempFile("test", ".properties");
+		Files.write(file, ("unknownKey=ignored\n" + testProperties1
+				+ "testString = Caf\u00e9, \\\n    continued\n")
+				.getBytes(StandardCharsets.UTF_8));
+		
+		try {
+			testHandler.applyProperties(file, StandardCharsets.UTF_8);
+		} finally {
+			Files.delete(file);
+		}
+		assertEquals("Caf\u00e9, continued", testObj.testString);
+		assertEquals(42, testObj.myGetTestInt());
+		assertEquals(432.234, testObj.getTestDouble(), 0.0000001);
+		assertEquals("This string is *required*", testObj.requiredString);
+		assertEquals(16, testObj.testByte); // Default
+		
+		ByteBuffer buffer = ByteBuffer.wrap(testProperties2.getBytes(
+				StandardCharsets.ISO_8859_1));
+		try {
+			testHandler.applyProperties(buffer, StandardCharsets.ISO_8859_1);
+			fail("PropertyMissingException not thrown");
+		} catch (PropertyMissingException e) {
+			assertEquals(0, buffer.position());
+		}
+	}
+	
+	/**
+	 * Test method for
+	 * {@link PropertiesHandler#applyProperties(java.lang.String)}.
+	 * 
+	 * @throws IOException
+	 * @throws InvocationTargetException
+	 * @throws PropertyInaccessibleException
+	 * @throws PropertyMissingException
+	 * @throws PropertyParserException
+	 */
+	@Test
+	public void testApplyProperties()
+		throws IOException,
+			   PropertyInaccessibleException,
+			   InvocationTargetException,
+			   PropertyMissingException,
+			   PropertyParserException {
+		TestPropertiesHolder testObj = new TestPropertiesHolder();
+		PropertiesHandler testHandler = new PropertiesHandler(testObj);
+		InputStream propertiesStream = new ByteArrayInputStream(
+												testProperties1.getBytes() );
+
+		Properties loadedProperties = new Properties();
+		loadedProperties.load(propertiesStream);
+		
+		testHandler.applyProperties(loadedProperties);
+		assertEquals("This is a test", testObj.testString);
+		assertEquals(42, testObj.myGetTestInt());
+		assertEquals(432.234, testObj.getTestDouble(), 0.0000001);
+
+		Set<String> expectedEmails = new HashSet<String>();
+		expectedEmails.addAll(
+				Arrays.asList("test@test.com","dude@test.com","fake@blah.org"));
+		assertEquals(testObj.getEmails(), expectedEmails);
+		
+		Boolean propMissingThrown = false;
+		
+		propertiesStream = new ByteArrayInputStream(
+				testProperties2.getBytes() );
+		try {
+			loadedProperties = new Properties();
+			loadedProperties.load(propertiesStream);
+			testHandler.applyProperties(loadedProperties);
+		} catch (PropertyMissingException e) {
+			// This *should* happen:
+			propMissingThrown = true; 
+		}
+		
+		assertTrue(propMissingThrown);
+	}
+
+}
@@ -0,0 +1,142 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class PropertiesProcessorTest {
+
+	static String validAccount
+		= "package gen;\n"
+		+ "import java.util.Set;\n"
+		+ "import util.properties.*;\n"
+		+ "public class Account {\n"
+		+ "    @Property public int id;\n"
+		+ "    @Property(defaultValue=\"nobody\") private String name;\n"
+		+ "    @Property public Set<String> emails;\n"
+		+ "    public String getName() { return name; }\n"
+		+ "    public void setName(String value) { name = value; }\n"
+		+ "}\n";
+
+	static String invalidAccount
+		= "package gen;\n"
+		+ "import util.properties.*;\n"
+		+ "public class Account {\n"
+		+ "    @Property private int id;\n"
+		+ "    public int getId() { return id; }\n"
+		+ "}\n";
+
+	static class Source extends SimpleJavaFileObject {
+		private final String code;
+
+		Source(String className, String code) {
+			super(URI.create("string:///" + className.replace('.', '/')
+					+ Kind.SOURCE.extension), Kind.SOURCE);
+			this.code = code;
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return code;
+		}
+	}
+
+	private static boolean compile(File outputDir, String className,
+			String code, DiagnosticCollector<JavaFileObject> diagnostics) {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		List<String> options = Arrays.asList(
+				"-d", outputDir.getPath(),
+				"-cp", System.getProperty("java.class.path"));
+		JavaCompiler.CompilationTask task = compiler.getTask(null, null,
+				diagnostics, options, null,
+				Arrays.asList(new Source(className, code)));
+		task.setProcessors(Arrays.asList(new PropertiesProcessor()));
+		return task.call();
+	}
+
+	@Test
+	public void testGeneratedBinderIsUsed()
+		throws IOException,
+			   ReflectiveOperationException,
+			   PropertyInaccessibleException,
+			   PropertyMissingException,
+			   PropertyParserException,
+			   PropertyInvocationTargetException {
+		File outputDir = Files.createTempDirectory("binder").toFile();
+		DiagnosticCollector<JavaFileObject> diagnostics
+			= new DiagnosticCollector<JavaFileObject>();
+
+		assertTrue(diagnostics.getDiagnostics().toString(),
+				compile(outputDir, "gen.Account", validAccount, diagnostics));
+		assertTrue(new File(outputDir, "gen/Account$$PropertiesBinder.class")
+				.exists());
+
+		URLClassLoader loader = new URLClassLoader(
+				new URL[] { outputDir.toURI().toURL() },
+				getClass().getClassLoader());
+		Class<?> accountClass = loader.loadClass("gen.Account");
+		Object account = accountClass.getConstructor().newInstance();
+
+		PropertiesHandler handler = new PropertiesHandler(account);
+		assertNotNull(PropertiesBinding.forClass(accountClass).getBinder());
+
+		Properties loadedProperties = new Properties();
+		loadedProperties.setProperty("id", "42");
+		loadedProperties.setProperty("emails", "a@b.c,d@e.f");
+		handler.applyProperties(loadedProperties);
+
+		assertEquals(42, accountClass.getField("id").get(account));
+		assertEquals("nobody",
+				accountClass.getMethod("getName").invoke(account));
+		assertEquals(new HashSet<String>(Arrays.asList("a@b.c", "d@e.f")),
+				accountClass.getField("emails").get(account));
+
+		Properties extracted = handler.extractProperties();
+		assertEquals("42", extracted.getProperty("id"));
+		assertEquals("nobody", extracted.getProperty("name"));
+		loader.close();
+	}
+
+	@Test
+	public void testMisconfigurationIsCompileError() throws IOException {
+		File outputDir = Files.createTempDirectory("binder").toFile();
+		DiagnosticCollector<JavaFileObject> diagnostics
+			= new DiagnosticCollector<JavaFileObject>();
+
+		assertFalse(compile(outputDir, "gen.Account", invalidAccount,
+				diagnostics));
+
+		Boolean setterErrorReported = false;
+		for(Diagnostic<? extends JavaFileObject> diagnostic
+				: diagnostics.getDiagnostics()) {
+			if(diagnostic.getKind() == Diagnostic.Kind.ERROR
+			&& diagnostic.getMessage(null).contains(
+					"Could not resolve a setter for the property named 'id'")) {
+				setterErrorReported = true;
+			}
+		}
+		assertTrue(setterErrorReported);
+	}
+}
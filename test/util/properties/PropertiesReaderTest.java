@@ -0,0 +1,86 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class PropertiesReaderTest {
+
+	static String trickyProperties
+		= "# A comment\n"
+		+ "   ! Another comment, with a continuation that is ignored \\\n"
+		+ "plain=value\n"
+		+ "spaced   :   value with trailing space \n"
+		+ "\n"
+		+ "   \t\n"
+		+ "noSeparator\n"
+		+ "whitespaceSeparator value\n"
+		+ "key\\ with\\=escapes\\:=a\\tb\\nc\\\\d\\u00e9\n"
+		+ "continued = first, \\\n"
+		+ "            second, \\\r\n"
+		+ "    third\r\n"
+		+ "crlf=windows\r\n"
+		+ "cr=mac\r"
+		+ "unicode=caf\u00e9 \u65e5\u672c \ud83d\ude00\n"
+		+ "plain=last value wins\n"
+		+ "eof=no newline \\";
+
+	private static Properties read(String text, Charset charset) {
+		Properties properties = new Properties();
+		PropertiesReader reader = new PropertiesReader(
+				ByteBuffer.wrap(text.getBytes(charset)), charset);
+		while(reader.next()) {
+			properties.setProperty(
+					new String(reader.getKey(), 0, reader.getKeyLength()),
+					reader.getValue());
+		}
+		return properties;
+	}
+
+	@Test
+	public void testMatchesPropertiesLoad() throws IOException {
+		Properties expected = new Properties();
+		expected.load(new StringReader(trickyProperties));
+
+		assertEquals(expected,
+				read(trickyProperties, StandardCharsets.UTF_8));
+		assertEquals(expected,
+				read(trickyProperties, StandardCharsets.UTF_16BE));
+		assertEquals("first, second, third", expected.get("continued"));
+	}
+
+	@Test
+	public void testISO_8859_1() throws IOException {
+		String text = "caf\u00e9=na\u00efve\nescaped=\\u65e5\n";
+		Properties expected = new Properties();
+		expected.load(new StringReader(text));
+
+		assertEquals(expected, read(text, StandardCharsets.ISO_8859_1));
+	}
+
+	@Test
+	public void testMalformedUTF8IsReplaced() {
+		byte[] bytes = { 'k', '=', 'a', (byte)0xC3, 'b', (byte)0xFF };
+		PropertiesReader reader = new PropertiesReader(ByteBuffer.wrap(bytes),
+				StandardCharsets.UTF_8);
+		assertTrue(reader.next());
+		assertEquals("a\ufffdb\ufffd", reader.getValue());
+		assertFalse(reader.next());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMalformedUnicodeEscape() {
+		read("key=\\u12x4\n", StandardCharsets.ISO_8859_1);
+	}
+}
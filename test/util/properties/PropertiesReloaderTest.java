@@ -0,0 +1,172 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class PropertiesReloaderTest {
+	// Generous, for slow or polling watch services:
+	private static final long TIMEOUT_MILLIS = 30000;
+
+	public static class ServiceConfig {
+		@Property
+		public int port;
+
+		@Property(defaultValue="info")
+		public String logLevel;
+	}
+
+	private Path directory;
+	private PropertiesReloader reloader;
+
+	@Before
+	public void setUp() throws IOException {
+		directory = Files.createTempDirectory("reload");
+		reloader = new PropertiesReloader(50, TimeUnit.MILLISECONDS);
+	}
+
+	@After
+	public void tearDown() throws IOException {
+		reloader.close();
+		for(Path file : Files.newDirectoryStream(directory)) {
+			Files.delete(file);
+		}
+		Files.delete(directory);
+	}
+
+	private static void write(Path file, String text) throws IOException {
+		// Replaced atomically, the way deployment tools do:
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.write(temp, text.getBytes(StandardCharsets.ISO_8859_1));
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING,
+				StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private void awaitPort(ServiceConfig config, int port)
+		throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while(config.port != port) {
+			assertTrue("Timed out waiting for port " + port,
+					System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private void awaitPort(PropertiesSnapshot<ServiceConfig> snapshot,
+			int port) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while(snapshot.get().port != port) {
+			assertTrue("Timed out waiting for port " + port,
+					System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	private void awaitFailures(long count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while(reloader.getFailureCount() < count) {
+			assertTrue("Timed out waiting for failure " + count,
+					System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+	}
+
+	@Test
+	public void testReload() throws Exception {
+		Path file = directory.resolve("service.properties");
+		Path other = directory.resolve("other.properties");
+		write(file, "port=80\n");
+		write(other, "port=1\n");
+
+		ServiceConfig[] configs = new ServiceConfig[1000];
+		for(int i=0; i < configs.length; ++i) {
+			configs[i] = new ServiceConfig();
+			reloader.bind(file, new PropertiesHandler(configs[i]));
+		}
+		ServiceConfig otherConfig = new ServiceConfig();
+		PropertiesHandler otherHandler = new PropertiesHandler(otherConfig);
+		reloader.bind(other, otherHandler);
+		PropertiesSnapshot<ServiceConfig> snapshot
+			= new PropertiesSnapshot<ServiceConfig>(ServiceConfig.class);
+		reloader.bind(file, snapshot);
+		ServiceConfig first = snapshot.get();
+		assertEquals(80, first.port);
+		assertEquals(80, configs[999].port);
+		assertEquals("info", configs[999].logLevel);
+		assertEquals(0, reloader.getReloadCount());
+
+		// A burst of changes is coalesced:
+		for(int i=0; i < 5; ++i) {
+			write(file, "port=" + (8080 + i) + "\nlogLevel=debug\n");
+		}
+		awaitPort(configs[999], 8084);
+		assertTrue(reloader.getReloadCount() < 5);
+		assertEquals(8084, configs[0].port);
+		assertEquals("debug", configs[999].logLevel);
+		assertEquals(1, otherConfig.port);
+		assertEquals(0, reloader.getFailureCount());
+		awaitPort(snapshot, 8084);
+		assertEquals(80, first.port);
+
+		// A malformed file leaves every object untouched:
+		write(file, "port=eighty\nlogLevel=trace\n");
+		awaitFailures(1000);
+		assertTrue(reloader.getLastFailure()
+				instanceof PropertyParserException);
+		assertEquals("debug", configs[0].logLevel);
+
+		// So does a malformed escape sequence, which Properties.load
+		//  rejects; later edits are still reloaded:
+		write(file, "port=82\npath=C:\\users\\me\n");
+		awaitFailures(1002);
+		assertTrue(reloader.getLastFailure()
+				instanceof IllegalArgumentException);
+		assertEquals(8084, configs[0].port);
+
+		assertTrue(reloader.unbind(other, otherHandler));
+		assertFalse(reloader.unbind(other, otherHandler));
+		write(other, "port=2\n");
+		write(file, "port=81\n");
+		awaitPort(configs[999], 81);
+		assertEquals(81, configs[500].port);
+		assertEquals("info", configs[500].logLevel);
+		awaitPort(snapshot, 81);
+		assertEquals(1, otherConfig.port);
+
+		// Waits for the reload in progress, if any:
+		reloader.close();
+		assertTrue(reloader.getReloadCount() >= 4);
+		assertEquals(reloader.getReloadCount(),
+				reloader.getReloadLatency().getCount());
+	}
+
+	@Test
+	public void testDirectoryDeleted() throws Exception {
+		Path subdirectory = Files.createDirectory(directory.resolve("conf"));
+		Path file = subdirectory.resolve("service.properties");
+		write(file, "port=80\n");
+		ServiceConfig config = new ServiceConfig();
+		reloader.bind(file, new PropertiesHandler(config));
+		assertEquals(80, config.port);
+
+		// Reported, instead of never reloading again without a word:
+		Files.delete(file);
+		Files.delete(subdirectory);
+		awaitFailures(1);
+		assertTrue(reloader.getLastFailure().getMessage()
+				.endsWith(subdirectory.toString()));
+	}
+}
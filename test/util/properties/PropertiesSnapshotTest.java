@@ -0,0 +1,123 @@
+package util.properties;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+
+/**
+ * @author lacresti
+ *
+ */
+public class PropertiesSnapshotTest {
+	// Its two bounds are only consistent as a whole:
+	public static class Range {
+		private int low;
+		private int high;
+
+		@PropertySetter(name="low")
+		public void setLow(int low) {
+			this.low = low;
+		}
+
+		@PropertyGetter(name="low")
+		public int getLow() {
+			return low;
+		}
+
+		@PropertySetter(name="high")
+		public void setHigh(int high) {
+			if(high < 0) {
+				throw new IllegalArgumentException("Negative: " + high);
+			}
+			this.high = high;
+		}
+
+		@PropertyGetter(name="high")
+		public int getHigh() {
+			return high;
+		}
+	}
+
+	private static Map<String,String> range(int low, int high) {
+		Map<String,String> values = new HashMap<String,String>();
+		values.put("low", Integer.toString(low));
+		values.put("high", Integer.toString(high));
+		return values;
+	}
+
+	@Test
+	public void testApply() throws Exception {
+		PropertiesSnapshot<Range> snapshot
+			= new PropertiesSnapshot<Range>(Range.class);
+		assertNull(snapshot.get());
+
+		Range first = snapshot.apply(range(1, 2));
+		assertSame(first, snapshot.get());
+		assertEquals(1, first.getLow());
+		assertEquals(2, first.getHigh());
+
+		Range second = snapshot.apply(range(3, 4));
+		assertNotSame(first, second);
+		assertSame(second, snapshot.get());
+		assertEquals(1, first.getLow());
+		assertEquals(3, second.getLow());
+
+		// Rejected by a setter:
+		try {
+			snapshot.apply(range(5, -1));
+			fail("Expected PropertyInvocationTargetException");
+		} catch (PropertyInvocationTargetException e) {
+			assertEquals("high", e.getPropertyName());
+		}
+		assertSame(second, snapshot.get());
+
+		// Malformed:
+		Map<String,String> values = range(6, 7);
+		values.put("low", "six");
+		try {
+			snapshot.apply(values);
+			fail("Expected PropertyParserException");
+		} catch (PropertyParserException e) {
+			// Expected.
+		}
+		assertSame(second, snapshot.get());
+	}
+
+	@Test
+	public void testConsistentReads() throws Exception {
+		final PropertiesSnapshot<Range> snapshot
+			= new PropertiesSnapshot<Range>(Range.class);
+		snapshot.apply(range(0, 0));
+
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<String> inconsistency
+			= new AtomicReference<String>();
+		Thread reader = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				while(!done.get()) {
+					Range range = snapshot.get();
+					int low = range.getLow();
+					int high = range.getHigh();
+					if(high != low + 1 && (low != 0 || high != 0)) {
+						inconsistency.set(low + ".." + high);
+						return;
+					}
+				}
+			}
+		});
+		reader.start();
+		for(int i=1; i < 20000; ++i) {
+			snapshot.apply(range(i, i + 1));
+		}
+		done.set(true);
+		reader.join();
+		assertNull(inconsistency.get());
+		assertEquals(19999, snapshot.get().getLow());
+	}
+}